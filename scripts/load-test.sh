@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Compares platform-thread and virtual-thread request handling under the same closed-loop load.
+# Uses the persistent store so writes block on the write-ahead log fsync, like a slow downstream call would.
+#
+# usage: JAVA21_HOME=/path/to/jdk-21 scripts/load-test.sh [concurrency] [duration-seconds]
+set -euo pipefail
+
+CONCURRENCY=${1:-1000}
+DURATION=${2:-30}
+JAVA=${JAVA21_HOME:?set JAVA21_HOME to a Java 21+ JDK}/bin/java
+cd "$(dirname "$0")/.."
+
+./gradlew -q bootJar jmhClasses
+JAR=$(ls build/libs/*-SNAPSHOT.jar | head -1)
+
+for MODE in false true; do
+   LABEL=$([ "$MODE" = true ] && echo virtual || echo platform)
+   DATA_DIR=$(mktemp -d)
+   "$JAVA" -Dtask.threads.virtual=$MODE -Dtask.store.type=persistent -Dtask.store.data-dir="$DATA_DIR" \
+       -jar "$JAR" > "build/load-test-$LABEL.log" 2>&1 &
+   APP_PID=$!
+   until curl -sf http://localhost:8080/task-mgmt/task/1 > /dev/null; do sleep 1; done
+
+   ./gradlew -q loadTest -PloadTestArgs="$LABEL http://localhost:8080/task-mgmt $CONCURRENCY $DURATION 5"
+
+   kill "$APP_PID"
+   wait "$APP_PID" || true
+   rm -rf "$DATA_DIR"
+done
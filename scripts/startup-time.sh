@@ -0,0 +1,45 @@
+#!/usr/bin/env bash
+# Time from JVM launch to the first successful GET /task-mgmt/tasks, in milliseconds, for each startup mode:
+#   default    the application as configured today
+#   lazy       the fast-startup profile (lazy bean initialization)
+#   lazy+cds   the same with the AppCDS archive from ./gradlew cdsArchive
+# All modes run from the same classpath, so only the startup settings differ.
+#
+# usage: scripts/startup-time.sh [runs-per-mode]
+set -euo pipefail
+
+RUNS=${1:-5}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+MAIN=com.railse.hiring.workforcemgmt.Application
+cd "$(dirname "$0")/.."
+
+./gradlew -q cdsArchive
+CLASSPATH=$(cat build/cds/classpath.txt)
+
+time_to_first_request() {
+   local start end pid
+   start=$(date +%s%N)
+   "$JAVA" "$@" -cp "$CLASSPATH" "$MAIN" > build/startup-time.log 2>&1 &
+   pid=$!
+   until curl -sf -o /dev/null http://localhost:8080/task-mgmt/tasks; do
+      kill -0 "$pid" 2> /dev/null || { echo "application exited, see build/startup-time.log" >&2; exit 1; }
+      sleep 0.01
+   done
+   end=$(date +%s%N)
+   kill "$pid"
+   wait "$pid" || true
+   echo $(( (end - start) / 1000000 ))
+}
+
+measure() {
+   local label=$1 times
+   shift
+   times=$(for _ in $(seq "$RUNS"); do time_to_first_request "$@"; done | sort -n)
+   printf '%-10s %8s %8s %8s\n' "$label" "$(head -1 <<< "$times")" \
+       "$(sed -n "$(( (RUNS + 1) / 2 ))p" <<< "$times")" "$(tail -1 <<< "$times")"
+}
+
+printf '%-10s %8s %8s %8s\n' mode min-ms median-ms max-ms
+measure default
+measure lazy -Dspring.profiles.active=fast-startup
+measure lazy+cds -Dspring.profiles.active=fast-startup -XX:SharedArchiveFile=build/cds/app.jsa
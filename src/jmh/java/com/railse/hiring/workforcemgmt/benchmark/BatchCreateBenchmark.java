@@ -0,0 +1,84 @@
+package com.railse.hiring.workforcemgmt.benchmark;
+
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.dto.TaskCreateRequest;
+import com.railse.hiring.workforcemgmt.dto.TaskManagementDto;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.repository.InMemoryTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.PersistentTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import com.railse.hiring.workforcemgmt.service.impl.TaskManagementServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cost of /create per request at different batch sizes; divide by batchSize for the per-task cost
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BatchCreateBenchmark {
+
+   @Param({"1", "100", "10000"})
+   public int batchSize;
+
+   @Param({"memory", "persistent"})
+   public String storeType;
+
+   private Path dataDirectory;
+   private TaskRepository repository;
+   private TaskManagementServiceImpl service;
+   private TaskCreateRequest request;
+
+   @Setup(Level.Trial)
+   public void setUp() throws IOException {
+       if ("persistent".equals(storeType)) {
+           dataDirectory = Files.createTempDirectory("task-batch-bench");
+           repository = new PersistentTaskRepository(dataDirectory.toString(), TimeUnit.DAYS.toSeconds(1));
+       } else {
+           repository = new InMemoryTaskRepository();
+       }
+       service = BenchmarkData.service(repository);
+
+       List<TaskCreateRequest.RequestItem> items = new ArrayList<>(batchSize);
+       for (int i = 0; i < batchSize; i++) {
+           TaskCreateRequest.RequestItem item = new TaskCreateRequest.RequestItem();
+           item.setReferenceId((long) i);
+           item.setReferenceType(ReferenceType.ORDER);
+           item.setTask(Task.CREATE_INVOICE);
+           item.setAssigneeId((long) (i % 50));
+           item.setPriority(Priority.MEDIUM);
+           item.setTaskDeadlineTime(System.currentTimeMillis() + 86_400_000L);
+           items.add(item);
+       }
+       request = new TaskCreateRequest();
+       request.setRequests(items);
+   }
+
+   @TearDown(Level.Trial)
+   public void tearDown() throws IOException {
+       if (repository instanceof PersistentTaskRepository persistent) {
+           persistent.close();
+           RecoveryBenchmark.deleteRecursively(dataDirectory);
+       }
+   }
+
+   @Benchmark
+   public List<TaskManagementDto> createTasks() {
+       return service.createTasks(request);
+   }
+}
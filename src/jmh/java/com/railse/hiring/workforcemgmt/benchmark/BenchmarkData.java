@@ -0,0 +1,82 @@
+package com.railse.hiring.workforcemgmt.benchmark;
+
+import com.railse.hiring.workforcemgmt.cache.TaskDtoCache;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.deadline.TaskDeadlineTracker;
+import com.railse.hiring.workforcemgmt.feed.TaskChangeFeed;
+import com.railse.hiring.workforcemgmt.history.TaskHistoryWriter;
+import com.railse.hiring.workforcemgmt.mapper.ITaskManagementMapper;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.query.TaskQueryIndex;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import com.railse.hiring.workforcemgmt.search.TaskSearchIndex;
+import com.railse.hiring.workforcemgmt.service.impl.TaskManagementServiceImpl;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Synthetic task population shared by the benchmarks. Bucket sizes stay fixed as the store grows
+ * (20 tasks per assignee, 3 per reference), so lookup costs can be compared across store sizes.
+ */
+final class BenchmarkData {
+
+   static final int TASKS_PER_ASSIGNEE = 20;
+   static final int TASKS_PER_REFERENCE = 3;
+
+   private static final Priority[] PRIORITIES = Priority.values();
+   private static final TaskStatus[] STATUSES = TaskStatus.values();
+   private static final int LOAD_BATCH = 10_000;
+
+   private BenchmarkData() {
+   }
+
+   static TaskManagement task(long sequence) {
+       TaskManagement task = new TaskManagement();
+       task.setReferenceId(sequence / TASKS_PER_REFERENCE);
+       task.setReferenceType(ReferenceType.ORDER);
+       task.setTask(Task.CREATE_INVOICE);
+       task.setAssigneeId(sequence / TASKS_PER_ASSIGNEE);
+       task.setPriority(PRIORITIES[(int) (sequence % PRIORITIES.length)]);
+       task.setStatus(STATUSES[(int) (sequence % STATUSES.length)]);
+       task.setDescription("Benchmark task " + sequence);
+       task.setTaskDeadlineTime(System.currentTimeMillis() + 86_400_000L);
+       return task;
+   }
+
+   static List<TaskManagement> tasks(long firstSequence, int count) {
+       List<TaskManagement> tasks = new ArrayList<>(count);
+       for (int i = 0; i < count; i++) {
+           tasks.add(task(firstSequence + i));
+       }
+       return tasks;
+   }
+
+   static TaskManagementServiceImpl service(TaskRepository repository) {
+       return service(repository, new TaskDtoCache(Jackson2ObjectMapperBuilder.json().build(), 10_000));
+   }
+
+   // The feed has no subscribers, so publishing costs the ring append plus the deadline tracker's, search
+   // index's and query index's bookkeeping; the tracker's timer is not started
+   static TaskManagementServiceImpl service(TaskRepository repository, TaskDtoCache taskDtoCache) {
+       return service(repository, taskDtoCache, TaskHistoryWriter.synchronous(repository));
+   }
+
+   static TaskManagementServiceImpl service(TaskRepository repository, TaskDtoCache taskDtoCache, TaskHistoryWriter historyWriter) {
+       TaskChangeFeed changeFeed = new TaskChangeFeed(ForkJoinPool.commonPool(), 65_536, 300);
+       return new TaskManagementServiceImpl(repository, ITaskManagementMapper.INSTANCE, taskDtoCache, changeFeed,
+               new TaskDeadlineTracker(repository, changeFeed, 1000), historyWriter, new TaskSearchIndex(repository, changeFeed, 65_536),
+               new TaskQueryIndex(repository, changeFeed, 65_536));
+   }
+
+   static void load(TaskRepository repository, int taskCount) {
+       for (int loaded = 0; loaded < taskCount; loaded += LOAD_BATCH) {
+           repository.saveAll(tasks(loaded, Math.min(LOAD_BATCH, taskCount - loaded)));
+       }
+   }
+}
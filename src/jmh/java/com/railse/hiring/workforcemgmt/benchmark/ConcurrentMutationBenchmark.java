@@ -0,0 +1,88 @@
+package com.railse.hiring.workforcemgmt.benchmark;
+
+import com.railse.hiring.workforcemgmt.dto.CommentRequest;
+import com.railse.hiring.workforcemgmt.dto.PriorityUpdateRequest;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.repository.InMemoryTaskRepository;
+import com.railse.hiring.workforcemgmt.service.impl.TaskManagementServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contended comment and priority updates on a handful of hot tasks. Besides throughput, the trial fails if the
+ * stored comment and activity counts differ from the number of successful calls, i.e. if any update was lost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConcurrentMutationBenchmark {
+
+   @Param({"1", "16"})
+   public int hotTasks;
+
+   private InMemoryTaskRepository repository;
+   private TaskManagementServiceImpl service;
+   private long firstTaskId;
+   private final LongAdder commentsAdded = new LongAdder();
+   private final LongAdder priorityUpdates = new LongAdder();
+
+   @Setup(Level.Trial)
+   public void setUp() {
+       repository = new InMemoryTaskRepository(false) {
+       };
+       service = BenchmarkData.service(repository);
+       firstTaskId = repository.saveAll(BenchmarkData.tasks(0, hotTasks)).get(0).getId();
+   }
+
+   @TearDown(Level.Trial)
+   public void verifyNoLostUpdates() {
+       long comments = 0;
+       long activities = 0;
+       for (long id = firstTaskId; id < firstTaskId + hotTasks; id++) {
+           comments += repository.countComments(id);
+           activities += repository.countActivities(id);
+       }
+       // Every priority change records one activity
+       long expectedActivities = priorityUpdates.sum();
+       if (comments != commentsAdded.sum() || activities != expectedActivities) {
+           throw new IllegalStateException("Lost updates: " + comments + "/" + commentsAdded.sum() + " comments, "
+                   + activities + "/" + expectedActivities + " activities");
+       }
+   }
+
+   @Benchmark
+   public void addComment() {
+       CommentRequest request = new CommentRequest();
+       request.setTaskId(randomHotTask());
+       request.setComment("Benchmark comment");
+       request.setUserId(1L);
+       service.addCommentToTask(request, null);
+       commentsAdded.increment();
+   }
+
+   @Benchmark
+   public void updatePriority() {
+       PriorityUpdateRequest request = new PriorityUpdateRequest();
+       request.setTaskId(randomHotTask());
+       request.setPriority(Priority.values()[ThreadLocalRandom.current().nextInt(Priority.values().length)]);
+       request.setUserId(1L);
+       service.updateTaskPriority(request, null);
+       priorityUpdates.increment();
+   }
+
+   private long randomHotTask() {
+       return firstTaskId + ThreadLocalRandom.current().nextInt(hotTasks);
+   }
+}
@@ -0,0 +1,117 @@
+package com.railse.hiring.workforcemgmt.benchmark;
+
+import com.railse.hiring.workforcemgmt.cache.TaskDtoCache;
+import com.railse.hiring.workforcemgmt.dto.CommentRequest;
+import com.railse.hiring.workforcemgmt.dto.PriorityUpdateRequest;
+import com.railse.hiring.workforcemgmt.history.TaskHistoryWriter;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.repository.InMemoryTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.PersistentTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import com.railse.hiring.workforcemgmt.service.impl.TaskManagementServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency of the two history-writing calls (a comment, and a priority change with its activity) with history
+ * written synchronously versus through the write-behind buffer. With the persistent store the synchronous path
+ * waits for a second group commit per call; write-behind leaves only the task record's. The trial fails if any
+ * comment or activity is missing from the store once the buffer has been flushed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HistoryWriteBehindBenchmark {
+
+   private static final int TASKS = 1000;
+
+   @Param({"memory", "persistent"})
+   public String storeType;
+
+   @Param({"false", "true"})
+   public boolean writeBehind;
+
+   private Path dataDirectory;
+   private TaskRepository repository;
+   private TaskHistoryWriter historyWriter;
+   private TaskManagementServiceImpl service;
+   private long firstTaskId;
+   private final LongAdder commentsAdded = new LongAdder();
+   private final LongAdder priorityUpdates = new LongAdder();
+
+   @Setup(Level.Trial)
+   public void setUp() throws IOException {
+       if ("persistent".equals(storeType)) {
+           dataDirectory = Files.createTempDirectory("task-history-bench");
+           repository = new PersistentTaskRepository(dataDirectory.toString(), TimeUnit.DAYS.toSeconds(1));
+       } else {
+           repository = new InMemoryTaskRepository(false) {
+           };
+       }
+       historyWriter = new TaskHistoryWriter(repository, writeBehind, 65_536, 512, 5);
+       service = BenchmarkData.service(repository, new TaskDtoCache(Jackson2ObjectMapperBuilder.json().build(), 10_000), historyWriter);
+       firstTaskId = repository.saveAll(BenchmarkData.tasks(0, TASKS)).get(0).getId();
+   }
+
+   @TearDown(Level.Trial)
+   public void tearDown() throws IOException {
+       historyWriter.flush().join();
+       historyWriter.close();
+       long comments = 0;
+       long activities = 0;
+       for (long id = firstTaskId; id < firstTaskId + TASKS; id++) {
+           comments += repository.countComments(id);
+           activities += repository.countActivities(id);
+       }
+       if (repository instanceof PersistentTaskRepository persistent) {
+           persistent.close();
+           RecoveryBenchmark.deleteRecursively(dataDirectory);
+       }
+       if (comments != commentsAdded.sum() || activities != priorityUpdates.sum()) {
+           throw new IllegalStateException("Lost history: " + comments + "/" + commentsAdded.sum() + " comments, "
+                   + activities + "/" + priorityUpdates.sum() + " activities");
+       }
+   }
+
+   @Benchmark
+   public long addComment() {
+       CommentRequest request = new CommentRequest();
+       request.setTaskId(randomTask());
+       request.setComment("Benchmark comment");
+       request.setUserId(1L);
+       long version = service.addCommentToTask(request, null);
+       commentsAdded.increment();
+       return version;
+   }
+
+   @Benchmark
+   public long updatePriority() {
+       PriorityUpdateRequest request = new PriorityUpdateRequest();
+       request.setTaskId(randomTask());
+       request.setPriority(Priority.values()[ThreadLocalRandom.current().nextInt(Priority.values().length)]);
+       request.setUserId(1L);
+       long version = service.updateTaskPriority(request, null);
+       priorityUpdates.increment();
+       return version;
+   }
+
+   private long randomTask() {
+       return firstTaskId + ThreadLocalRandom.current().nextInt(TASKS);
+   }
+}
@@ -0,0 +1,57 @@
+package com.railse.hiring.workforcemgmt.benchmark;
+
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.repository.PersistentTaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-ahead log throughput: every save returns only after its group commit is forced to disk, so running
+ * with more threads should raise throughput as more records share each fsync.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PersistentTaskRepositoryBenchmark {
+
+   private static final long NO_SCHEDULED_SNAPSHOTS = TimeUnit.DAYS.toSeconds(1);
+
+   private Path dataDirectory;
+   private PersistentTaskRepository repository;
+
+   @Setup(Level.Trial)
+   public void setUp() throws IOException {
+       dataDirectory = Files.createTempDirectory("task-wal-bench");
+       repository = new PersistentTaskRepository(dataDirectory.toString(), NO_SCHEDULED_SNAPSHOTS);
+   }
+
+   @TearDown(Level.Trial)
+   public void tearDown() throws IOException {
+       repository.close();
+       RecoveryBenchmark.deleteRecursively(dataDirectory);
+   }
+
+   @Benchmark
+   public TaskManagement saveNewTask() {
+       return repository.save(BenchmarkData.task(ThreadLocalRandom.current().nextLong(1_000_000)));
+   }
+
+   @Benchmark
+   public void addComment() {
+       TaskManagement task = repository.findById(1L).orElseThrow();
+       repository.addComment(task, "Benchmark comment", 1L);
+   }
+}
@@ -0,0 +1,106 @@
+package com.railse.hiring.workforcemgmt.benchmark;
+
+import com.railse.hiring.workforcemgmt.repository.PersistentTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.persistence.RecordCodec;
+import com.railse.hiring.workforcemgmt.repository.persistence.WriteAheadLog;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cold-start recovery time: the data directory holds only log segments (no snapshot), so every record is
+ * replayed. Each measurement opens a fresh repository over a copy of the same files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RecoveryBenchmark {
+
+   private static final long NO_SCHEDULED_SNAPSHOTS = TimeUnit.DAYS.toSeconds(1);
+
+   @Param({"100000", "1000000"})
+   public int logRecords;
+
+   private Path template;
+   private Path dataDirectory;
+   private PersistentTaskRepository recovered;
+
+   @Setup(Level.Trial)
+   public void writeLog() throws IOException {
+       template = Files.createTempDirectory("task-recovery-bench");
+       WriteAheadLog writeAheadLog = new WriteAheadLog(template, 0);
+       List<CompletableFuture<Long>> pending = new ArrayList<>(logRecords);
+       for (int i = 0; i < logRecords; i++) {
+           TaskManagement task = BenchmarkData.task(i);
+           task.setId(i + 1L);
+           pending.add(writeAheadLog.append(RecordCodec.TASK, RecordCodec.encodeTask(task)));
+       }
+       CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).join();
+       writeAheadLog.close();
+   }
+
+   @Setup(Level.Iteration)
+   public void copyLog() throws IOException {
+       dataDirectory = Files.createTempDirectory("task-recovery-run");
+       try (Stream<Path> files = Files.list(template)) {
+           for (Path file : files.toList()) {
+               Files.copy(file, dataDirectory.resolve(file.getFileName()));
+           }
+       }
+   }
+
+   @TearDown(Level.Iteration)
+   public void deleteCopy() throws IOException {
+       if (recovered != null) {
+           recovered.close();
+           recovered = null;
+       }
+       deleteRecursively(dataDirectory);
+   }
+
+   @TearDown(Level.Trial)
+   public void deleteTemplate() throws IOException {
+       deleteRecursively(template);
+   }
+
+   @Benchmark
+   public PersistentTaskRepository recover() throws IOException {
+       recovered = new PersistentTaskRepository(dataDirectory.toString(), NO_SCHEDULED_SNAPSHOTS);
+       return recovered;
+   }
+
+   static void deleteRecursively(Path directory) throws IOException {
+       if (directory == null || !Files.exists(directory)) {
+           return;
+       }
+       try (Stream<Path> paths = Files.walk(directory)) {
+           for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+               Files.deleteIfExists(path);
+           }
+       }
+   }
+}
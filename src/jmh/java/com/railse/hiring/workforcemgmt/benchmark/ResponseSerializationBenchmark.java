@@ -0,0 +1,52 @@
+package com.railse.hiring.workforcemgmt.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.railse.hiring.workforcemgmt.common.model.response.Response;
+import com.railse.hiring.workforcemgmt.dto.TaskManagementDto;
+import com.railse.hiring.workforcemgmt.mapper.ITaskManagementMapper;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Full Jackson serialization of a list response, with the same ObjectMapper defaults Spring MVC uses
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseSerializationBenchmark {
+
+   @Param({"10", "100", "1000"})
+   public int listSize;
+
+   private ObjectMapper objectMapper;
+   private Response<List<TaskManagementDto>> response;
+
+   @Setup(Level.Trial)
+   public void setUp() {
+       objectMapper = Jackson2ObjectMapperBuilder.json().build();
+       List<TaskManagement> tasks = BenchmarkData.tasks(0, listSize);
+       long id = 1;
+       for (TaskManagement task : tasks) {
+           task.setId(id++);
+           task.setCreatedAt(LocalDateTime.now());
+       }
+       response = new Response<>(ITaskManagementMapper.INSTANCE.modelListToDtoList(tasks));
+   }
+
+   @Benchmark
+   public byte[] serializeTaskList() throws JsonProcessingException {
+       return objectMapper.writeValueAsBytes(response);
+   }
+}
@@ -0,0 +1,81 @@
+package com.railse.hiring.workforcemgmt.benchmark;
+
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.repository.InMemoryTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.ShardedTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write throughput of the single-map store against the sharded store as writer threads are added: creating
+ * tasks (id allocation plus index inserts) and reassigning stored ones (index moves under the task lock), plus
+ * the fan-out cost of an assignee query spanning many assignees. Run it once per thread count to see scaling:
+ * {@code for t in 1 2 4 8 16 32; do ./gradlew jmh -PjmhThreads=$t -PjmhIncludes=ShardedWriteBenchmark; done}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ShardedWriteBenchmark {
+
+   private static final int STORE_SIZE = 1_000_000;
+   private static final int QUERY_ASSIGNEES = 256;
+
+   @Param({"memory", "sharded"})
+   public String store;
+
+   private TaskRepository repository;
+   private List<Long> taskIds;
+   private long assignees;
+
+   // A fresh store per iteration keeps the created tasks from growing the store across the whole run
+   @Setup(Level.Iteration)
+   public void setUp() {
+       repository = "sharded".equals(store) ? new ShardedTaskRepository(0, false) : new InMemoryTaskRepository(false) {
+       };
+       BenchmarkData.load(repository, STORE_SIZE);
+       taskIds = new ArrayList<>(STORE_SIZE);
+       for (TaskManagement task : repository.findAll()) {
+           taskIds.add(task.getId());
+       }
+       assignees = STORE_SIZE / BenchmarkData.TASKS_PER_ASSIGNEE;
+   }
+
+   @Benchmark
+   public TaskManagement create() {
+       return repository.save(BenchmarkData.task(STORE_SIZE + ThreadLocalRandom.current().nextLong(STORE_SIZE)));
+   }
+
+   @Benchmark
+   public TaskManagement reassign() {
+       ThreadLocalRandom random = ThreadLocalRandom.current();
+       Long id = taskIds.get(random.nextInt(taskIds.size()));
+       return repository.update(id, task -> {
+           task.setAssigneeId(random.nextLong(assignees));
+           task.setPriority(Priority.values()[random.nextInt(Priority.values().length)]);
+       }).orElseThrow();
+   }
+
+   @Benchmark
+   public List<TaskManagement> findByManyAssignees() {
+       long first = ThreadLocalRandom.current().nextLong(assignees - QUERY_ASSIGNEES);
+       List<Long> assigneeIds = new ArrayList<>(QUERY_ASSIGNEES);
+       for (long assignee = first; assignee < first + QUERY_ASSIGNEES; assignee++) {
+           assigneeIds.add(assignee);
+       }
+       return repository.findByAssigneeIdIn(assigneeIds);
+   }
+}
@@ -0,0 +1,82 @@
+package com.railse.hiring.workforcemgmt.benchmark;
+
+import com.railse.hiring.workforcemgmt.deadline.DeadlineQueue;
+import com.railse.hiring.workforcemgmt.deadline.TaskDeadlineTracker;
+import com.railse.hiring.workforcemgmt.feed.TaskChangeFeed;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.repository.InMemoryTaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline tracking at growing numbers of pending deadlines: moving one deadline, a timer tick with nothing due
+ * (the steady-state cost of the timer) and one assignee's overdue list. All three should stay flat or grow
+ * only logarithmically with the number of pending deadlines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskDeadlineBenchmark {
+
+   // One task in this many is already past its deadline when loaded
+   private static final int OVERDUE_EVERY = 10;
+
+   @Param({"10000", "1000000", "5000000"})
+   public int pendingDeadlines;
+
+   private DeadlineQueue queue;
+   private TaskDeadlineTracker tracker;
+   private long assignees;
+
+   @Setup(Level.Trial)
+   public void setUp() {
+       long now = System.currentTimeMillis();
+       queue = new DeadlineQueue();
+       ThreadLocalRandom random = ThreadLocalRandom.current();
+       for (long id = 1; id <= pendingDeadlines; id++) {
+           queue.schedule(id, now + random.nextLong(86_400_000L));
+       }
+
+       InMemoryTaskRepository repository = new InMemoryTaskRepository();
+       for (int loaded = 0; loaded < pendingDeadlines; loaded += 10_000) {
+           List<TaskManagement> tasks = BenchmarkData.tasks(loaded, Math.min(10_000, pendingDeadlines - loaded));
+           for (int i = 0; i < tasks.size(); i++) {
+               if ((loaded + i) % OVERDUE_EVERY == 0) {
+                   tasks.get(i).setTaskDeadlineTime(now - 60_000L);
+               }
+           }
+           repository.saveAll(tasks);
+       }
+       tracker = new TaskDeadlineTracker(repository, new TaskChangeFeed(ForkJoinPool.commonPool(), 65_536, 300), 1000);
+       assignees = pendingDeadlines / BenchmarkData.TASKS_PER_ASSIGNEE;
+   }
+
+   @Benchmark
+   public DeadlineQueue reschedule() {
+       ThreadLocalRandom random = ThreadLocalRandom.current();
+       queue.schedule(1 + random.nextLong(pendingDeadlines), System.currentTimeMillis() + random.nextLong(86_400_000L));
+       return queue;
+   }
+
+   @Benchmark
+   public int idleTick() {
+       return tracker.tick();
+   }
+
+   @Benchmark
+   public List<TaskDeadlineTracker.Overdue> overdueByAssignee() {
+       return tracker.overdueTasks(ThreadLocalRandom.current().nextLong(assignees), null, 100);
+   }
+}
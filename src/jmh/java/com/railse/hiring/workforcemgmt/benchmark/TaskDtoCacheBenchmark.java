@@ -0,0 +1,66 @@
+package com.railse.hiring.workforcemgmt.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.railse.hiring.workforcemgmt.cache.TaskDtoCache;
+import com.railse.hiring.workforcemgmt.common.model.response.Response;
+import com.railse.hiring.workforcemgmt.repository.InMemoryTaskRepository;
+import com.railse.hiring.workforcemgmt.service.impl.TaskManagementServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /task/{id} response bodies for tasks with some history: mapped and serialized on every call
+ * (cache size 0) versus written from the cached JSON. The gc profiler shows the allocation saved per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskDtoCacheBenchmark {
+
+   private static final int HOT_TASKS = 1000;
+
+   @Param({"0", "10000"})
+   public long cacheSize;
+
+   private ObjectMapper objectMapper;
+   private TaskManagementServiceImpl service;
+   private long firstTaskId;
+
+   @Setup(Level.Trial)
+   public void setUp() {
+       objectMapper = Jackson2ObjectMapperBuilder.json().build();
+       InMemoryTaskRepository repository = new InMemoryTaskRepository();
+       service = BenchmarkData.service(repository, new TaskDtoCache(objectMapper, cacheSize));
+       firstTaskId = repository.saveAll(BenchmarkData.tasks(0, HOT_TASKS)).get(0).getId();
+       for (long id = firstTaskId; id < firstTaskId + HOT_TASKS; id++) {
+           addHistory(repository, id);
+       }
+   }
+
+   @Benchmark
+   public byte[] getTaskById() throws JsonProcessingException {
+       long id = firstTaskId + ThreadLocalRandom.current().nextInt(HOT_TASKS);
+       return objectMapper.writeValueAsBytes(new Response<>(service.findTaskJsonById(id).getJson()));
+   }
+
+   private static void addHistory(InMemoryTaskRepository repository, long id) {
+       repository.findById(id).ifPresent(task -> {
+           for (int i = 0; i < 5; i++) {
+               repository.addActivity(task, "Benchmark activity " + i, 1L);
+               repository.addComment(task, "Benchmark comment " + i, 1L);
+           }
+       });
+   }
+}
@@ -0,0 +1,175 @@
+package com.railse.hiring.workforcemgmt.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load generator for the /task-mgmt endpoints. Each of {@code concurrency} client threads sends
+ * one request at a time (70% task reads, 20% comments, 10% fetch-by-date) and records its latency; only
+ * requests completed after the warmup are counted. Run it against a server started in platform-thread and
+ * in virtual-thread mode (see scripts/load-test.sh) and compare throughput and p99.
+ * <p>
+ * Arguments: label baseUrl concurrency durationSeconds warmupSeconds
+ */
+public class TaskEndpointLoadTest {
+
+   private static final int TASKS = 1000;
+
+   public static void main(String[] args) throws Exception {
+       String label = arg(args, 0, "run");
+       String baseUrl = arg(args, 1, "http://localhost:8080/task-mgmt");
+       int concurrency = Integer.parseInt(arg(args, 2, "1000"));
+       int durationSeconds = Integer.parseInt(arg(args, 3, "30"));
+       int warmupSeconds = Integer.parseInt(arg(args, 4, "5"));
+
+       HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+       long[] taskIds = createTasks(client, baseUrl);
+
+       AtomicBoolean running = new AtomicBoolean(true);
+       AtomicLong measureFrom = new AtomicLong(Long.MAX_VALUE);
+       AtomicLong errors = new AtomicLong();
+       List<Worker> workers = new ArrayList<>(concurrency);
+       for (int i = 0; i < concurrency; i++) {
+           Worker worker = new Worker(client, baseUrl, taskIds, running, measureFrom, errors);
+           workers.add(worker);
+           worker.thread.start();
+       }
+
+       TimeUnit.SECONDS.sleep(warmupSeconds);
+       long started = System.nanoTime();
+       measureFrom.set(started);
+       TimeUnit.SECONDS.sleep(durationSeconds);
+       running.set(false);
+       long elapsed = System.nanoTime() - started;
+       for (Worker worker : workers) {
+           worker.thread.join();
+       }
+
+       long[] latencies = workers.stream().flatMapToLong(worker -> Arrays.stream(worker.latencies, 0, worker.count)).sorted().toArray();
+       double seconds = elapsed / 1e9;
+       System.out.printf("%-10s concurrency=%d requests=%d errors=%d throughput=%.0f req/s p50=%.2f ms p99=%.2f ms p99.9=%.2f ms max=%.2f ms%n",
+               label, concurrency, latencies.length, errors.get(), latencies.length / seconds,
+               percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999), percentile(latencies, 1.0));
+   }
+
+   private static long[] createTasks(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+       StringBuilder body = new StringBuilder("{\"requests\":[");
+       for (int i = 0; i < TASKS; i++) {
+           body.append(i == 0 ? "" : ",")
+                   .append("{\"reference_id\":").append(10_000 + i)
+                   .append(",\"reference_type\":\"ORDER\",\"task\":\"CREATE_INVOICE\",\"assignee_id\":").append(i % 50)
+                   .append(",\"priority\":\"MEDIUM\",\"task_deadline_time\":").append(System.currentTimeMillis() + 86_400_000L)
+                   .append('}');
+       }
+       body.append("]}");
+       HttpResponse<String> response = client.send(post(baseUrl + "/create", body.toString()), HttpResponse.BodyHandlers.ofString());
+       JsonNode created = new ObjectMapper().readTree(response.body()).path("data");
+       long[] ids = new long[created.size()];
+       for (int i = 0; i < ids.length; i++) {
+           ids[i] = created.get(i).path("id").asLong();
+       }
+       if (ids.length == 0) {
+           throw new IllegalStateException("Could not create load-test tasks: " + response.statusCode() + " " + response.body());
+       }
+       return ids;
+   }
+
+   private static HttpRequest post(String uri, String json) {
+       return HttpRequest.newBuilder(URI.create(uri))
+               .timeout(Duration.ofSeconds(30))
+               .header("Content-Type", "application/json")
+               .POST(HttpRequest.BodyPublishers.ofString(json))
+               .build();
+   }
+
+   private static double percentile(long[] sorted, double percentile) {
+       if (sorted.length == 0) {
+           return 0;
+       }
+       int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+       return sorted[Math.max(index, 0)] / 1e6;
+   }
+
+   private static String arg(String[] args, int index, String defaultValue) {
+       return args.length > index ? args[index] : defaultValue;
+   }
+
+   private static final class Worker implements Runnable {
+       private final HttpClient client;
+       private final String baseUrl;
+       private final long[] taskIds;
+       private final AtomicBoolean running;
+       private final AtomicLong measureFrom;
+       private final AtomicLong errors;
+       private final Thread thread;
+       private long[] latencies = new long[1024];
+       private int count;
+
+       Worker(HttpClient client, String baseUrl, long[] taskIds, AtomicBoolean running, AtomicLong measureFrom, AtomicLong errors) {
+           this.client = client;
+           this.baseUrl = baseUrl;
+           this.taskIds = taskIds;
+           this.running = running;
+           this.measureFrom = measureFrom;
+           this.errors = errors;
+           this.thread = new Thread(this, "load-worker");
+       }
+
+       @Override
+       public void run() {
+           ThreadLocalRandom random = ThreadLocalRandom.current();
+           while (running.get()) {
+               long taskId = taskIds[random.nextInt(taskIds.length)];
+               int pick = random.nextInt(100);
+               HttpRequest request;
+               if (pick < 70) {
+                   request = HttpRequest.newBuilder(URI.create(baseUrl + "/task/" + taskId)).timeout(Duration.ofSeconds(30)).GET().build();
+               } else if (pick < 90) {
+                   request = post(baseUrl + "/comment/add", "{\"task_id\":" + taskId + ",\"comment\":\"load test\",\"user_id\":1}");
+               } else {
+                   long now = System.currentTimeMillis();
+                   request = post(baseUrl + "/fetch-by-date/v2", "{\"start_date\":" + (now - 86_400_000L) + ",\"end_date\":" + now
+                           + ",\"assignee_ids\":[" + random.nextInt(50) + "]}");
+               }
+               long start = System.nanoTime();
+               try {
+                   HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                   if (response.statusCode() >= 400) {
+                       errors.incrementAndGet();
+                       continue;
+                   }
+               } catch (IOException e) {
+                   errors.incrementAndGet();
+                   continue;
+               } catch (InterruptedException e) {
+                   Thread.currentThread().interrupt();
+                   return;
+               }
+               if (start >= measureFrom.get()) {
+                   record(System.nanoTime() - start);
+               }
+           }
+       }
+
+       private void record(long latency) {
+           if (count == latencies.length) {
+               latencies = Arrays.copyOf(latencies, count * 2);
+           }
+           latencies[count++] = latency;
+       }
+   }
+}
@@ -0,0 +1,44 @@
+package com.railse.hiring.workforcemgmt.benchmark;
+
+import com.railse.hiring.workforcemgmt.dto.TaskManagementDto;
+import com.railse.hiring.workforcemgmt.mapper.ITaskManagementMapper;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskMapperBenchmark {
+
+   @Param({"10", "100", "1000"})
+   public int listSize;
+
+   private List<TaskManagement> tasks;
+
+   @Setup(Level.Trial)
+   public void setUp() {
+       tasks = BenchmarkData.tasks(0, listSize);
+       long id = 1;
+       for (TaskManagement task : tasks) {
+           task.setId(id++);
+           task.setCreatedAt(LocalDateTime.now());
+       }
+   }
+
+   @Benchmark
+   public List<TaskManagementDto> modelListToDtoList() {
+       return ITaskManagementMapper.INSTANCE.modelListToDtoList(tasks);
+   }
+}
@@ -0,0 +1,134 @@
+package com.railse.hiring.workforcemgmt.benchmark;
+
+import com.railse.hiring.workforcemgmt.dto.TaskQueryRequest;
+import com.railse.hiring.workforcemgmt.feed.TaskChangeFeed;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.query.TaskQuery;
+import com.railse.hiring.workforcemgmt.query.TaskQueryIndex;
+import com.railse.hiring.workforcemgmt.repository.InMemoryTaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Planned queries over the query index against the best the fixed finders allow. The combined query ("HIGH,
+ * STARTED, one of 16 assignees, deadline within 12 hours, earliest deadline first") is also run client-side the
+ * way callers had to: fetch the assignees' tasks, then filter and sort them. The other queries exercise the
+ * three result orders: id order with early termination, an enum sort walking its buckets, and a bounded heap
+ * for a sort on deadline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskQueryBenchmark {
+
+   private static final int QUERY_ASSIGNEES = 16;
+   private static final int LIMIT = 50;
+
+   @Param({"100000", "1000000", "3000000"})
+   public int documents;
+
+   private InMemoryTaskRepository repository;
+   private TaskQueryIndex index;
+   private long assignees;
+   private long deadlineCutoff;
+
+   @Setup(Level.Trial)
+   public void setUp() throws InterruptedException {
+       SplittableRandom random = new SplittableRandom(42);
+       long now = System.currentTimeMillis();
+       repository = new InMemoryTaskRepository(false) {
+       };
+       for (int loaded = 0; loaded < documents; loaded += 10_000) {
+           List<TaskManagement> tasks = BenchmarkData.tasks(loaded, Math.min(10_000, documents - loaded));
+           for (TaskManagement task : tasks) {
+               task.setTaskDeadlineTime(now + random.nextLong(86_400_000L));
+           }
+           repository.saveAll(tasks);
+       }
+       index = new TaskQueryIndex(repository, new TaskChangeFeed(ForkJoinPool.commonPool(), 65_536, 300), 65_536);
+       index.flush();
+       assignees = documents / BenchmarkData.TASKS_PER_ASSIGNEE;
+       deadlineCutoff = now + 43_200_000L;
+   }
+
+   @Benchmark
+   public List<Long> combined() {
+       List<Object> assigneeIds = new ArrayList<>(randomAssignees());
+       return index.execute(query("task_deadline_time", "asc",
+               filter("priority", "eq", "HIGH", null),
+               filter("status", "eq", "STARTED", null),
+               filter("assignee_id", "in", null, assigneeIds),
+               filter("task_deadline_time", "lt", deadlineCutoff, null)));
+   }
+
+   @Benchmark
+   public List<TaskManagement> combinedClientSide() {
+       return repository.findByAssigneeIdIn(randomAssignees()).stream()
+               .filter(task -> task.getPriority() == Priority.HIGH && task.getStatus() == TaskStatus.STARTED
+                       && task.getTaskDeadlineTime() < deadlineCutoff)
+               .sorted(Comparator.comparing(TaskManagement::getTaskDeadlineTime).thenComparing(TaskManagement::getId))
+               .limit(LIMIT)
+               .toList();
+   }
+
+   @Benchmark
+   public List<Long> newestStarted() {
+       return index.execute(query("id", "desc", filter("status", "eq", "STARTED", null)));
+   }
+
+   @Benchmark
+   public List<Long> openByPriority() {
+       return index.execute(query("priority", "desc", filter("status", "in", null, List.of("ASSIGNED", "STARTED"))));
+   }
+
+   @Benchmark
+   public List<Long> highPriorityEarliestDeadline() {
+       return index.execute(query("task_deadline_time", "asc",
+               filter("priority", "eq", "HIGH", null),
+               filter("status", "ne", "COMPLETED", null)));
+   }
+
+   private List<Long> randomAssignees() {
+       long first = ThreadLocalRandom.current().nextLong(assignees - QUERY_ASSIGNEES);
+       List<Long> assigneeIds = new ArrayList<>(QUERY_ASSIGNEES);
+       for (long assignee = first; assignee < first + QUERY_ASSIGNEES; assignee++) {
+           assigneeIds.add(assignee);
+       }
+       return assigneeIds;
+   }
+
+   private static TaskQuery query(String sortBy, String sortOrder, TaskQueryRequest.Filter... filters) {
+       TaskQueryRequest request = new TaskQueryRequest();
+       request.setFilters(List.of(filters));
+       request.setSortBy(sortBy);
+       request.setSortOrder(sortOrder);
+       request.setLimit(LIMIT);
+       return TaskQuery.of(request, LIMIT, LIMIT);
+   }
+
+   private static TaskQueryRequest.Filter filter(String field, String op, Object value, List<Object> values) {
+       TaskQueryRequest.Filter filter = new TaskQueryRequest.Filter();
+       filter.setField(field);
+       filter.setOp(op);
+       filter.setValue(value);
+       filter.setValues(values);
+       return filter;
+   }
+}
@@ -0,0 +1,83 @@
+package com.railse.hiring.workforcemgmt.benchmark;
+
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.repository.CompactTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.InMemoryTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.OffHeapTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Index-backed lookups at growing store sizes. With fixed bucket sizes the per-call cost should stay flat
+ * from 10k to 5M tasks; the priority lookup is included as the one query whose answer grows with the store.
+ * The compact and off-heap stores answer the same queries from primitive rows and build a task view per result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskRepositoryLookupBenchmark {
+
+   @Param({"10000", "100000", "1000000", "5000000"})
+   public int storeSize;
+
+   @Param({"memory", "compact", "offheap"})
+   public String store;
+
+   private TaskRepository repository;
+   private long assignees;
+   private long references;
+
+   @Setup(Level.Trial)
+   public void setUp() {
+       repository = switch (store) {
+           case "compact" -> new CompactTaskRepository();
+           case "offheap" -> new OffHeapTaskRepository(16);
+           default -> new InMemoryTaskRepository();
+       };
+       BenchmarkData.load(repository, storeSize);
+       assignees = storeSize / BenchmarkData.TASKS_PER_ASSIGNEE;
+       references = storeSize / BenchmarkData.TASKS_PER_REFERENCE;
+   }
+
+   @Benchmark
+   public Optional<TaskManagement> findById() {
+       return repository.findById(ThreadLocalRandom.current().nextLong(1, storeSize));
+   }
+
+   @Benchmark
+   public List<TaskManagement> findByAssigneeIdIn() {
+       long assignee = ThreadLocalRandom.current().nextLong(assignees);
+       return repository.findByAssigneeIdIn(List.of(assignee, (assignee + 1) % assignees));
+   }
+
+   @Benchmark
+   public List<TaskManagement> findByReference() {
+       return repository.findByReferenceIdAndReferenceType(ThreadLocalRandom.current().nextLong(references), ReferenceType.ORDER);
+   }
+
+   @Benchmark
+   public List<TaskManagement> findDailyTasks() {
+       long assignee = ThreadLocalRandom.current().nextLong(assignees);
+       long now = System.currentTimeMillis();
+       return repository.findDailyTasks(List.of(assignee), now - 86_400_000L, now);
+   }
+
+   @Benchmark
+   public List<TaskManagement> findPage() {
+       return repository.findPage(ThreadLocalRandom.current().nextLong(storeSize), 100);
+   }
+}
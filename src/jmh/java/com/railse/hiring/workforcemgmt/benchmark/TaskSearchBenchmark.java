@@ -0,0 +1,117 @@
+package com.railse.hiring.workforcemgmt.benchmark;
+
+import com.railse.hiring.workforcemgmt.feed.TaskChangeFeed;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.InMemoryTaskRepository;
+import com.railse.hiring.workforcemgmt.search.TaskSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency as the index grows to millions of tasks. Descriptions are eight words drawn from a skewed
+ * vocabulary (word {@code wN} gets rarer as N grows), so there are very common terms, a long tail of rare ones,
+ * and prefixes that expand to many terms. A status filter is checked per candidate while an assignee filter drives
+ * the walk from the assignee's own list. {@code addComment} is the steady-state cost of indexing comments:
+ * queueing one, paced by the indexer thread once the queue is full.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskSearchBenchmark {
+
+   private static final int VOCABULARY = 20_000;
+   private static final int WORDS_PER_DESCRIPTION = 8;
+   private static final int LIMIT = 50;
+
+   @Param({"100000", "1000000", "3000000"})
+   public int documents;
+
+   private TaskSearchIndex index;
+   private long firstTaskId;
+   private long assignees;
+
+   @Setup(Level.Trial)
+   public void setUp() throws InterruptedException {
+       SplittableRandom random = new SplittableRandom(42);
+       InMemoryTaskRepository repository = new InMemoryTaskRepository(false) {
+       };
+       for (int loaded = 0; loaded < documents; loaded += 10_000) {
+           List<TaskManagement> tasks = BenchmarkData.tasks(loaded, Math.min(10_000, documents - loaded));
+           for (TaskManagement task : tasks) {
+               task.setDescription(description(random));
+           }
+           repository.saveAll(tasks);
+       }
+       firstTaskId = repository.findPage(0, 1).get(0).getId();
+       index = new TaskSearchIndex(repository, new TaskChangeFeed(ForkJoinPool.commonPool(), 65_536, 300), 65_536);
+       index.flush();
+       assignees = documents / BenchmarkData.TASKS_PER_ASSIGNEE;
+   }
+
+   @Benchmark
+   public List<Long> rareTerm() {
+       return index.search(word(VOCABULARY / 2 + ThreadLocalRandom.current().nextInt(VOCABULARY / 2)), null, null, null, LIMIT);
+   }
+
+   @Benchmark
+   public List<Long> commonTerm() {
+       return index.search(word(ThreadLocalRandom.current().nextInt(10)), null, null, null, LIMIT);
+   }
+
+   @Benchmark
+   public List<Long> commonAndRareTerm() {
+       ThreadLocalRandom random = ThreadLocalRandom.current();
+       return index.search(word(random.nextInt(10)) + " " + word(VOCABULARY / 2 + random.nextInt(VOCABULARY / 2)), null, null, null, LIMIT);
+   }
+
+   // w10* .. w99*: each expands to about 111 terms
+   @Benchmark
+   public List<Long> prefix() {
+       return index.search(word(10 + ThreadLocalRandom.current().nextInt(90)) + "*", null, null, null, LIMIT);
+   }
+
+   @Benchmark
+   public List<Long> commonTermWithStatus() {
+       return index.search(word(ThreadLocalRandom.current().nextInt(10)), null, TaskStatus.COMPLETED, null, LIMIT);
+   }
+
+   @Benchmark
+   public List<Long> commonTermWithAssignee() {
+       ThreadLocalRandom random = ThreadLocalRandom.current();
+       return index.search(word(random.nextInt(10)), random.nextLong(assignees), null, null, LIMIT);
+   }
+
+   @Benchmark
+   public TaskSearchIndex addComment() {
+       ThreadLocalRandom random = ThreadLocalRandom.current();
+       index.addComment(firstTaskId + random.nextInt(documents), "Checked " + word(random.nextInt(VOCABULARY)) + " at the dock");
+       return index;
+   }
+
+   private static String description(SplittableRandom random) {
+       StringBuilder description = new StringBuilder();
+       for (int i = 0; i < WORDS_PER_DESCRIPTION; i++) {
+           double skew = random.nextDouble();
+           description.append(i == 0 ? "" : " ").append(word((int) (VOCABULARY * skew * skew * skew)));
+       }
+       return description.toString();
+   }
+
+   private static String word(int rank) {
+       return "w" + rank;
+   }
+}
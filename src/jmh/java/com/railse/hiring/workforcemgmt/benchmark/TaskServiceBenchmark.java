@@ -0,0 +1,71 @@
+package com.railse.hiring.workforcemgmt.benchmark;
+
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.dto.AssignByReferenceRequest;
+import com.railse.hiring.workforcemgmt.dto.TaskCountSummary;
+import com.railse.hiring.workforcemgmt.dto.TaskFetchByDateRequest;
+import com.railse.hiring.workforcemgmt.dto.TaskManagementDto;
+import com.railse.hiring.workforcemgmt.repository.InMemoryTaskRepository;
+import com.railse.hiring.workforcemgmt.service.impl.TaskManagementServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskServiceBenchmark {
+
+   @Param({"10000", "1000000"})
+   public int storeSize;
+
+   private TaskManagementServiceImpl service;
+   private long assignees;
+   private long references;
+
+   @Setup(Level.Trial)
+   public void setUp() {
+       InMemoryTaskRepository repository = new InMemoryTaskRepository();
+       BenchmarkData.load(repository, storeSize);
+       service = BenchmarkData.service(repository);
+       assignees = storeSize / BenchmarkData.TASKS_PER_ASSIGNEE;
+       references = storeSize / BenchmarkData.TASKS_PER_REFERENCE;
+   }
+
+   @Benchmark
+   public List<TaskManagementDto> fetchTasksByDate() {
+       long assignee = ThreadLocalRandom.current().nextLong(assignees);
+       long now = System.currentTimeMillis();
+       TaskFetchByDateRequest request = new TaskFetchByDateRequest();
+       request.setAssigneeIds(List.of(assignee, (assignee + 1) % assignees, (assignee + 2) % assignees));
+       request.setStartDate(now - 86_400_000L);
+       request.setEndDate(now);
+       return service.fetchTasksByDate(request);
+   }
+
+   @Benchmark
+   public String assignByReference() {
+       ThreadLocalRandom random = ThreadLocalRandom.current();
+       AssignByReferenceRequest request = new AssignByReferenceRequest();
+       request.setReferenceId(random.nextLong(references));
+       request.setReferenceType(ReferenceType.ORDER);
+       request.setAssigneeId(random.nextLong(assignees));
+       return service.assignByReference(request);
+   }
+
+   // Read from the running counters; should not grow with the store
+   @Benchmark
+   public TaskCountSummary taskCountsForAssignee() {
+       return service.getTaskCounts(ThreadLocalRandom.current().nextLong(assignees));
+   }
+}
@@ -0,0 +1,36 @@
+package com.railse.hiring.workforcemgmt.benchmark;
+
+import com.railse.hiring.workforcemgmt.repository.CompactTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.InMemoryTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.OffHeapTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.function.Supplier;
+
+/**
+ * Measures retained heap per task for each store with JOL: walks the object graph reachable from a freshly
+ * seeded repository, loads {@code tasks} benchmark tasks, walks it again and divides the difference.
+ * Descriptions are distinct strings, so they count towards every store that keeps them on the heap; the off-heap
+ * store's figure is what remains on the heap, with records, descriptions and history in direct memory.
+ * <p>
+ * Arguments: tasks (default 100000)
+ */
+public class TaskStoreFootprintReport {
+
+   public static void main(String[] args) {
+       int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+       System.out.printf("%-10s %10s %14s %14s%n", "store", "tasks", "total bytes", "bytes/task");
+       report("memory", InMemoryTaskRepository::new, tasks);
+       report("compact", CompactTaskRepository::new, tasks);
+       report("offheap", () -> new OffHeapTaskRepository(16), tasks);
+   }
+
+   private static void report(String name, Supplier<TaskRepository> factory, int tasks) {
+       TaskRepository repository = factory.get();
+       long empty = GraphLayout.parseInstance(repository).totalSize();
+       BenchmarkData.load(repository, tasks);
+       long loaded = GraphLayout.parseInstance(repository).totalSize();
+       System.out.printf("%-10s %10d %14d %14.1f%n", name, tasks, loaded, (loaded - empty) / (double) tasks);
+   }
+}
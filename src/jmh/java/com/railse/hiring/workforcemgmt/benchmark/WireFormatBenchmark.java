@@ -0,0 +1,119 @@
+package com.railse.hiring.workforcemgmt.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.railse.hiring.workforcemgmt.common.model.response.Response;
+import com.railse.hiring.workforcemgmt.config.WireFormatConfig;
+import com.railse.hiring.workforcemgmt.dto.TaskManagementDto;
+import com.railse.hiring.workforcemgmt.mapper.ITaskManagementMapper;
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding and decoding a task list response in each wire format, with and without gzip, using the mappers the
+ * application registers. Payload sizes for the same lists are printed by {@link WireFormatSizeReport}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WireFormatBenchmark {
+
+   static final TypeReference<Response<List<TaskManagementDto>>> TASK_LIST = new TypeReference<>() {
+   };
+
+   @Param({"json", "cbor", "smile"})
+   public String format;
+
+   @Param({"false", "true"})
+   public boolean gzip;
+
+   @Param({"100", "1000"})
+   public int listSize;
+
+   private ObjectMapper objectMapper;
+   private Response<List<TaskManagementDto>> response;
+   private byte[] encoded;
+
+   @Setup(Level.Trial)
+   public void setUp() throws IOException {
+       objectMapper = mapper(format);
+       response = taskList(listSize);
+       encoded = encode(objectMapper, response, gzip);
+   }
+
+   @Benchmark
+   public byte[] encode() throws IOException {
+       return encode(objectMapper, response, gzip);
+   }
+
+   @Benchmark
+   public Response<List<TaskManagementDto>> decode() throws IOException {
+       return decode(objectMapper, encoded, gzip);
+   }
+
+   static ObjectMapper mapper(String format) {
+       return switch (format) {
+           case "json" -> Jackson2ObjectMapperBuilder.json().build();
+           case "cbor" -> WireFormatConfig.cborMapper(Jackson2ObjectMapperBuilder.json());
+           case "smile" -> WireFormatConfig.smileMapper(Jackson2ObjectMapperBuilder.json());
+           default -> throw new IllegalArgumentException("Unknown format: " + format);
+       };
+   }
+
+   // A /tasks page: listed DTOs carry their history counts and the latest activity
+   static Response<List<TaskManagementDto>> taskList(int size) {
+       List<TaskManagement> tasks = BenchmarkData.tasks(0, size);
+       long id = 1;
+       for (TaskManagement task : tasks) {
+           task.setId(id++);
+           task.setCreatedAt(LocalDateTime.now());
+           task.setVersion(1L);
+       }
+       List<TaskManagementDto> dtos = ITaskManagementMapper.INSTANCE.modelListToDtoList(tasks);
+       for (TaskManagementDto dto : dtos) {
+           Activity created = new Activity(dto.getId(), "Task created", dto.getAssigneeId());
+           created.setId(dto.getId());
+           created.setCreatedAt(dto.getCreatedAt());
+           dto.setActivityCount(1);
+           dto.setRecentActivities(List.of(created));
+           dto.setCommentCount(0);
+           dto.setRecentComments(List.of());
+       }
+       return new Response<>(dtos);
+   }
+
+   static byte[] encode(ObjectMapper objectMapper, Object value, boolean gzip) throws IOException {
+       ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+       try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+           objectMapper.writeValue(out, value);
+       }
+       return bytes.toByteArray();
+   }
+
+   static Response<List<TaskManagementDto>> decode(ObjectMapper objectMapper, byte[] encoded, boolean gzip) throws IOException {
+       try (InputStream in = gzip ? new GZIPInputStream(new ByteArrayInputStream(encoded)) : new ByteArrayInputStream(encoded)) {
+           return objectMapper.readValue(in, TASK_LIST);
+       }
+   }
+}
@@ -0,0 +1,37 @@
+package com.railse.hiring.workforcemgmt.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.railse.hiring.workforcemgmt.common.model.response.Response;
+import com.railse.hiring.workforcemgmt.dto.TaskManagementDto;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Prints the encoded size of the {@link WireFormatBenchmark} task lists in each format, plain and gzipped,
+ * relative to plain JSON. Each list is decoded again and compared with the original, so a format that drops or
+ * changes fields fails the report instead of looking small.
+ */
+public class WireFormatSizeReport {
+
+   private static final String[] FORMATS = {"json", "cbor", "smile"};
+   private static final int[] LIST_SIZES = {1, 100, 1000};
+
+   public static void main(String[] args) throws IOException {
+       System.out.printf("%-8s %-6s %6s %12s %10s%n", "format", "gzip", "tasks", "bytes", "vs json");
+       for (int listSize : LIST_SIZES) {
+           Response<List<TaskManagementDto>> response = WireFormatBenchmark.taskList(listSize);
+           long json = WireFormatBenchmark.encode(WireFormatBenchmark.mapper("json"), response, false).length;
+           for (boolean gzip : new boolean[]{false, true}) {
+               for (String format : FORMATS) {
+                   ObjectMapper objectMapper = WireFormatBenchmark.mapper(format);
+                   byte[] encoded = WireFormatBenchmark.encode(objectMapper, response, gzip);
+                   if (!WireFormatBenchmark.decode(objectMapper, encoded, gzip).equals(response)) {
+                       throw new IllegalStateException(format + " did not round-trip the task list");
+                   }
+                   System.out.printf("%-8s %-6s %6d %12d %9.0f%%%n", format, gzip, listSize, encoded.length, 100.0 * encoded.length / json);
+               }
+           }
+       }
+   }
+}
@@ -0,0 +1,140 @@
+package com.railse.hiring.workforcemgmt.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.railse.hiring.workforcemgmt.common.exception.BadRequestException;
+import com.railse.hiring.workforcemgmt.common.exception.IdempotencyKeyConflictException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Results of non-idempotent writes keyed by the client's {@code Idempotency-Key}, so a retried request gets the
+ * original result instead of running again. The first request with a key claims it before running; duplicates
+ * that arrive while it runs wait for its result rather than racing it. A failed run releases the key so the
+ * client can retry, and duplicates that were waiting on it get the same error.
+ * <p>
+ * Keys are scoped per operation. Claims of running requests sit in an unbounded map, so eviction can never let a
+ * duplicate run while the first is still going; each moves into the result cache once it completes. That cache
+ * expires results a fixed time after they complete and is bounded by {@code task.idempotency.max-keys}, evicting
+ * with Caffeine's W-TinyLFU. Reusing a key with a different request body is rejected. Results live in memory
+ * only, so retries across a restart run again.
+ */
+@Component
+public class IdempotencyCache implements MeterBinder {
+
+   static final int MAX_KEY_LENGTH = 255;
+
+   private final Cache<Key, Execution> cache;
+   private final ConcurrentMap<Key, Execution> inFlight = new ConcurrentHashMap<>();
+   private final AtomicLong replays = new AtomicLong();
+   private final AtomicLong conflicts = new AtomicLong();
+
+   public IdempotencyCache(@Value("${task.idempotency.max-keys:100000}") long maximumSize,
+                           @Value("${task.idempotency.ttl-hours:24}") long ttlHours) {
+       this.cache = Caffeine.newBuilder()
+               .maximumSize(maximumSize)
+               .expireAfterWrite(Duration.ofHours(ttlHours))
+               .build();
+   }
+
+   /**
+    * Runs action once per operation and key, returning the first result to every later call with the same key.
+    * A null key means the client did not ask for deduplication and the action just runs.
+    */
+   @SuppressWarnings("unchecked")
+   public <T> T execute(String operation, String idempotencyKey, Object request, Supplier<T> action) {
+       if (idempotencyKey == null) {
+           return action.get();
+       }
+       if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+           throw new BadRequestException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+       }
+       Key key = new Key(operation, idempotencyKey);
+       Execution done = cache.getIfPresent(key);
+       if (done != null) {
+           return (T) replay(done, request, idempotencyKey);
+       }
+       Execution claim = new Execution(request, new CompletableFuture<>());
+       Execution first = inFlight.putIfAbsent(key, claim);
+       if (first != null) {
+           return (T) replay(first, request, idempotencyKey);
+       }
+       // Runs enter the cache before leaving inFlight, so one that finished since the first lookup shows up here
+       Execution finished = cache.getIfPresent(key);
+       if (finished != null) {
+           inFlight.remove(key, claim);
+           return (T) settle(key, claim, () -> replay(finished, request, idempotencyKey));
+       }
+       T result = settle(key, claim, action);
+       cache.put(key, claim);
+       inFlight.remove(key, claim);
+       return result;
+   }
+
+   @Override
+   public void bindTo(MeterRegistry registry) {
+       Gauge.builder("task.idempotency.keys", this, IdempotencyCache::keyCount)
+               .description("Idempotency keys currently remembered")
+               .register(registry);
+       FunctionCounter.builder("task.idempotency.replays", replays, AtomicLong::get)
+               .description("Retried requests answered with the result of the first request")
+               .register(registry);
+       FunctionCounter.builder("task.idempotency.conflicts", conflicts, AtomicLong::get)
+               .description("Requests rejected for reusing an idempotency key with a different body")
+               .register(registry);
+   }
+
+   private double keyCount() {
+       return cache.estimatedSize() + inFlight.size();
+   }
+
+   // Runs action for the claim, handing its outcome to every duplicate waiting on it; a failure releases the key
+   private <T> T settle(Key key, Execution claim, Supplier<T> action) {
+       try {
+           T result = action.get();
+           claim.result().complete(result);
+           return result;
+       } catch (RuntimeException | Error e) {
+           inFlight.remove(key, claim);
+           claim.result().completeExceptionally(e);
+           throw e;
+       }
+   }
+
+   private Object replay(Execution first, Object request, String idempotencyKey) {
+       if (!first.request().equals(request)) {
+           conflicts.incrementAndGet();
+           throw new IdempotencyKeyConflictException("Idempotency-Key " + idempotencyKey + " was already used with a different request");
+       }
+       replays.incrementAndGet();
+       try {
+           return first.result().join();
+       } catch (CompletionException e) {
+           if (e.getCause() instanceof RuntimeException cause) {
+               throw cause;
+           }
+           if (e.getCause() instanceof Error cause) {
+               throw cause;
+           }
+           throw e;
+       }
+   }
+
+   private record Key(String operation, String idempotencyKey) {
+   }
+
+   private record Execution(Object request, CompletableFuture<Object> result) {
+   }
+}
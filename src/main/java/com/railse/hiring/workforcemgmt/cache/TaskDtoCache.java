@@ -0,0 +1,90 @@
+package com.railse.hiring.workforcemgmt.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.railse.hiring.workforcemgmt.dto.TaskManagementDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of mapped task DTOs and their serialized JSON, keyed by task id. Each entry remembers the
+ * {@link Stamp} (task version plus history lengths) it was built from and is only served while the task still
+ * has that stamp, so a DTO built concurrently with a write can never outlive it. Mutating service paths also
+ * invalidate their tasks explicitly to release the memory. Eviction is Caffeine's size-based W-TinyLFU.
+ */
+@Component
+public class TaskDtoCache implements MeterBinder {
+
+   private final Cache<Long, CachedTask> cache;
+   private final ObjectWriter writer;
+
+   public TaskDtoCache(ObjectMapper objectMapper, @Value("${task.cache.dto.max-size:10000}") long maximumSize) {
+       this.cache = Caffeine.newBuilder()
+               .maximumSize(maximumSize)
+               .recordStats()
+               .build();
+       this.writer = objectMapper.writerFor(TaskManagementDto.class);
+   }
+
+   public CachedTask get(Long taskId, Stamp stamp, Supplier<TaskManagementDto> builder) {
+       CachedTask cached = cache.getIfPresent(taskId);
+       if (cached != null && cached.stamp().equals(stamp)) {
+           return cached;
+       }
+       CachedTask built = new CachedTask(stamp, builder.get(), null);
+       cache.put(taskId, built);
+       return built;
+   }
+
+   // Same as get, but makes sure the entry also holds the serialized DTO
+   public CachedTask getWithJson(Long taskId, Stamp stamp, Supplier<TaskManagementDto> builder) {
+       CachedTask cached = get(taskId, stamp, builder);
+       if (cached.json() != null) {
+           return cached;
+       }
+       CachedTask serialized = new CachedTask(stamp, cached.dto(), serialize(cached.dto()));
+       cache.asMap().replace(taskId, cached, serialized);
+       return serialized;
+   }
+
+   public void invalidate(Long taskId) {
+       cache.invalidate(taskId);
+   }
+
+   public void invalidateAll(Collection<Long> taskIds) {
+       cache.invalidateAll(taskIds);
+   }
+
+   @Override
+   public void bindTo(MeterRegistry registry) {
+       CaffeineCacheMetrics.monitor(registry, cache, "task.dto");
+   }
+
+   private RawValue serialize(TaskManagementDto dto) {
+       try {
+           SerializedString json = new SerializedString(writer.writeValueAsString(dto));
+           // Encode once now; the generator copies these bytes on every later write
+           json.asUnquotedUTF8();
+           return new RawValue(json);
+       } catch (JsonProcessingException e) {
+           throw new IllegalStateException("Could not serialize task " + dto.getId(), e);
+       }
+   }
+
+   public record Stamp(long version, int activityCount, int commentCount) {
+   }
+
+   public record CachedTask(Stamp stamp, TaskManagementDto dto, RawValue json) {
+   }
+}
@@ -0,0 +1,62 @@
+package com.railse.hiring.workforcemgmt.common.concurrent;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed set of re-entrant locks that keys are hashed onto. Writers of different keys rarely share a stripe,
+ * so they proceed in parallel, while writers of the same key are serialized.
+ */
+public class StripedLock {
+
+   private final ReentrantLock[] locks;
+   private final int mask;
+
+   public StripedLock(int minimumStripes) {
+       int stripes = Integer.highestOneBit(Math.max(1, minimumStripes - 1)) << 1;
+       this.locks = new ReentrantLock[stripes];
+       this.mask = stripes - 1;
+       for (int i = 0; i < stripes; i++) {
+           locks[i] = new ReentrantLock();
+       }
+   }
+
+   public <T> T withLock(Object key, Supplier<T> action) {
+       ReentrantLock lock = locks[stripeOf(key)];
+       lock.lock();
+       try {
+           return action.get();
+       } finally {
+           lock.unlock();
+       }
+   }
+
+   // Takes the stripes of all keys in ascending stripe order, so overlapping multi-key callers cannot deadlock
+   public <T> T withLocks(Collection<?> keys, Supplier<T> action) {
+       boolean[] stripes = new boolean[locks.length];
+       for (Object key : keys) {
+           stripes[stripeOf(key)] = true;
+       }
+       int acquired = 0;
+       try {
+           for (; acquired < stripes.length; acquired++) {
+               if (stripes[acquired]) {
+                   locks[acquired].lock();
+               }
+           }
+           return action.get();
+       } finally {
+           for (int i = acquired - 1; i >= 0; i--) {
+               if (stripes[i]) {
+                   locks[i].unlock();
+               }
+           }
+       }
+   }
+
+   private int stripeOf(Object key) {
+       int hash = key == null ? 0 : key.hashCode();
+       return (hash ^ (hash >>> 16)) & mask;
+   }
+}
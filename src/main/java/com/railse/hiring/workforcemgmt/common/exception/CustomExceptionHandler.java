@@ -18,6 +18,27 @@ public class CustomExceptionHandler extends ResponseEntityExceptionHandler {
        return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
    }
 
+   @ExceptionHandler(BadRequestException.class)
+   public final ResponseEntity<Response<Object>> handleBadRequestException(BadRequestException ex) {
+       ResponseStatus status = new ResponseStatus(StatusCode.BAD_REQUEST.getCode(), ex.getMessage());
+       Response<Object> response = new Response<>(null, null, status);
+       return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+   }
+
+   @ExceptionHandler(VersionConflictException.class)
+   public final ResponseEntity<Response<Object>> handleVersionConflictException(VersionConflictException ex) {
+       ResponseStatus status = new ResponseStatus(StatusCode.PRECONDITION_FAILED.getCode(), ex.getMessage());
+       Response<Object> response = new Response<>(null, null, status);
+       return new ResponseEntity<>(response, HttpStatus.PRECONDITION_FAILED);
+   }
+
+   @ExceptionHandler(IdempotencyKeyConflictException.class)
+   public final ResponseEntity<Response<Object>> handleIdempotencyKeyConflictException(IdempotencyKeyConflictException ex) {
+       ResponseStatus status = new ResponseStatus(StatusCode.UNPROCESSABLE_ENTITY.getCode(), ex.getMessage());
+       Response<Object> response = new Response<>(null, null, status);
+       return new ResponseEntity<>(response, HttpStatus.UNPROCESSABLE_ENTITY);
+   }
+
    @ExceptionHandler(Exception.class)
    public final ResponseEntity<Response<Object>> handleAllExceptions(Exception ex) {
        ResponseStatus status = new ResponseStatus(StatusCode.INTERNAL_SERVER_ERROR.getCode(), "An unexpected error occurred: " + ex.getMessage());
@@ -0,0 +1,8 @@
+package com.railse.hiring.workforcemgmt.common.exception;
+
+// An Idempotency-Key was reused for a request that differs from the one it was first sent with
+public class IdempotencyKeyConflictException extends RuntimeException {
+   public IdempotencyKeyConflictException(String message) {
+       super(message);
+   }
+}
@@ -7,6 +7,8 @@ public enum StatusCode {
    SUCCESS(200, "Success"),
    BAD_REQUEST(400, "Bad Request"),
    NOT_FOUND(404, "Resource Not Found"),
+   PRECONDITION_FAILED(412, "Precondition Failed"),
+   UNPROCESSABLE_ENTITY(422, "Unprocessable Entity"),
    INTERNAL_SERVER_ERROR(500, "Internal Server Error");
 
    private final int code;
@@ -0,0 +1,8 @@
+package com.railse.hiring.workforcemgmt.common.exception;
+
+// A conditional write named a task version that is no longer current
+public class VersionConflictException extends RuntimeException {
+   public VersionConflictException(String message) {
+       super(message);
+   }
+}
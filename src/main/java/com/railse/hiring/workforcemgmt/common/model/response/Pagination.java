@@ -2,10 +2,46 @@ package com.railse.hiring.workforcemgmt.common.model.response;
 
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.railse.hiring.workforcemgmt.common.exception.BadRequestException;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
 public class Pagination {
-   // Not implemented for this assignment
+   private String nextCursor;
+   private Integer pageSize;
+   private Boolean hasNext;
+
+   // Cursors are opaque to clients; they currently wrap the last id of the previous page
+   public static String encodeCursor(long lastId) {
+       return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(lastId).getBytes(StandardCharsets.UTF_8));
+   }
+
+   public static long decodeCursor(String cursor) {
+       try {
+           return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+       } catch (IllegalArgumentException e) {
+           throw new BadRequestException("Invalid cursor: " + cursor);
+       }
+   }
+
+   // For orders that need a tie-breaker, e.g. a deadline then the task id
+   public static String encodeCursor(long sortKey, long lastId) {
+       return encodeCursor(sortKey) + "." + encodeCursor(lastId);
+   }
+
+   public static long[] decodeCursorPair(String cursor) {
+       int separator = cursor.indexOf('.');
+       if (separator < 0) {
+           throw new BadRequestException("Invalid cursor: " + cursor);
+       }
+       return new long[]{decodeCursor(cursor.substring(0, separator)), decodeCursor(cursor.substring(separator + 1))};
+   }
 }
@@ -21,6 +21,10 @@ public class Response<T> {
    }
 
    public Response(T data) {
-       this(data, null, new ResponseStatus(StatusCode.SUCCESS.getCode(), StatusCode.SUCCESS.getMessage()));
+       this(data, null);
+   }
+
+   public Response(T data, Pagination pagination) {
+       this(data, pagination, new ResponseStatus(StatusCode.SUCCESS.getCode(), StatusCode.SUCCESS.getMessage()));
    }
 }
@@ -0,0 +1,26 @@
+package com.railse.hiring.workforcemgmt.config;
+
+import com.railse.hiring.workforcemgmt.deadline.TaskDeadlineTracker;
+import com.railse.hiring.workforcemgmt.query.TaskQueryIndex;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import com.railse.hiring.workforcemgmt.search.TaskSearchIndex;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Beans that stay eager under {@code spring.main.lazy-initialization=true} (the {@code fast-startup} profile).
+ * Everything else is created on first use. The task store still seeds or recovers before the port opens, so the
+ * first request never waits for a log replay, and the deadline tracker starts its timer and listens for changes
+ * from the start. The search and query indexes are eager too, so their background builds start at boot instead of
+ * on the first search or query.
+ */
+@Configuration
+public class FastStartupConfig {
+
+   @Bean
+   static LazyInitializationExcludeFilter eagerTaskInfrastructure() {
+       return LazyInitializationExcludeFilter.forBeanTypes(TaskRepository.class, TaskDeadlineTracker.class, TaskSearchIndex.class,
+               TaskQueryIndex.class);
+   }
+}
@@ -0,0 +1,43 @@
+package com.railse.hiring.workforcemgmt.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * Training run for the AppCDS archive ({@code ./gradlew cdsArchive}, {@code task.startup.training-run=true}).
+ * Once the application is ready it sends one request to the task list, so the classes on the request path are
+ * loaded and archived too, and then exits; {@code -XX:ArchiveClassesAtExit} writes the archive as the JVM stops.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "task.startup.training-run", havingValue = "true")
+public class StartupTrainingRun implements ApplicationListener<ApplicationReadyEvent> {
+
+   @Override
+   public void onApplicationEvent(ApplicationReadyEvent event) {
+       ConfigurableApplicationContext context = event.getApplicationContext();
+       int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+       HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/task-mgmt/tasks")).build();
+       try {
+           HttpResponse<Void> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.discarding());
+           log.info("Training request to {} returned {}", request.uri(), response.statusCode());
+       } catch (IOException e) {
+           log.warn("Training request to {} failed; the archive will cover startup only", request.uri(), e);
+       } catch (InterruptedException e) {
+           Thread.currentThread().interrupt();
+       }
+       System.exit(SpringApplication.exit(context));
+   }
+}
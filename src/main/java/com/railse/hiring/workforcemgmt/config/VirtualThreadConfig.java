@@ -0,0 +1,50 @@
+package com.railse.hiring.workforcemgmt.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in virtual-thread mode ({@code task.threads.virtual=true}, Java 21+ runtime). Tomcat hands every request
+ * to a new virtual thread instead of its bounded worker pool, and Spring's application task executor, which
+ * runs async MVC work such as the NDJSON stream, is replaced by the same executor.
+ * The project still compiles for Java 17, so the virtual-thread executor is looked up reflectively.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "task.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+   @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+   public AsyncTaskExecutor applicationTaskExecutor() {
+       ExecutorService executor = newVirtualThreadPerTaskExecutor();
+       log.info("Running request handling and async work on virtual threads");
+       return new TaskExecutorAdapter(executor);
+   }
+
+   @Bean
+   public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+           @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) AsyncTaskExecutor executor) {
+       return protocolHandler -> protocolHandler.setExecutor(executor);
+   }
+
+   private static ExecutorService newVirtualThreadPerTaskExecutor() {
+       try {
+           return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+       } catch (NoSuchMethodException e) {
+           throw new IllegalStateException("task.threads.virtual=true needs a Java 21+ runtime, found " + Runtime.version(), e);
+       } catch (IllegalAccessException | InvocationTargetException e) {
+           throw new IllegalStateException("Could not create a virtual-thread executor", e);
+       }
+   }
+}
@@ -0,0 +1,45 @@
+package com.railse.hiring.workforcemgmt.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary encodings of the same responses, for clients that ask for them with {@code Accept}: CBOR
+ * ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}). Both use the application's Jackson
+ * settings, so field names are unchanged, but enums are written as ordinals; Smile also writes each repeated
+ * field name as a one-byte back-reference, which is what shrinks list responses most. Requests in either format
+ * are accepted too, with enums as names or ordinals. JSON stays the default for clients that accept anything.
+ * <p>
+ * The beans replace Spring MVC's default CBOR and Smile converters in place, after the JSON converter.
+ */
+@Configuration
+public class WireFormatConfig {
+
+   public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+   @Bean
+   public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectProvider<Jackson2ObjectMapperBuilder> builder) {
+       return new MappingJackson2CborHttpMessageConverter(cborMapper(builder.getObject()));
+   }
+
+   @Bean
+   public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectProvider<Jackson2ObjectMapperBuilder> builder) {
+       return new MappingJackson2SmileHttpMessageConverter(smileMapper(builder.getObject()));
+   }
+
+   public static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder builder) {
+       return builder.factory(new CBORFactory()).featuresToEnable(SerializationFeature.WRITE_ENUMS_USING_INDEX).build();
+   }
+
+   public static ObjectMapper smileMapper(Jackson2ObjectMapperBuilder builder) {
+       return builder.factory(new SmileFactory()).featuresToEnable(SerializationFeature.WRITE_ENUMS_USING_INDEX).build();
+   }
+}
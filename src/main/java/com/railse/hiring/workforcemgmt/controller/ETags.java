@@ -0,0 +1,74 @@
+package com.railse.hiring.workforcemgmt.controller;
+
+import com.railse.hiring.workforcemgmt.common.exception.BadRequestException;
+import com.railse.hiring.workforcemgmt.common.exception.VersionConflictException;
+
+/**
+ * Task ETags. A task read is tagged with its version and history lengths, e.g. "7-3-2", because history can be
+ * appended without a new version (write-behind, creation activities) and still change the body. Writes return the
+ * bare new version, e.g. "8"; If-Match accepts either form and compares the version only. If-Match uses strong
+ * comparison, so a weak W/ tag never matches there; If-None-Match compares weakly.
+ */
+final class ETags {
+
+   private ETags() {
+   }
+
+   static String of(long version) {
+       return "\"" + version + "\"";
+   }
+
+   static String of(long version, int activityCount, int commentCount) {
+       return "\"" + version + "-" + activityCount + "-" + commentCount + "\"";
+   }
+
+   // Expected version named by an If-Match header; null when the header is absent or "*"
+   static Long expectedVersion(String ifMatch) {
+       if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+           return null;
+       }
+       if (ifMatch.indexOf(',') >= 0) {
+           throw new BadRequestException("If-Match must name a single task version");
+       }
+       if (ifMatch.trim().startsWith("W/")) {
+           throw new VersionConflictException("If-Match needs a strong ETag; weak tags never match: " + ifMatch);
+       }
+       Long version = parse(ifMatch);
+       if (version == null) {
+           throw new BadRequestException("Invalid If-Match header: " + ifMatch);
+       }
+       return version;
+   }
+
+   // True when an If-None-Match header lists the given ETag (or is "*"); weak tags compare by value
+   static boolean matches(String ifNoneMatch, String eTag) {
+       if (ifNoneMatch == null) {
+           return false;
+       }
+       for (String tag : ifNoneMatch.split(",")) {
+           String value = tag.trim();
+           if (value.equals("*") || withoutWeakPrefix(value).equals(eTag)) {
+               return true;
+           }
+       }
+       return false;
+   }
+
+   private static Long parse(String tag) {
+       String value = tag.trim();
+       if (value.length() < 3 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+           return null;
+       }
+       String opaque = value.substring(1, value.length() - 1);
+       int end = opaque.indexOf('-');
+       try {
+           return Long.parseLong(end < 0 ? opaque : opaque.substring(0, end));
+       } catch (NumberFormatException e) {
+           return null;
+       }
+   }
+
+   private static String withoutWeakPrefix(String tag) {
+       return tag.startsWith("W/") ? tag.substring(2) : tag;
+   }
+}
@@ -1,36 +1,145 @@
 package com.railse.hiring.workforcemgmt.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import com.railse.hiring.workforcemgmt.cache.IdempotencyCache;
+import com.railse.hiring.workforcemgmt.common.exception.BadRequestException;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
 import com.railse.hiring.workforcemgmt.common.model.response.Response;
+import com.railse.hiring.workforcemgmt.config.WireFormatConfig;
 import com.railse.hiring.workforcemgmt.dto.*;
+import com.railse.hiring.workforcemgmt.feed.TaskChangeFeed;
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.Comment;
 import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
 import com.railse.hiring.workforcemgmt.service.TaskManagementService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
 @RequestMapping("/task-mgmt")
 public class TaskManagementController {
 
+   private static final String NDJSON = "application/x-ndjson";
+   private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
    private final TaskManagementService taskManagementService;
+   private final TaskChangeFeed changeFeed;
+   private final ObjectMapper objectMapper;
+   private final IdempotencyCache idempotencyCache;
 
-   public TaskManagementController(TaskManagementService taskManagementService) {
+   public TaskManagementController(TaskManagementService taskManagementService, TaskChangeFeed changeFeed, ObjectMapper objectMapper,
+                                   IdempotencyCache idempotencyCache) {
        this.taskManagementService = taskManagementService;
+       this.changeFeed = changeFeed;
+       this.objectMapper = objectMapper;
+       this.idempotencyCache = idempotencyCache;
    }
 
    @GetMapping("/tasks")
-   public Response<List<TaskManagementDto>> getAllTasks() {
-       return new Response<>(taskManagementService.getAllTasks());
+   public Response<List<TaskManagementDto>> getAllTasks(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(name = "page_size", required = false) Integer pageSize) {
+       PagedResult<TaskManagementDto> page = taskManagementService.getTasksPage(cursor, pageSize);
+       return new Response<>(page.getItems(), page.getPagination());
+   }
+
+   // Streams every task as newline-delimited JSON, mapping and writing one task at a time
+   @GetMapping(value = "/tasks", produces = NDJSON)
+   public ResponseEntity<StreamingResponseBody> streamAllTasks() {
+       StreamingResponseBody body = outputStream -> {
+           try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+               generator.setRootValueSeparator(null);
+               taskManagementService.streamAllTasks(dto -> {
+                   try {
+                       generator.writeObject(dto);
+                       generator.writeRaw('\n');
+                   } catch (IOException e) {
+                       throw new UncheckedIOException(e);
+                   }
+               });
+           }
+       };
+       return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
    }
 
+   // Live deltas instead of polling /tasks; a reconnecting EventSource resumes after its Last-Event-ID
+   @GetMapping(value = "/tasks/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+   public SseEmitter streamTaskChanges(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId,
+                                       @RequestParam(required = false) Long after,
+                                       @RequestParam(name = "assignee_id", required = false) Long assigneeId,
+                                       @RequestParam(name = "reference_id", required = false) Long referenceId,
+                                       @RequestParam(name = "reference_type", required = false) ReferenceType referenceType,
+                                       @RequestParam(required = false) Priority priority) {
+       Long afterOffset = after;
+       if (lastEventId != null && !lastEventId.isBlank()) {
+           try {
+               afterOffset = Long.parseLong(lastEventId.trim());
+           } catch (NumberFormatException e) {
+               throw new BadRequestException("Invalid Last-Event-ID header: " + lastEventId);
+           }
+       }
+       return changeFeed.subscribe(new TaskChangeFeed.Filter(assigneeId, referenceId, referenceType, priority), afterOffset);
+   }
+
+   // Hot tasks are written from their cached JSON; clients polling with If-None-Match get a bodiless 304
    @GetMapping("/task/{id}")
-   public Response<TaskManagementDto> getTaskById(@PathVariable Long id) {
-       return new Response<>(taskManagementService.findTaskById(id));
+   public ResponseEntity<Response<RawValue>> getTaskById(@PathVariable Long id,
+                                                         @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+       SerializedTask task = taskManagementService.findTaskJsonById(id);
+       String eTag = ETags.of(task.getVersion(), task.getActivityCount(), task.getCommentCount());
+       if (ETags.matches(ifNoneMatch, eTag)) {
+           return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+       }
+       return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(new Response<>(task.getJson()));
+   }
+
+   // Binary clients get the cached DTO encoded by their converter; the pre-serialized JSON can't be embedded
+   @GetMapping(value = "/task/{id}", produces = {MediaType.APPLICATION_CBOR_VALUE, WireFormatConfig.APPLICATION_SMILE_VALUE})
+   public ResponseEntity<Response<TaskManagementDto>> getTaskByIdBinary(@PathVariable Long id,
+                                                                       @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+       TaskManagementDto task = taskManagementService.findTaskById(id);
+       String eTag = ETags.of(task.getVersion(), task.getActivityCount(), task.getCommentCount());
+       if (ETags.matches(ifNoneMatch, eTag)) {
+           return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+       }
+       return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(new Response<>(task));
+   }
+
+   @GetMapping("/task/{id}/activities")
+   public Response<List<Activity>> getTaskActivities(@PathVariable Long id,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(name = "page_size", required = false) Integer pageSize) {
+       PagedResult<Activity> page = taskManagementService.getTaskActivities(id, cursor, pageSize);
+       return new Response<>(page.getItems(), page.getPagination());
    }
 
+   @GetMapping("/task/{id}/comments")
+   public Response<List<Comment>> getTaskComments(@PathVariable Long id,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(name = "page_size", required = false) Integer pageSize) {
+       PagedResult<Comment> page = taskManagementService.getTaskComments(id, cursor, pageSize);
+       return new Response<>(page.getItems(), page.getPagination());
+   }
+
+   // A retry carrying the same Idempotency-Key gets the original response instead of creating the tasks again
    @PostMapping("/create")
-   public Response<List<TaskManagementDto>> createTasks(@RequestBody TaskCreateRequest request) {
-       return new Response<>(taskManagementService.createTasks(request));
+   public Response<List<TaskManagementDto>> createTasks(@RequestBody TaskCreateRequest request,
+                                                        @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+       return idempotencyCache.execute("create", idempotencyKey, request,
+               () -> new Response<>(taskManagementService.createTasks(request)));
    }
 
    @PostMapping("/update")
@@ -39,8 +148,16 @@ public class TaskManagementController {
    }
 
    @PostMapping("/assign-by-ref")
-   public Response<String> assignByReference(@RequestBody AssignByReferenceRequest request) {
-       return new Response<>(taskManagementService.assignByReference(request));
+   public Response<String> assignByReference(@RequestBody AssignByReferenceRequest request,
+                                             @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+       return idempotencyCache.execute("assign-by-ref", idempotencyKey, request,
+               () -> new Response<>(taskManagementService.assignByReference(request)));
+   }
+
+   // Bulk reassignment, e.g. when a salesperson leaves; references are processed in parallel
+   @PostMapping("/assign-by-ref/bulk")
+   public Response<List<AssignByReferenceResult>> assignByReferenceBulk(@RequestBody BulkAssignByReferenceRequest request) {
+       return new Response<>(taskManagementService.assignByReferenceBulk(request));
    }
 
    @PostMapping("/fetch-by-date/v2")
@@ -54,17 +171,57 @@ public class TaskManagementController {
        return new Response<>(taskManagementService.fetchTasksByPriority(priority));
    }
 
+   // Answered from the deadline tracker's overdue sets, without scanning the store
+   @GetMapping("/overdue")
+   public Response<List<TaskManagementDto>> fetchOverdueTasks(@RequestParam(name = "assignee_id", required = false) Long assigneeId,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(name = "page_size", required = false) Integer pageSize) {
+       PagedResult<TaskManagementDto> page = taskManagementService.fetchOverdueTasks(assigneeId, cursor, pageSize);
+       return new Response<>(page.getItems(), page.getPagination());
+   }
+
+   // Full-text search over descriptions and comments, answered from the in-memory inverted index
+   @GetMapping("/search")
+   public Response<List<TaskManagementDto>> searchTasks(@RequestParam(name = "q") String query,
+                                                        @RequestParam(name = "assignee_id", required = false) Long assigneeId,
+                                                        @RequestParam(name = "status", required = false) TaskStatus status,
+                                                        @RequestParam(name = "priority", required = false) Priority priority,
+                                                        @RequestParam(name = "limit", required = false) Integer limit) {
+       return new Response<>(taskManagementService.searchTasks(query, assigneeId, status, priority, limit));
+   }
+
+   // Ad-hoc filters over any task field, planned over the query index's bitmaps
+   @PostMapping("/query")
+   public Response<List<TaskManagementDto>> queryTasks(@RequestBody TaskQueryRequest request) {
+       return new Response<>(taskManagementService.queryTasks(request));
+   }
+
+   // Dashboard figures, read from counters the store maintains on every write
+   @GetMapping("/stats/tasks")
+   public Response<TaskCountSummary> getTaskCounts(@RequestParam(name = "assignee_id", required = false) Long assigneeId) {
+       return new Response<>(taskManagementService.getTaskCounts(assigneeId));
+   }
+
+   @GetMapping("/stats/completed-per-day")
+   public Response<List<DailyCount>> getCompletedPerDay(
+           @RequestParam(name = "start_date", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+           @RequestParam(name = "end_date", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+       return new Response<>(taskManagementService.getCompletedPerDay(startDate, endDate));
+   }
+
    // New Feature 2: Update task priority
    @PostMapping("/priority/update")
-   public Response<String> updateTaskPriority(@RequestBody PriorityUpdateRequest request) {
-       taskManagementService.updateTaskPriority(request);
-       return new Response<>("Task priority updated successfully");
+   public ResponseEntity<Response<String>> updateTaskPriority(@RequestBody PriorityUpdateRequest request,
+                                                              @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+       long version = taskManagementService.updateTaskPriority(request, ETags.expectedVersion(ifMatch));
+       return ResponseEntity.ok().eTag(ETags.of(version)).body(new Response<>("Task priority updated successfully"));
    }
 
    // New Feature 3: Add comment to task
    @PostMapping("/comment/add")
-   public Response<String> addCommentToTask(@RequestBody CommentRequest request) {
-       taskManagementService.addCommentToTask(request);
-       return new Response<>("Comment added successfully");
+   public ResponseEntity<Response<String>> addCommentToTask(@RequestBody CommentRequest request,
+                                                            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+       long version = taskManagementService.addCommentToTask(request, ETags.expectedVersion(ifMatch));
+       return ResponseEntity.ok().eTag(ETags.of(version)).body(new Response<>("Comment added successfully"));
    }
 }
@@ -0,0 +1,133 @@
+package com.railse.hiring.workforcemgmt.deadline;
+
+import java.util.Arrays;
+
+/**
+ * Indexed binary min-heap of task ids ordered by deadline. Each id is queued at most once: scheduling it again
+ * moves its entry and removal takes it out, so deadline changes never leave stale entries behind. The heap is two
+ * parallel primitive arrays, and an id's heap position lives in paged int arrays indexed by the id itself (task
+ * ids are dense), so a pending deadline costs about 20 bytes and no objects. Not thread-safe.
+ */
+public class DeadlineQueue {
+
+   private static final int PAGE_SHIFT = 14;
+   private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+   private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+   private long[] deadlines = new long[64];
+   private long[] ids = new long[64];
+   private int size;
+   // Heap index + 1 per task id; 0 means not queued
+   private int[][] positions = new int[16][];
+
+   public int size() {
+       return size;
+   }
+
+   public boolean isEmpty() {
+       return size == 0;
+   }
+
+   public long peekDeadline() {
+       return deadlines[0];
+   }
+
+   public long peekId() {
+       return ids[0];
+   }
+
+   public boolean contains(long id) {
+       return indexOf(id) >= 0;
+   }
+
+   public void schedule(long id, long deadline) {
+       int index = indexOf(id);
+       if (index < 0) {
+           if (size == ids.length) {
+               deadlines = Arrays.copyOf(deadlines, size * 2);
+               ids = Arrays.copyOf(ids, size * 2);
+           }
+           siftUp(size++, id, deadline);
+       } else if (deadline < deadlines[index]) {
+           siftUp(index, id, deadline);
+       } else if (deadline > deadlines[index]) {
+           siftDown(index, id, deadline);
+       }
+   }
+
+   public void remove(long id) {
+       int index = indexOf(id);
+       if (index < 0) {
+           return;
+       }
+       setPosition(id, 0);
+       int last = --size;
+       if (index == last) {
+           return;
+       }
+       long movedId = ids[last];
+       long movedDeadline = deadlines[last];
+       if (movedDeadline < deadlines[index]) {
+           siftUp(index, movedId, movedDeadline);
+       } else {
+           siftDown(index, movedId, movedDeadline);
+       }
+   }
+
+   private void siftUp(int index, long id, long deadline) {
+       while (index > 0) {
+           int parent = (index - 1) >>> 1;
+           if (deadlines[parent] <= deadline) {
+               break;
+           }
+           place(index, ids[parent], deadlines[parent]);
+           index = parent;
+       }
+       place(index, id, deadline);
+   }
+
+   private void siftDown(int index, long id, long deadline) {
+       int half = size >>> 1;
+       while (index < half) {
+           int child = 2 * index + 1;
+           int right = child + 1;
+           if (right < size && deadlines[right] < deadlines[child]) {
+               child = right;
+           }
+           if (deadline <= deadlines[child]) {
+               break;
+           }
+           place(index, ids[child], deadlines[child]);
+           index = child;
+       }
+       place(index, id, deadline);
+   }
+
+   private void place(int index, long id, long deadline) {
+       ids[index] = id;
+       deadlines[index] = deadline;
+       setPosition(id, index + 1);
+   }
+
+   private int indexOf(long id) {
+       int page = (int) (id >>> PAGE_SHIFT);
+       if (id < 0 || page >= positions.length || positions[page] == null) {
+           return -1;
+       }
+       return positions[page][(int) (id & PAGE_MASK)] - 1;
+   }
+
+   private void setPosition(long id, int position) {
+       if (id < 0) {
+           throw new IllegalArgumentException("Task id must not be negative: " + id);
+       }
+       int page = (int) (id >>> PAGE_SHIFT);
+       if (page >= positions.length) {
+           positions = Arrays.copyOf(positions, Math.max(page + 1, positions.length * 2));
+       }
+       if (positions[page] == null) {
+           positions[page] = new int[PAGE_SIZE];
+       }
+       positions[page][(int) (id & PAGE_MASK)] = position;
+   }
+}
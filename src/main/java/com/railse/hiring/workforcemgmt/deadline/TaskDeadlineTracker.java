@@ -0,0 +1,307 @@
+package com.railse.hiring.workforcemgmt.deadline;
+
+import com.railse.hiring.workforcemgmt.dto.TaskChangeEvent;
+import com.railse.hiring.workforcemgmt.feed.TaskChangeFeed;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.TaskChangeType;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Tracks task deadlines so that "what is overdue" never needs a scan of the store.
+ * <p>
+ * Open tasks with a deadline still ahead wait in a {@link DeadlineQueue}; a single timer thread wakes every tick,
+ * pops whatever has come due and moves it into an overdue set ordered by deadline, globally and per assignee,
+ * publishing an {@code OVERDUE} change event for each. Every change event re-reads the task and moves it between
+ * the two (or drops it once it is completed or cancelled), so the overdue sets are always current and a query
+ * costs time proportional to its answer.
+ * <p>
+ * A tick only holds the lock to take due ids off the queue and to reconcile them; the tasks are read in between,
+ * so writers publishing change events are never queued behind store reads.
+ */
+@Slf4j
+@Component
+public class TaskDeadlineTracker implements MeterBinder {
+
+   private static final Comparator<Overdue> BY_DEADLINE = Comparator.comparingLong(Overdue::deadline).thenComparingLong(Overdue::taskId);
+   private static final int LOAD_BATCH = 10_000;
+   private static final int TICK_BATCH = 1_000;
+
+   private final TaskRepository taskRepository;
+   private final TaskChangeFeed changeFeed;
+   private final long tickMillis;
+   private final ReentrantLock lock = new ReentrantLock();
+   private final DeadlineQueue pending = new DeadlineQueue();
+   private final Map<Long, Overdue> overdueById = new HashMap<>();
+   private final NavigableSet<Overdue> overdue = new TreeSet<>(BY_DEADLINE);
+   private final Map<Long, NavigableSet<Overdue>> overdueByAssignee = new HashMap<>();
+   // Deadlines of the ids a tick has taken off the queue and not yet reconciled
+   private final Map<Long, Long> taken = new HashMap<>();
+   private final AtomicLong expired = new AtomicLong();
+   private ScheduledExecutorService timer;
+
+   public TaskDeadlineTracker(TaskRepository taskRepository, TaskChangeFeed changeFeed,
+                              @Value("${task.deadline.tick-millis:1000}") long tickMillis) {
+       this.taskRepository = taskRepository;
+       this.changeFeed = changeFeed;
+       this.tickMillis = tickMillis;
+       load();
+       changeFeed.addListener(this::onChange);
+   }
+
+   @PostConstruct
+   public void start() {
+       timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+           Thread thread = new Thread(runnable, "task-deadline-timer");
+           thread.setDaemon(true);
+           return thread;
+       });
+       timer.scheduleWithFixedDelay(this::tickQuietly, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+   }
+
+   @PreDestroy
+   public void close() {
+       if (timer != null) {
+           timer.shutdown();
+       }
+   }
+
+   /**
+    * One page of the overdue open tasks, most overdue first, starting after {@code after} (null for the first
+    * page); all assignees when assigneeId is null.
+    */
+   public List<Overdue> overdueTasks(Long assigneeId, Overdue after, int limit) {
+       return locked(() -> {
+           NavigableSet<Overdue> entries = assigneeId == null ? overdue : overdueByAssignee.get(assigneeId);
+           if (entries == null) {
+               return Collections.emptyList();
+           }
+           List<Overdue> page = new ArrayList<>(Math.min(limit, entries.size()));
+           for (Overdue entry : after == null ? entries : entries.tailSet(after, false)) {
+               if (page.size() == limit) {
+                   break;
+               }
+               page.add(entry);
+           }
+           return page;
+       });
+   }
+
+   public int pendingCount() {
+       return locked(pending::size);
+   }
+
+   public int overdueCount() {
+       return locked(overdueById::size);
+   }
+
+   // Moves every deadline that has come due into the overdue sets; returns how many tasks became overdue
+   public int tick() {
+       long now = System.currentTimeMillis();
+       int becameOverdue = 0;
+       List<Long> due;
+       do {
+           due = locked(() -> takeDue(now));
+           becameOverdue += reconcileDue(due, now);
+       } while (due.size() == TICK_BATCH);
+       return becameOverdue;
+   }
+
+   @Override
+   public void bindTo(MeterRegistry registry) {
+       Gauge.builder("task.deadline.pending", this, TaskDeadlineTracker::pendingCount)
+               .description("Open tasks whose deadline is still ahead")
+               .register(registry);
+       Gauge.builder("task.deadline.overdue", this, TaskDeadlineTracker::overdueCount)
+               .description("Open tasks past their deadline")
+               .register(registry);
+       FunctionCounter.builder("task.deadline.expired", expired, AtomicLong::get)
+               .description("Tasks that became overdue")
+               .register(registry);
+   }
+
+   private void onChange(TaskChangeEvent event) {
+       if (event.getType() == TaskChangeType.OVERDUE) {
+           return;
+       }
+       TaskManagement task;
+       boolean becameOverdue;
+       // Re-reading under the lock means the last event for a task always leaves its latest state behind,
+       // even when events for the same task are published out of order
+       lock.lock();
+       try {
+           // A tick holding an older read of this task must not apply it after this one
+           taken.remove(event.getTaskId());
+           task = taskRepository.findById(event.getTaskId()).orElse(null);
+           becameOverdue = reconcile(event.getTaskId(), task, System.currentTimeMillis());
+       } finally {
+           lock.unlock();
+       }
+       if (becameOverdue) {
+           publishOverdue(List.of(task));
+       }
+   }
+
+   // Caller holds the lock
+   private List<Long> takeDue(long now) {
+       List<Long> due = new ArrayList<>();
+       while (due.size() < TICK_BATCH && !pending.isEmpty() && pending.peekDeadline() <= now) {
+           long id = pending.peekId();
+           taken.put(id, pending.peekDeadline());
+           pending.remove(id);
+           due.add(id);
+       }
+       return due;
+   }
+
+   private int reconcileDue(List<Long> due, long now) {
+       if (due.isEmpty()) {
+           return 0;
+       }
+       Map<Long, TaskManagement> tasks = null;
+       List<TaskManagement> becameOverdue = new ArrayList<>();
+       try {
+           tasks = taskRepository.findAllById(due);
+       } finally {
+           lock.lock();
+           try {
+               for (Long id : due) {
+                   Long deadline = taken.remove(id);
+                   if (deadline == null) {
+                       // A change event reconciled a fresher read in the meantime
+                       continue;
+                   }
+                   if (tasks == null) {
+                       // The read failed; keep the deadline for the next tick
+                       pending.schedule(id, deadline);
+                   } else if (reconcile(id, tasks.get(id), now)) {
+                       becameOverdue.add(tasks.get(id));
+                   }
+               }
+           } finally {
+               lock.unlock();
+           }
+       }
+       publishOverdue(becameOverdue);
+       return becameOverdue.size();
+   }
+
+   private void load() {
+       long now = System.currentTimeMillis();
+       long afterId = 0;
+       List<TaskManagement> page;
+       do {
+           page = taskRepository.findPage(afterId, LOAD_BATCH);
+           lock.lock();
+           try {
+               for (TaskManagement task : page) {
+                   reconcile(task.getId(), task, now);
+                   afterId = task.getId();
+               }
+           } finally {
+               lock.unlock();
+           }
+       } while (page.size() == LOAD_BATCH);
+   }
+
+   // Caller holds the lock; true if the task has just become overdue
+   private boolean reconcile(long id, TaskManagement task, long now) {
+       Long deadline = task == null || !isOpen(task.getStatus()) ? null : task.getTaskDeadlineTime();
+       if (deadline == null) {
+           pending.remove(id);
+           removeOverdue(id);
+           return false;
+       }
+       if (deadline > now) {
+           removeOverdue(id);
+           pending.schedule(id, deadline);
+           return false;
+       }
+       pending.remove(id);
+       Overdue entry = new Overdue(deadline, id, task.getAssigneeId());
+       Overdue previous = overdueById.put(id, entry);
+       if (entry.equals(previous)) {
+           return false;
+       }
+       if (previous != null) {
+           unindex(previous);
+       }
+       overdue.add(entry);
+       if (entry.assigneeId() != null) {
+           overdueByAssignee.computeIfAbsent(entry.assigneeId(), key -> new TreeSet<>(BY_DEADLINE)).add(entry);
+       }
+       return previous == null;
+   }
+
+   private void removeOverdue(long id) {
+       Overdue previous = overdueById.remove(id);
+       if (previous != null) {
+           unindex(previous);
+       }
+   }
+
+   private void unindex(Overdue entry) {
+       overdue.remove(entry);
+       if (entry.assigneeId() == null) {
+           return;
+       }
+       NavigableSet<Overdue> entries = overdueByAssignee.get(entry.assigneeId());
+       if (entries != null && entries.remove(entry) && entries.isEmpty()) {
+           overdueByAssignee.remove(entry.assigneeId());
+       }
+   }
+
+   private void publishOverdue(List<TaskManagement> tasks) {
+       expired.addAndGet(tasks.size());
+       tasks.forEach(task -> changeFeed.publish(TaskChangeType.OVERDUE, task));
+   }
+
+   private void tickQuietly() {
+       try {
+           tick();
+       } catch (RuntimeException e) {
+           log.error("Task deadline tick failed", e);
+       }
+   }
+
+   private <T> T locked(Supplier<T> action) {
+       lock.lock();
+       try {
+           return action.get();
+       } finally {
+           lock.unlock();
+       }
+   }
+
+   private static boolean isOpen(TaskStatus status) {
+       return status != TaskStatus.COMPLETED && status != TaskStatus.CANCELLED;
+   }
+
+   // Also serves as a page position, where only the deadline and task id are compared
+   public record Overdue(long deadline, long taskId, Long assigneeId) {
+   }
+}
@@ -0,0 +1,15 @@
+package com.railse.hiring.workforcemgmt.dto;
+
+import com.fasterxml.jackson.databind.util.RawValue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// A task DTO already serialized to JSON, with the version and history lengths it was built from
+@Data
+@AllArgsConstructor
+public class SerializedTask {
+   private Long version;
+   private Integer activityCount;
+   private Integer commentCount;
+   private RawValue json;
+}
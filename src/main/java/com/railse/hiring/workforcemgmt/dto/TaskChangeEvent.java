@@ -0,0 +1,30 @@
+package com.railse.hiring.workforcemgmt.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskChangeType;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import lombok.Data;
+
+// One change-feed entry: the task's key fields after the change. previous_* are only set when that field changed
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class TaskChangeEvent {
+   private Long offset;
+   private TaskChangeType type;
+   private Long taskId;
+   private Long version;
+   private Long referenceId;
+   private ReferenceType referenceType;
+   private Long assigneeId;
+   private Long previousAssigneeId;
+   private TaskStatus status;
+   private Priority priority;
+   private Priority previousPriority;
+   private Long taskDeadlineTime;
+   private Long timestamp;
+}
@@ -0,0 +1,22 @@
+package com.railse.hiring.workforcemgmt.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import lombok.Data;
+
+import java.util.Map;
+
+// Task counts for one assignee, or every task when assignee_id is absent; priority keys include NONE for tasks without one
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class TaskCountSummary {
+   private Long assigneeId;
+   private Long total;
+   private Long open;
+   private Map<TaskStatus, Long> byStatus;
+   private Map<String, Long> openByPriority;
+   private Map<TaskStatus, Map<String, Long>> byStatusAndPriority;
+}
@@ -26,6 +26,10 @@ public class TaskManagementDto {
    private Long taskDeadlineTime;
    private Priority priority;
    private LocalDateTime createdAt;
-   private List<Activity> activities;
-   private List<Comment> comments;
+   private Long version;
+   // Full history is served by the paginated /task/{id}/activities and /task/{id}/comments endpoints
+   private Integer activityCount;
+   private List<Activity> recentActivities;
+   private Integer commentCount;
+   private List<Comment> recentComments;
 }
@@ -0,0 +1,25 @@
+package com.railse.hiring.workforcemgmt.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class TaskQueryRequest {
+   private List<Filter> filters; // All must match
+   private String sortBy; // Any filterable field; defaults to id
+   private String sortOrder; // asc (default) or desc
+   private Integer limit;
+
+   @Data
+   @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+   public static class Filter {
+       private String field; // id, reference_id, reference_type, task, status, assignee_id, priority, task_deadline_time, created_at
+       private String op; // eq, ne, in, not_in, lt, lte, gt, gte
+       private Object value; // For eq, ne and the range operators; null with eq/ne means the field is not set
+       private List<Object> values; // For in and not_in
+   }
+}
@@ -18,5 +18,7 @@ public class UpdateTaskRequest {
        private Long taskId;
        private TaskStatus taskStatus;
        private String description;
+       private Long taskDeadlineTime; // Optional; epoch millis
+       private Long version; // Optional; the whole batch is rejected if the task is no longer at this version
    }
 }
@@ -0,0 +1,325 @@
+package com.railse.hiring.workforcemgmt.feed;
+
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.dto.TaskChangeEvent;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskChangeType;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * In-process change feed of task deltas, served to dashboards as server-sent events.
+ * <p>
+ * Every published event gets the next offset and goes into a fixed-size ring, so publishing is a short append that
+ * never waits for a consumer. Each subscriber keeps its own cursor into the ring and is drained on the feed's own
+ * bounded delivery pool, one drain at a time per subscriber and at most {@value #DELIVERY_BATCH} events per turn
+ * before it queues again behind the others, so a busy stream cannot hold a delivery thread for long. A subscriber that
+ * falls a full ring behind, or resumes from an offset that has already been overwritten, gets a {@code reset} event
+ * carrying the current offset: it should reload {@code GET /tasks} and carry on from there. One that stays behind
+ * for longer than the slow-consumer limit is disconnected and can resume with {@code Last-Event-ID}. Offsets restart
+ * with the process.
+ */
+@Component
+public class TaskChangeFeed implements MeterBinder {
+
+   static final int DELIVERY_BATCH = 256;
+
+   private final AtomicReferenceArray<TaskChangeEvent> ring;
+   private final int mask;
+   private final ReentrantLock appendLock = new ReentrantLock();
+   private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+   private final List<Consumer<TaskChangeEvent>> listeners = new CopyOnWriteArrayList<>();
+   private final Executor deliveryExecutor;
+   private final boolean ownsExecutor;
+   private final long emitterTimeoutMillis;
+   private final long slowConsumerMillis;
+   private final AtomicLong resets = new AtomicLong();
+   private final AtomicLong disconnects = new AtomicLong();
+   // Offset the next event will get; offsets start at 1 so that 0 means "before everything"
+   private volatile long nextOffset = 1;
+
+   @Autowired
+   public TaskChangeFeed(@Value("${task.feed.delivery-threads:0}") int deliveryThreads,
+                         @Value("${task.feed.buffer-size:65536}") int bufferSize,
+                         @Value("${task.feed.emitter-timeout-seconds:300}") long emitterTimeoutSeconds,
+                         @Value("${task.feed.slow-consumer-seconds:30}") long slowConsumerSeconds) {
+       this(deliveryPool(deliveryThreads), true, bufferSize, emitterTimeoutSeconds, slowConsumerSeconds);
+   }
+
+   public TaskChangeFeed(Executor deliveryExecutor, int bufferSize, long emitterTimeoutSeconds) {
+       this(deliveryExecutor, false, bufferSize, emitterTimeoutSeconds, 30);
+   }
+
+   private TaskChangeFeed(Executor deliveryExecutor, boolean ownsExecutor, int bufferSize, long emitterTimeoutSeconds,
+                          long slowConsumerSeconds) {
+       int capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+       this.ring = new AtomicReferenceArray<>(capacity);
+       this.mask = capacity - 1;
+       this.deliveryExecutor = deliveryExecutor;
+       this.ownsExecutor = ownsExecutor;
+       this.emitterTimeoutMillis = TimeUnit.SECONDS.toMillis(emitterTimeoutSeconds);
+       this.slowConsumerMillis = TimeUnit.SECONDS.toMillis(slowConsumerSeconds);
+   }
+
+   @PreDestroy
+   public void close() {
+       if (ownsExecutor) {
+           ((ExecutorService) deliveryExecutor).shutdownNow();
+       }
+   }
+
+   public void publish(TaskChangeType type, TaskManagement task) {
+       publish(type, task, null, null);
+   }
+
+   public void publish(TaskChangeType type, TaskManagement task, Long previousAssigneeId, Priority previousPriority) {
+       TaskChangeEvent event = new TaskChangeEvent();
+       event.setType(type);
+       event.setTaskId(task.getId());
+       event.setVersion(task.getVersion());
+       event.setReferenceId(task.getReferenceId());
+       event.setReferenceType(task.getReferenceType());
+       event.setAssigneeId(task.getAssigneeId());
+       event.setStatus(task.getStatus());
+       event.setPriority(task.getPriority());
+       event.setTaskDeadlineTime(task.getTaskDeadlineTime());
+       if (!Objects.equals(previousAssigneeId, task.getAssigneeId())) {
+           event.setPreviousAssigneeId(previousAssigneeId);
+       }
+       if (previousPriority != task.getPriority()) {
+           event.setPreviousPriority(previousPriority);
+       }
+       event.setTimestamp(System.currentTimeMillis());
+
+       appendLock.lock();
+       try {
+           long offset = nextOffset;
+           event.setOffset(offset);
+           ring.set((int) (offset & mask), event);
+           nextOffset = offset + 1;
+       } finally {
+           appendLock.unlock();
+       }
+       // Only subscribers the event is for are woken; the rest skip it when they next drain
+       for (Subscription subscription : subscriptions) {
+           if (subscription.filter.matches(event)) {
+               subscription.signal(event.getOffset());
+           }
+       }
+       for (Consumer<TaskChangeEvent> listener : listeners) {
+           listener.accept(event);
+       }
+   }
+
+   // In-process consumers, called on the publishing thread after the event is appended
+   public void addListener(Consumer<TaskChangeEvent> listener) {
+       listeners.add(listener);
+   }
+
+   /**
+    * Opens a stream of the events matching the filter. With {@code afterOffset} null only new events are sent;
+    * otherwise delivery resumes right after that offset, or starts with a reset if it is no longer retained.
+    */
+   public SseEmitter subscribe(Filter filter, Long afterOffset) {
+       SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+       long head = nextOffset;
+       long cursor = afterOffset == null ? head : afterOffset + 1;
+       Subscription subscription = new Subscription(emitter, filter, cursor);
+       if (cursor > head) {
+           // Ahead of this process's offsets, e.g. an id from before a restart
+           subscription.pendingReset = true;
+       }
+       emitter.onCompletion(subscription::release);
+       emitter.onTimeout(subscription::release);
+       emitter.onError(error -> subscription.release());
+       subscriptions.add(subscription);
+       subscription.signal(cursor);
+       return emitter;
+   }
+
+   @Override
+   public void bindTo(MeterRegistry registry) {
+       Gauge.builder("task.feed.subscribers", subscriptions, List::size)
+               .description("Open change-feed streams")
+               .register(registry);
+       Gauge.builder("task.feed.offset", this, feed -> feed.nextOffset - 1)
+               .description("Offset of the latest published change event")
+               .register(registry);
+       FunctionCounter.builder("task.feed.resets", resets, AtomicLong::get)
+               .description("Streams told to reload because they fell behind the retained events")
+               .register(registry);
+       FunctionCounter.builder("task.feed.disconnects", disconnects, AtomicLong::get)
+               .description("Streams closed because they stayed behind for longer than the slow-consumer limit")
+               .register(registry);
+   }
+
+   // Fixed pool of daemon threads, one per core unless configured; subscriber drains queue on it in turn
+   private static ExecutorService deliveryPool(int threads) {
+       AtomicInteger created = new AtomicInteger();
+       return Executors.newFixedThreadPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors(), runnable -> {
+           Thread thread = new Thread(runnable, "task-feed-delivery-" + created.incrementAndGet());
+           thread.setDaemon(true);
+           return thread;
+       });
+   }
+
+   /** Subscriber-side filter; null fields match anything. A reassignment matches both the old and the new assignee. */
+   public record Filter(Long assigneeId, Long referenceId, ReferenceType referenceType, Priority priority) {
+
+       boolean matches(TaskChangeEvent event) {
+           if (assigneeId != null && !assigneeId.equals(event.getAssigneeId()) && !assigneeId.equals(event.getPreviousAssigneeId())) {
+               return false;
+           }
+           if (referenceId != null && !referenceId.equals(event.getReferenceId())) {
+               return false;
+           }
+           if (referenceType != null && referenceType != event.getReferenceType()) {
+               return false;
+           }
+           return priority == null || priority == event.getPriority() || priority == event.getPreviousPriority();
+       }
+   }
+
+   private final class Subscription {
+       private final SseEmitter emitter;
+       private final Filter filter;
+       private final AtomicInteger wip = new AtomicInteger();
+       // Lowest offset of a matching event signalled but not yet delivered; tells a harmless skip from a lost event
+       private final AtomicLong firstSignalled = new AtomicLong(Long.MAX_VALUE);
+       private long cursor;
+       private boolean pendingReset;
+       // When a drain first gave up its turn still behind the head; 0 while caught up
+       private long lagSince;
+       private volatile boolean closed;
+
+       Subscription(SseEmitter emitter, Filter filter, long cursor) {
+           this.emitter = emitter;
+           this.filter = filter;
+           this.cursor = cursor;
+       }
+
+       void signal(long offset) {
+           firstSignalled.accumulateAndGet(offset, Math::min);
+           if (wip.getAndIncrement() == 0) {
+               schedule(1);
+           }
+       }
+
+       private void schedule(int missed) {
+           try {
+               deliveryExecutor.execute(() -> drain(missed));
+           } catch (RejectedExecutionException e) {
+               // Shutting down
+               release();
+           }
+       }
+
+       private void drain(int missed) {
+           do {
+               try {
+                   if (!deliver()) {
+                       if (lagging()) {
+                           disconnect();
+                       } else {
+                           // Give the thread to the next subscriber; the signals seen so far carry over to the next turn
+                           schedule(missed);
+                           return;
+                       }
+                   }
+               } catch (IOException | RuntimeException e) {
+                   // Usually a client that went away; the container reports the failure and ends the request
+                   release();
+               }
+               missed = wip.addAndGet(-missed);
+           } while (missed != 0);
+       }
+
+       // True once caught up with the head or closed; false when the batch ran out first
+       private boolean deliver() throws IOException {
+           for (int step = 0; step < DELIVERY_BATCH; step++) {
+               if (closed) {
+                   return true;
+               }
+               long head = nextOffset;
+               if (pendingReset) {
+                   reset(head);
+                   continue;
+               }
+               if (cursor >= head) {
+                   firstSignalled.updateAndGet(offset -> offset < head ? Long.MAX_VALUE : offset);
+                   lagSince = 0;
+                   return true;
+               }
+               long oldest = Math.max(1, head - ring.length());
+               if (cursor < oldest) {
+                   pendingReset = firstSignalled.get() < oldest;
+                   cursor = oldest;
+                   continue;
+               }
+               TaskChangeEvent event = ring.get((int) (cursor & mask));
+               if (event == null || event.getOffset() != cursor) {
+                   // Overwritten since head was read; the next pass sees the newer head and handles the lag
+                   continue;
+               }
+               if (filter.matches(event)) {
+                   emitter.send(SseEmitter.event().id(String.valueOf(cursor)).data(event, MediaType.APPLICATION_JSON));
+               }
+               cursor++;
+           }
+           return false;
+       }
+
+       private boolean lagging() {
+           long now = System.currentTimeMillis();
+           if (lagSince == 0) {
+               lagSince = now;
+           }
+           return now - lagSince > slowConsumerMillis;
+       }
+
+       // The client can reconnect with Last-Event-ID and resume, or get a reset if it has fallen out of the ring
+       private void disconnect() {
+           disconnects.incrementAndGet();
+           release();
+           emitter.complete();
+       }
+
+       private void reset(long head) throws IOException {
+           resets.incrementAndGet();
+           pendingReset = false;
+           cursor = head;
+           firstSignalled.set(Long.MAX_VALUE);
+           emitter.send(SseEmitter.event().id(String.valueOf(head - 1)).name("reset").data(Map.of("offset", head - 1), MediaType.APPLICATION_JSON));
+       }
+
+       void release() {
+           closed = true;
+           subscriptions.remove(this);
+       }
+   }
+}
@@ -0,0 +1,218 @@
+package com.railse.hiring.workforcemgmt.history;
+
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.Comment;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records task activities and comments. By default each entry is written to the store before the call returns.
+ * With {@code task.history.write-behind.enabled=true} entries are put on a bounded ring buffer instead and a
+ * single writer thread appends them to the store in batches of up to {@code flush-size}, waiting at most
+ * {@code flush-interval-millis} for a batch to fill. With the persistent store a batch shares one group commit.
+ * <p>
+ * Ordering: the service records history while holding the task's write lock and there is one consumer, so each
+ * task's entries reach the store in the order they were recorded. Backpressure: when the buffer is full, callers
+ * block until the writer catches up. Entries still buffered when the process dies are lost; they are drained on
+ * a clean shutdown. Reads can trail a recorded entry by up to one flush interval.
+ */
+@Slf4j
+@Component
+public class TaskHistoryWriter implements MeterBinder {
+
+   private final TaskRepository taskRepository;
+   private final boolean writeBehind;
+   private final BlockingQueue<Object> buffer;
+   private final int flushSize;
+   private final long flushIntervalNanos;
+   private final Thread writer;
+   private final AtomicLong written = new AtomicLong();
+   private final AtomicLong failed = new AtomicLong();
+   private final AtomicLong producerWaits = new AtomicLong();
+   private volatile boolean closed;
+
+   public TaskHistoryWriter(TaskRepository taskRepository,
+                            @Value("${task.history.write-behind.enabled:false}") boolean writeBehind,
+                            @Value("${task.history.write-behind.capacity:65536}") int capacity,
+                            @Value("${task.history.write-behind.flush-size:512}") int flushSize,
+                            @Value("${task.history.write-behind.flush-interval-millis:5}") long flushIntervalMillis) {
+       this.taskRepository = taskRepository;
+       this.writeBehind = writeBehind;
+       this.buffer = new ArrayBlockingQueue<>(writeBehind ? capacity : 1);
+       this.flushSize = flushSize;
+       this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+       if (writeBehind) {
+           this.writer = new Thread(this::drain, "task-history-writer");
+           this.writer.setDaemon(true);
+           this.writer.start();
+       } else {
+           this.writer = null;
+       }
+   }
+
+   // Writes every entry straight to the store, as with write-behind disabled
+   public static TaskHistoryWriter synchronous(TaskRepository taskRepository) {
+       return new TaskHistoryWriter(taskRepository, false, 1, 1, 0);
+   }
+
+   public void activity(TaskManagement task, String description, Long userId) {
+       if (writeBehind) {
+           enqueue(new Activity(task.getId(), description, userId));
+       } else {
+           taskRepository.addActivity(task, description, userId);
+       }
+   }
+
+   public void activities(List<Activity> activities) {
+       if (writeBehind) {
+           activities.forEach(this::enqueue);
+       } else {
+           taskRepository.addActivities(activities);
+       }
+   }
+
+   public void comment(TaskManagement task, String comment, Long userId) {
+       if (writeBehind) {
+           enqueue(new Comment(task.getId(), comment, userId));
+       } else {
+           taskRepository.addComment(task, comment, userId);
+       }
+   }
+
+   // Completes once every entry recorded before the call is in the store
+   public CompletableFuture<Void> flush() {
+       CompletableFuture<Void> flushed = new CompletableFuture<>();
+       if (writeBehind) {
+           enqueue(flushed);
+       } else {
+           flushed.complete(null);
+       }
+       return flushed;
+   }
+
+   @PreDestroy
+   public void close() {
+       if (writer == null) {
+           return;
+       }
+       closed = true;
+       try {
+           writer.join();
+       } catch (InterruptedException e) {
+           Thread.currentThread().interrupt();
+       }
+   }
+
+   @Override
+   public void bindTo(MeterRegistry registry) {
+       Gauge.builder("task.history.buffered", buffer, BlockingQueue::size)
+               .description("History entries waiting in the write-behind buffer")
+               .register(registry);
+       FunctionCounter.builder("task.history.written", written, AtomicLong::get)
+               .description("History entries appended to the store by the write-behind writer")
+               .register(registry);
+       FunctionCounter.builder("task.history.failed", failed, AtomicLong::get)
+               .description("History entries dropped because their batch failed to write")
+               .register(registry);
+       FunctionCounter.builder("task.history.producer.waits", producerWaits, AtomicLong::get)
+               .description("Times a caller blocked because the write-behind buffer was full")
+               .register(registry);
+   }
+
+   private void enqueue(Object entry) {
+       if (closed) {
+           throw new IllegalStateException("Task history writer is closed");
+       }
+       if (buffer.offer(entry)) {
+           return;
+       }
+       producerWaits.incrementAndGet();
+       try {
+           buffer.put(entry);
+       } catch (InterruptedException e) {
+           Thread.currentThread().interrupt();
+           throw new IllegalStateException("Interrupted while waiting for space in the task history buffer", e);
+       }
+   }
+
+   private void drain() {
+       List<Object> batch = new ArrayList<>(flushSize);
+       while (!closed || !buffer.isEmpty()) {
+           try {
+               Object first = buffer.poll(100, TimeUnit.MILLISECONDS);
+               if (first == null) {
+                   continue;
+               }
+               batch.add(first);
+               fill(batch);
+               write(batch);
+           } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+               return;
+           } finally {
+               batch.clear();
+           }
+       }
+   }
+
+   // Tops the batch up to flushSize, waiting until flushIntervalNanos after its first entry at most
+   private void fill(List<Object> batch) throws InterruptedException {
+       long deadline = System.nanoTime() + flushIntervalNanos;
+       while (batch.size() < flushSize) {
+           buffer.drainTo(batch, flushSize - batch.size());
+           long remaining = deadline - System.nanoTime();
+           if (batch.size() >= flushSize || remaining <= 0) {
+               return;
+           }
+           Object next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+           if (next == null) {
+               return;
+           }
+           batch.add(next);
+       }
+   }
+
+   // Flush markers complete only after the entries queued ahead of them are written
+   @SuppressWarnings("unchecked")
+   private void write(List<Object> batch) {
+       List<Activity> activities = new ArrayList<>();
+       List<Comment> comments = new ArrayList<>();
+       List<CompletableFuture<Void>> flushes = new ArrayList<>();
+       for (Object entry : batch) {
+           if (entry instanceof Activity activity) {
+               activities.add(activity);
+           } else if (entry instanceof Comment comment) {
+               comments.add(comment);
+           } else {
+               flushes.add((CompletableFuture<Void>) entry);
+           }
+       }
+       int entries = activities.size() + comments.size();
+       try {
+           if (entries > 0) {
+               taskRepository.appendHistory(activities, comments);
+               written.addAndGet(entries);
+           }
+       } catch (RuntimeException e) {
+           failed.addAndGet(entries);
+           log.error("Dropped {} task history entries after a failed write", entries, e);
+       }
+       flushes.forEach(flushed -> flushed.complete(null));
+   }
+}
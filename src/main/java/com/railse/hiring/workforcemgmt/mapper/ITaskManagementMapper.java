@@ -3,6 +3,7 @@ package com.railse.hiring.workforcemgmt.mapper;
 import com.railse.hiring.workforcemgmt.dto.TaskManagementDto;
 import com.railse.hiring.workforcemgmt.model.TaskManagement;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 import org.mapstruct.factory.Mappers;
 
@@ -12,8 +13,13 @@ import java.util.List;
 public interface ITaskManagementMapper {
    ITaskManagementMapper INSTANCE = Mappers.getMapper(ITaskManagementMapper.class);
 
+   @Mapping(target = "activityCount", ignore = true)
+   @Mapping(target = "recentActivities", ignore = true)
+   @Mapping(target = "commentCount", ignore = true)
+   @Mapping(target = "recentComments", ignore = true)
    TaskManagementDto modelToDto(TaskManagement model);
 
+   @Mapping(target = "version", ignore = true)
    TaskManagement dtoToModel(TaskManagementDto dto);
 
    List<TaskManagementDto> modelListToDtoList(List<TaskManagement> models);
@@ -0,0 +1,59 @@
+package com.railse.hiring.workforcemgmt.metrics;
+
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Task store gauges. Values are read from the repository's running counters when the registry is scraped,
+ * so nothing is computed on the request path.
+ */
+@Component
+public class TaskStoreMetrics implements MeterBinder {
+
+   private static final double[] HISTORY_PERCENTILES = {0.5, 0.9, 0.99, 1.0};
+
+   private final TaskRepository taskRepository;
+
+   public TaskStoreMetrics(TaskRepository taskRepository) {
+       this.taskRepository = taskRepository;
+   }
+
+   @Override
+   public void bindTo(MeterRegistry registry) {
+       Gauge.builder("task.store.tasks", taskRepository, TaskRepository::countTasks)
+               .description("Number of tasks in the store")
+               .register(registry);
+       for (TaskStatus status : TaskStatus.values()) {
+           Gauge.builder("task.store.tasks.by.status", taskRepository, repository -> repository.countTasksByStatus(status))
+                   .tag("status", status.name())
+                   .register(registry);
+       }
+       for (Priority priority : Priority.values()) {
+           Gauge.builder("task.store.tasks.by.priority", taskRepository, repository -> repository.countTasksByPriority(priority))
+                   .tag("priority", priority.name())
+                   .register(registry);
+       }
+       for (String index : taskRepository.indexSizes().keySet()) {
+           Gauge.builder("task.store.index.keys", taskRepository, repository -> repository.indexSizes().getOrDefault(index, 0))
+                   .description("Distinct keys held by each secondary index")
+                   .tag("index", index)
+                   .register(registry);
+       }
+       for (double percentile : HISTORY_PERCENTILES) {
+           String quantile = String.valueOf(percentile);
+           Gauge.builder("task.store.activities.per.task", taskRepository, repository -> repository.activityCountPercentile(percentile))
+                   .description("Activity history length per task (power-of-two resolution)")
+                   .tag("quantile", quantile)
+                   .register(registry);
+           Gauge.builder("task.store.comments.per.task", taskRepository, repository -> repository.commentCountPercentile(percentile))
+                   .description("Comment history length per task (power-of-two resolution)")
+                   .tag("quantile", quantile)
+                   .register(registry);
+       }
+   }
+}
@@ -7,8 +7,6 @@ import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
 import lombok.Data;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
 @Data
 public class TaskManagement {
@@ -22,6 +20,5 @@ public class TaskManagement {
    private Long taskDeadlineTime;
    private Priority priority;
    private LocalDateTime createdAt;
-   private List<Activity> activities = new ArrayList<>();
-   private List<Comment> comments = new ArrayList<>();
+   private Long version; // Incremented by the repository on every save
 }
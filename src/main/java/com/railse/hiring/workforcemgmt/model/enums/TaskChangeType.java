@@ -0,0 +1,11 @@
+package com.railse.hiring.workforcemgmt.model.enums;
+
+public enum TaskChangeType {
+   CREATED,
+   UPDATED,
+   REASSIGNED,
+   CANCELLED,
+   PRIORITY_CHANGED,
+   COMMENTED,
+   OVERDUE
+}
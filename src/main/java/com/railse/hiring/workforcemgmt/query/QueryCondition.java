@@ -0,0 +1,77 @@
+package com.railse.hiring.workforcemgmt.query;
+
+import com.railse.hiring.workforcemgmt.common.exception.BadRequestException;
+import com.railse.hiring.workforcemgmt.dto.TaskQueryRequest;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One filter of a task query, with its values encoded like the field's column. {@code in} values are sorted so
+ * a membership test is a binary search.
+ */
+public record QueryCondition(TaskField field, Operator operator, long[] values) {
+
+   public enum Operator {
+       EQ("eq"), NE("ne"), IN("in"), NOT_IN("not_in"), LT("lt"), LTE("lte"), GT("gt"), GTE("gte");
+
+       private final String jsonName;
+
+       Operator(String jsonName) {
+           this.jsonName = jsonName;
+       }
+
+       static Operator of(String name) {
+           for (Operator operator : values()) {
+               if (operator.jsonName.equals(name)) {
+                   return operator;
+               }
+           }
+           throw new BadRequestException("Unknown op '" + name + "'; expected one of "
+                   + Arrays.stream(values()).map(operator -> operator.jsonName).toList());
+       }
+
+       boolean isRange() {
+           return this == LT || this == LTE || this == GT || this == GTE;
+       }
+
+       boolean isNegated() {
+           return this == NE || this == NOT_IN;
+       }
+   }
+
+   static QueryCondition of(TaskQueryRequest.Filter filter) {
+       TaskField field = TaskField.of(filter.getField());
+       Operator operator = Operator.of(filter.getOp());
+       if (operator == Operator.IN || operator == Operator.NOT_IN) {
+           List<Object> values = filter.getValues();
+           if (values == null || values.isEmpty()) {
+               throw new BadRequestException(operator.jsonName + " on " + field.jsonName() + " needs a non-empty values list");
+           }
+           return new QueryCondition(field, operator, values.stream().mapToLong(field::encode).sorted().distinct().toArray());
+       }
+       if (operator.isRange() && (field.isEnum() || filter.getValue() == null)) {
+           throw new BadRequestException(operator.jsonName + " needs a numeric field and a value, got " + field.jsonName());
+       }
+       return new QueryCondition(field, operator, new long[]{field.encode(filter.getValue())});
+   }
+
+   // Unset fields (NULL) only match eq/in null and the negated operators
+   public boolean test(long value) {
+       return switch (operator) {
+           case EQ -> value == values[0];
+           case NE -> value != values[0];
+           case IN -> Arrays.binarySearch(values, value) >= 0;
+           case NOT_IN -> Arrays.binarySearch(values, value) < 0;
+           case LT -> value != TaskField.NULL && value < values[0];
+           case LTE -> value != TaskField.NULL && value <= values[0];
+           case GT -> value != TaskField.NULL && value > values[0];
+           case GTE -> value != TaskField.NULL && value >= values[0];
+       };
+   }
+
+   @Override
+   public String toString() {
+       return field.jsonName() + " " + operator.jsonName + " " + Arrays.stream(values).mapToObj(field::decode).toList();
+   }
+}
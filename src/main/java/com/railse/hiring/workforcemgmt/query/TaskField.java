@@ -0,0 +1,115 @@
+package com.railse.hiring.workforcemgmt.query;
+
+import com.railse.hiring.workforcemgmt.common.exception.BadRequestException;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.function.ToLongFunction;
+
+/**
+ * The task fields a query can filter and sort on. Every value is encoded as a long so the query index can keep
+ * it in a primitive column: enums as their ordinal, created_at as epoch millis, and an unset field as
+ * {@link #NULL}. Fields marked indexed also get a bitmap per value.
+ */
+public enum TaskField {
+   ID("id", null, false, TaskManagement::getId),
+   REFERENCE_ID("reference_id", null, false, task -> orNull(task.getReferenceId())),
+   REFERENCE_TYPE("reference_type", ReferenceType.class, true, task -> ordinal(task.getReferenceType())),
+   TASK("task", Task.class, true, task -> ordinal(task.getTask())),
+   STATUS("status", TaskStatus.class, true, task -> ordinal(task.getStatus())),
+   ASSIGNEE_ID("assignee_id", null, true, task -> orNull(task.getAssigneeId())),
+   PRIORITY("priority", Priority.class, true, task -> ordinal(task.getPriority())),
+   TASK_DEADLINE_TIME("task_deadline_time", null, false, task -> orNull(task.getTaskDeadlineTime())),
+   CREATED_AT("created_at", null, false, task -> epochMillis(task.getCreatedAt()));
+
+   // Sorts after every value in both directions and never satisfies a range
+   public static final long NULL = Long.MIN_VALUE;
+
+   private final String jsonName;
+   private final Class<? extends Enum<?>> enumType;
+   private final boolean indexed;
+   private final ToLongFunction<TaskManagement> encoder;
+
+   TaskField(String jsonName, Class<? extends Enum<?>> enumType, boolean indexed, ToLongFunction<TaskManagement> encoder) {
+       this.jsonName = jsonName;
+       this.enumType = enumType;
+       this.indexed = indexed;
+       this.encoder = encoder;
+   }
+
+   public static TaskField of(String name) {
+       for (TaskField field : values()) {
+           if (field.jsonName.equals(name)) {
+               return field;
+           }
+       }
+       throw new BadRequestException("Unknown field '" + name + "'; expected one of "
+               + Arrays.stream(values()).map(TaskField::jsonName).toList());
+   }
+
+   public String jsonName() {
+       return jsonName;
+   }
+
+   public boolean isEnum() {
+       return enumType != null;
+   }
+
+   public boolean isIndexed() {
+       return indexed;
+   }
+
+   public long valueOf(TaskManagement task) {
+       return encoder.applyAsLong(task);
+   }
+
+   // A JSON filter value: a constant name for enum fields, a number (or numeric string) for the others
+   public long encode(Object value) {
+       if (value == null) {
+           return NULL;
+       }
+       if (isEnum()) {
+           for (Enum<?> constant : enumType.getEnumConstants()) {
+               if (constant.name().equals(value)) {
+                   return constant.ordinal();
+               }
+           }
+           throw new BadRequestException("Invalid " + jsonName + " '" + value + "'; expected one of "
+                   + Arrays.toString(enumType.getEnumConstants()));
+       }
+       if (value instanceof Number number) {
+           return number.longValue();
+       }
+       try {
+           return Long.parseLong(value.toString());
+       } catch (NumberFormatException e) {
+           throw new BadRequestException(jsonName + " must be a number, got '" + value + "'");
+       }
+   }
+
+   // The encoded value as a request would write it
+   public String decode(long value) {
+       if (value == NULL) {
+           return "null";
+       }
+       return isEnum() ? enumType.getEnumConstants()[(int) value].name() : Long.toString(value);
+   }
+
+   private static long ordinal(Enum<?> value) {
+       return value == null ? NULL : value.ordinal();
+   }
+
+   private static long epochMillis(LocalDateTime dateTime) {
+       return dateTime == null ? NULL : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+   }
+
+   private static long orNull(Long value) {
+       return value == null ? NULL : value;
+   }
+}
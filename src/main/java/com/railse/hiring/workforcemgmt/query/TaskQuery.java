@@ -0,0 +1,34 @@
+package com.railse.hiring.workforcemgmt.query;
+
+import com.railse.hiring.workforcemgmt.common.exception.BadRequestException;
+import com.railse.hiring.workforcemgmt.dto.TaskQueryRequest;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+
+import java.util.List;
+
+// A validated query: every condition must hold; results ordered by sortBy (ties by id ascending), at most limit
+public record TaskQuery(List<QueryCondition> conditions, TaskField sortBy, boolean descending, int limit) {
+
+   public static TaskQuery of(TaskQueryRequest request, int defaultLimit, int maxLimit) {
+       List<QueryCondition> conditions = request.getFilters() == null
+               ? List.of()
+               : request.getFilters().stream().map(QueryCondition::of).toList();
+       TaskField sortBy = request.getSortBy() == null ? TaskField.ID : TaskField.of(request.getSortBy());
+       String sortOrder = request.getSortOrder() == null ? "asc" : request.getSortOrder();
+       if (!sortOrder.equals("asc") && !sortOrder.equals("desc")) {
+           throw new BadRequestException("sort_order must be asc or desc");
+       }
+       int limit = request.getLimit() == null ? defaultLimit : Math.min(Math.max(request.getLimit(), 1), maxLimit);
+       return new TaskQuery(conditions, sortBy, sortOrder.equals("desc"), limit);
+   }
+
+   // Checked again on the tasks loaded for the response, which may be newer than the index
+   public boolean matches(TaskManagement task) {
+       for (QueryCondition condition : conditions) {
+           if (!condition.test(condition.field().valueOf(task))) {
+               return false;
+           }
+       }
+       return true;
+   }
+}
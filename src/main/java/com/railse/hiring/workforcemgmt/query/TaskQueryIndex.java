@@ -0,0 +1,619 @@
+package com.railse.hiring.workforcemgmt.query;
+
+import com.railse.hiring.workforcemgmt.dto.TaskChangeEvent;
+import com.railse.hiring.workforcemgmt.feed.TaskChangeFeed;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.TaskChangeType;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Column store and bitmap indexes for ad-hoc task queries. Each task gets a dense internal ordinal when it is
+ * first indexed, so ids need not be dense or fit in an int (the sharded store's are neither). Every filterable
+ * field of every task, id included, is kept in a primitive column indexed by ordinal, and the indexed fields
+ * (status, priority, task, reference type, assignee) also keep a Roaring bitmap of the ordinals holding each value.
+ * <p>
+ * Ordinals are handed out in arrival order, which is id order except for a task whose id is below one indexed
+ * before it (a sharded id, or a create that lost a race to publish). Those ordinals are marked displaced; the rest
+ * ascend with their ids, so an id range is an ordinal range plus the displaced ordinals in it, and a walk in id
+ * order merges the ordinals in order with the few displaced ones sorted by id.
+ * <p>
+ * The index is built from the store at startup and follows the change feed. Writers only queue the changed task's
+ * id on a bounded queue; a single indexer thread builds the index, then re-reads queued tasks in batches and
+ * applies them, so request threads never wait for the index lock (a full queue makes them wait for room).
+ * Queries are eventually consistent: a change shows up once the indexer gets to it.
+ * <p>
+ * Planning: each condition the bitmaps can answer (eq/in/ne/not_in on an indexed field, any condition on id)
+ * has an exact cardinality, read from the bitmaps without materializing anything. Starting from every task, they
+ * are considered from the most selective and each is either intersected into the candidates or left to be
+ * checked per candidate against its column, whichever is estimated to touch fewer words: an intersection costs
+ * about one word per 64 ids on both sides, a check one per candidate visited. Candidates are walked in result
+ * order, so when sorted by id or by an enum field the walk stops after limit matches and visits about
+ * limit / selectivity candidates; other sorts visit them all and keep the best in a bounded heap. Conditions on
+ * unindexed fields are always checked per candidate.
+ */
+@Slf4j
+@Component
+public class TaskQueryIndex implements MeterBinder {
+
+   private static final int LOAD_BATCH = 10_000;
+   private static final int APPLY_BATCH = 1_000;
+   private static final int INITIAL_CAPACITY = 1024;
+   private static final TaskField[] FIELDS = TaskField.values();
+
+   private final TaskRepository taskRepository;
+   private final BlockingQueue<Update> updates;
+   private final Thread indexer;
+   // Taken for writing by the indexer thread only
+   private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+   private final Map<Long, Integer> ordinals = new HashMap<>();
+   private final RoaringBitmap live = new RoaringBitmap();
+   // Ordinals of tasks whose id is below one indexed before them
+   private final RoaringBitmap displaced = new RoaringBitmap();
+   // By field ordinal: a long column for numeric fields (id included), a byte column for enums (-1 = unset)
+   private final long[][] longColumns = new long[FIELDS.length][];
+   private final byte[][] byteColumns = new byte[FIELDS.length][];
+   private final Map<TaskField, Map<Long, RoaringBitmap>> buckets = new EnumMap<>(TaskField.class);
+   private int capacity = INITIAL_CAPACITY;
+   private int size;
+   private long maxId = Long.MIN_VALUE;
+
+   public TaskQueryIndex(TaskRepository taskRepository, TaskChangeFeed changeFeed,
+                         @Value("${task.query.queue-capacity:65536}") int queueCapacity) {
+       this.taskRepository = taskRepository;
+       this.updates = new ArrayBlockingQueue<>(queueCapacity);
+       for (TaskField field : FIELDS) {
+           if (field.isEnum()) {
+               byteColumns[field.ordinal()] = new byte[capacity];
+           } else {
+               longColumns[field.ordinal()] = new long[capacity];
+           }
+           if (field.isIndexed()) {
+               buckets.put(field, new HashMap<>());
+           }
+       }
+       // Listening before the load means a change made while it runs is applied again after it
+       changeFeed.addListener(this::onChange);
+       this.indexer = new Thread(this::run, "task-query-indexer");
+       indexer.setDaemon(true);
+       indexer.start();
+   }
+
+   @PreDestroy
+   public void close() {
+       indexer.interrupt();
+   }
+
+   // Ids of the tasks matching the query, in its order
+   public List<Long> execute(TaskQuery query) {
+       return read(() -> {
+           QueryPlan plan = plan(query);
+           if (query.sortBy() == TaskField.ID) {
+               return walkById(query, plan);
+           }
+           return query.sortBy().isEnum() ? walkByBucket(query, plan) : topN(query, plan);
+       });
+   }
+
+   // Waits until the initial build and every change queued before the call are applied; for tests and benchmarks
+   public void flush() throws InterruptedException {
+       CountDownLatch applied = new CountDownLatch(1);
+       updates.put(new Update(null, applied));
+       applied.await();
+   }
+
+   public int taskCount() {
+       return read(live::getCardinality);
+   }
+
+   public int pendingCount() {
+       return updates.size();
+   }
+
+   public long bitmapBytes() {
+       return read(() -> {
+           long bytes = live.getLongSizeInBytes() + displaced.getLongSizeInBytes();
+           for (Map<Long, RoaringBitmap> fieldBuckets : buckets.values()) {
+               for (RoaringBitmap bucket : fieldBuckets.values()) {
+                   bytes += bucket.getLongSizeInBytes();
+               }
+           }
+           return bytes;
+       });
+   }
+
+   @Override
+   public void bindTo(MeterRegistry registry) {
+       Gauge.builder("task.query.tasks", this, TaskQueryIndex::taskCount)
+               .description("Tasks in the query index")
+               .register(registry);
+       Gauge.builder("task.query.bitmap.bytes", this, TaskQueryIndex::bitmapBytes)
+               .description("Serialized size of the query index bitmaps")
+               .baseUnit("bytes")
+               .register(registry);
+       Gauge.builder("task.query.pending", this, TaskQueryIndex::pendingCount)
+               .description("Task changes waiting to be applied to the query index")
+               .register(registry);
+   }
+
+   QueryPlan plan(TaskQuery query) {
+       List<Access> accesses = new ArrayList<>();
+       List<QueryCondition> unindexed = new ArrayList<>();
+       for (QueryCondition condition : query.conditions()) {
+           Access access = access(condition);
+           if (access == null) {
+               unindexed.add(condition);
+           } else {
+               accesses.add(access);
+           }
+       }
+       accesses.sort(Comparator.comparingLong(Access::cardinality));
+
+       boolean stopsAtLimit = query.sortBy() == TaskField.ID || query.sortBy().isEnum();
+       long total = Math.max(live.getLongCardinality(), 1);
+       List<QueryCondition> probes = new ArrayList<>();
+       RoaringBitmap candidates = live;
+       for (Access access : accesses) {
+           long candidateCount = candidates.getLongCardinality();
+           double selectivity = (double) access.cardinality() / total;
+           long visits = stopsAtLimit && selectivity > 0 ? (long) Math.min(candidateCount, query.limit() / selectivity) : candidateCount;
+           long intersectCost = candidates == live ? access.firstCost() : (candidateCount + access.cardinality()) / Long.SIZE;
+           if (visits <= intersectCost) {
+               probes.add(access.condition());
+           } else {
+               candidates = candidates == live ? access.first().get() : access.intersect().apply(candidates);
+           }
+       }
+       // Conditions with a known cardinality are the most selective first; the rest follow in request order
+       probes.addAll(unindexed);
+       return new QueryPlan(candidates, probes);
+   }
+
+   private void onChange(TaskChangeEvent event) {
+       if (event.getType() == TaskChangeType.OVERDUE || event.getType() == TaskChangeType.COMMENTED) {
+           return;
+       }
+       try {
+           updates.put(new Update(event.getTaskId(), null));
+       } catch (InterruptedException e) {
+           Thread.currentThread().interrupt();
+           throw new IllegalStateException("Interrupted while queueing a query index update", e);
+       }
+   }
+
+   private void run() {
+       try {
+           load();
+       } catch (RuntimeException e) {
+           log.error("Building the query index failed; it only holds tasks changed from now on", e);
+       }
+       List<Update> batch = new ArrayList<>(APPLY_BATCH);
+       try {
+           while (true) {
+               batch.add(updates.take());
+               updates.drainTo(batch, APPLY_BATCH - 1);
+               try {
+                   apply(batch);
+               } catch (RuntimeException e) {
+                   log.error("Applying {} query index updates failed", batch.size(), e);
+               }
+               for (Update update : batch) {
+                   if (update.applied() != null) {
+                       update.applied().countDown();
+                   }
+               }
+               batch.clear();
+           }
+       } catch (InterruptedException e) {
+           Thread.currentThread().interrupt();
+       }
+   }
+
+   // Tasks are read outside the lock: this thread is the only writer, and it reads them after they changed
+   private void apply(List<Update> batch) {
+       Set<Long> taskIds = new LinkedHashSet<>();
+       for (Update update : batch) {
+           if (update.taskId() != null) {
+               taskIds.add(update.taskId());
+           }
+       }
+       if (taskIds.isEmpty()) {
+           return;
+       }
+       Map<Long, TaskManagement> tasks = taskRepository.findAllById(taskIds);
+       write(() -> {
+           for (Long taskId : taskIds) {
+               TaskManagement task = tasks.get(taskId);
+               if (task != null) {
+                   index(task);
+               }
+           }
+           return null;
+       });
+   }
+
+   private void load() {
+       long afterId = 0;
+       List<TaskManagement> page;
+       do {
+           page = taskRepository.findPage(afterId, LOAD_BATCH);
+           List<TaskManagement> batch = page;
+           write(() -> {
+               batch.forEach(this::index);
+               return null;
+           });
+           if (!page.isEmpty()) {
+               afterId = page.get(page.size() - 1).getId();
+           }
+       } while (page.size() == LOAD_BATCH);
+   }
+
+   // Caller holds the write lock
+   private void index(TaskManagement task) {
+       Integer known = ordinals.get(task.getId());
+       int ordinal = known == null ? newOrdinal(task.getId()) : known;
+       for (TaskField field : FIELDS) {
+           if (field == TaskField.ID) {
+               continue;
+           }
+           long value = field.valueOf(task);
+           if (field.isIndexed()) {
+               long previous = known != null ? value(field, ordinal) : TaskField.NULL;
+               if (known == null || previous != value) {
+                   Map<Long, RoaringBitmap> fieldBuckets = buckets.get(field);
+                   if (known != null) {
+                       RoaringBitmap bucket = fieldBuckets.get(previous);
+                       bucket.remove(ordinal);
+                       if (bucket.isEmpty()) {
+                           fieldBuckets.remove(previous);
+                       }
+                   }
+                   fieldBuckets.computeIfAbsent(value, key -> new RoaringBitmap()).add(ordinal);
+               }
+           }
+           if (field.isEnum()) {
+               byteColumns[field.ordinal()][ordinal] = (byte) (value == TaskField.NULL ? -1 : value);
+           } else {
+               longColumns[field.ordinal()][ordinal] = value;
+           }
+       }
+       live.add(ordinal);
+   }
+
+   private int newOrdinal(long id) {
+       if (size == Integer.MAX_VALUE) {
+           throw new IllegalStateException("Query index is full");
+       }
+       int ordinal = size++;
+       ensureCapacity(ordinal);
+       ordinals.put(id, ordinal);
+       longColumns[TaskField.ID.ordinal()][ordinal] = id;
+       if (id < maxId) {
+           displaced.add(ordinal);
+       } else {
+           maxId = id;
+       }
+       return ordinal;
+   }
+
+   private void ensureCapacity(int ordinal) {
+       if (ordinal < capacity) {
+           return;
+       }
+       capacity = (int) Math.min(Math.max(ordinal + 1L, capacity * 2L), Integer.MAX_VALUE);
+       for (TaskField field : FIELDS) {
+           int column = field.ordinal();
+           if (byteColumns[column] != null) {
+               byteColumns[column] = Arrays.copyOf(byteColumns[column], capacity);
+           }
+           if (longColumns[column] != null) {
+               longColumns[column] = Arrays.copyOf(longColumns[column], capacity);
+           }
+       }
+   }
+
+   private long value(TaskField field, int ordinal) {
+       if (field.isEnum()) {
+           byte value = byteColumns[field.ordinal()][ordinal];
+           return value < 0 ? TaskField.NULL : value;
+       }
+       return longColumns[field.ordinal()][ordinal];
+   }
+
+   // Null when no bitmap answers the condition
+   private Access access(QueryCondition condition) {
+       if (condition.field() == TaskField.ID) {
+           return idAccess(condition);
+       }
+       if (!condition.field().isIndexed() || condition.operator().isRange()) {
+           return null;
+       }
+       Map<Long, RoaringBitmap> fieldBuckets = buckets.get(condition.field());
+       List<RoaringBitmap> matching = new ArrayList<>(condition.values().length);
+       long cardinality = 0;
+       for (long value : condition.values()) {
+           RoaringBitmap bucket = fieldBuckets.get(value);
+           if (bucket != null) {
+               matching.add(bucket);
+               cardinality += bucket.getLongCardinality();
+           }
+       }
+       Supplier<RoaringBitmap> union = () -> matching.size() == 1 ? matching.get(0) : FastAggregation.or(matching.iterator());
+       if (condition.operator().isNegated()) {
+           return new Access(condition, live.getLongCardinality() - cardinality, (live.getLongCardinality() + cardinality) / Long.SIZE,
+                   () -> RoaringBitmap.andNot(live, union.get()), candidates -> RoaringBitmap.andNot(candidates, union.get()));
+       }
+       // A single bucket is used as it is
+       return new Access(condition, cardinality, matching.size() > 1 ? cardinality / Long.SIZE : 0,
+               union, candidates -> RoaringBitmap.and(candidates, union.get()));
+   }
+
+   private Access idAccess(QueryCondition condition) {
+       long[] values = condition.values();
+       long value = values[0];
+       RoaringBitmap ids;
+       // Bounds are inclusive, so no bound overflows at either end of the long range
+       switch (condition.operator()) {
+           case LT -> ids = value == Long.MIN_VALUE ? new RoaringBitmap() : ordinalsOfIds(Long.MIN_VALUE, value - 1);
+           case LTE -> ids = ordinalsOfIds(Long.MIN_VALUE, value);
+           case GT -> ids = value == Long.MAX_VALUE ? new RoaringBitmap() : ordinalsOfIds(value + 1, Long.MAX_VALUE);
+           case GTE -> ids = ordinalsOfIds(value, Long.MAX_VALUE);
+           default -> {
+               ids = new RoaringBitmap();
+               for (long id : values) {
+                   Integer ordinal = ordinals.get(id);
+                   if (ordinal != null) {
+                       ids.add(ordinal);
+                   }
+               }
+           }
+       }
+       long matching = RoaringBitmap.andCardinality(live, ids);
+       long cost = (live.getLongCardinality() + ids.getLongCardinality()) / Long.SIZE;
+       if (condition.operator().isNegated()) {
+           return new Access(condition, live.getLongCardinality() - matching, cost,
+                   () -> RoaringBitmap.andNot(live, ids), candidates -> RoaringBitmap.andNot(candidates, ids));
+       }
+       return new Access(condition, matching, cost, () -> RoaringBitmap.and(live, ids), candidates -> RoaringBitmap.and(candidates, ids));
+   }
+
+   // Ordinals of the ids from min to max inclusive: a range of the ordinals in id order, plus the displaced ones
+   private RoaringBitmap ordinalsOfIds(long min, long max) {
+       RoaringBitmap matching = new RoaringBitmap();
+       int from = min == Long.MIN_VALUE ? 0 : firstOrdinalAbove(min - 1);
+       int to = firstOrdinalAbove(max);
+       if (from < to) {
+           matching.add((long) from, (long) to);
+           matching.andNot(displaced);
+       }
+       long[] idColumn = longColumns[TaskField.ID.ordinal()];
+       IntIterator iterator = displaced.getIntIterator();
+       while (iterator.hasNext()) {
+           int ordinal = iterator.next();
+           if (idColumn[ordinal] >= min && idColumn[ordinal] <= max) {
+               matching.add(ordinal);
+           }
+       }
+       return matching;
+   }
+
+   // Binary search over the highest id indexed up to each ordinal, which never decreases and is the ordinal's own
+   // id unless it is displaced
+   private int firstOrdinalAbove(long id) {
+       long[] idColumn = longColumns[TaskField.ID.ordinal()];
+       int low = 0;
+       int high = size;
+       while (low < high) {
+           int middle = (low + high) >>> 1;
+           // The first ordinal is never displaced
+           int inOrder = (int) displaced.previousAbsentValue(middle);
+           if (idColumn[inOrder] > id) {
+               high = middle;
+           } else {
+               low = middle + 1;
+           }
+       }
+       return low;
+   }
+
+   private List<Long> walkById(TaskQuery query, QueryPlan plan) {
+       List<Long> ids = new ArrayList<>(Math.min(query.limit(), 64));
+       walkInIdOrder(plan.candidates(), query.descending(), plan, ids, query.limit());
+       return ids;
+   }
+
+   // An enum field has a handful of values: walk its buckets in sort order, each in id order, up to the limit
+   private List<Long> walkByBucket(TaskQuery query, QueryPlan plan) {
+       Map<Long, RoaringBitmap> fieldBuckets = buckets.get(query.sortBy());
+       List<Long> values = new ArrayList<>(fieldBuckets.keySet());
+       values.sort((a, b) -> compareValues(a, b, query.descending()));
+       List<Long> ids = new ArrayList<>(Math.min(query.limit(), 64));
+       for (Long value : values) {
+           if (ids.size() == query.limit()) {
+               break;
+           }
+           RoaringBitmap bucket = fieldBuckets.get(value);
+           walkInIdOrder(plan.candidates() == live ? bucket : RoaringBitmap.and(plan.candidates(), bucket), false, plan, ids, query.limit());
+       }
+       return ids;
+   }
+
+   /**
+    * Adds the ids of the candidates passing the probes to ids in id order until it holds limit. Ordinals that are
+    * not displaced are already in id order, so they are walked lazily; the displaced candidates are checked up
+    * front, sorted by id and merged in.
+    */
+   private void walkInIdOrder(RoaringBitmap candidates, boolean descending, QueryPlan plan, List<Long> ids, int limit) {
+       long[] idColumn = longColumns[TaskField.ID.ordinal()];
+       long[] strays = displacedIds(candidates, plan, descending);
+       IntIterator iterator = descending ? candidates.getReverseIntIterator() : candidates.getIntIterator();
+       int stray = 0;
+       int next = nextInOrder(iterator, plan);
+       while (ids.size() < limit && (next >= 0 || stray < strays.length)) {
+           long id = next >= 0 ? idColumn[next] : 0;
+           if (stray < strays.length && (next < 0 || (descending ? strays[stray] > id : strays[stray] < id))) {
+               ids.add(strays[stray++]);
+           } else {
+               ids.add(id);
+               next = nextInOrder(iterator, plan);
+           }
+       }
+   }
+
+   // Next candidate that is not displaced and passes the probes, or -1
+   private int nextInOrder(IntIterator iterator, QueryPlan plan) {
+       while (iterator.hasNext()) {
+           int ordinal = iterator.next();
+           if (!displaced.contains(ordinal) && probe(plan, ordinal)) {
+               return ordinal;
+           }
+       }
+       return -1;
+   }
+
+   // Ids of the displaced candidates passing the probes, in walk order
+   private long[] displacedIds(RoaringBitmap candidates, QueryPlan plan, boolean descending) {
+       if (displaced.isEmpty()) {
+           return new long[0];
+       }
+       long[] idColumn = longColumns[TaskField.ID.ordinal()];
+       RoaringBitmap strays = RoaringBitmap.and(candidates, displaced);
+       long[] ids = new long[strays.getCardinality()];
+       int count = 0;
+       IntIterator iterator = strays.getIntIterator();
+       while (iterator.hasNext()) {
+           int ordinal = iterator.next();
+           if (probe(plan, ordinal)) {
+               ids[count++] = idColumn[ordinal];
+           }
+       }
+       ids = Arrays.copyOf(ids, count);
+       Arrays.sort(ids);
+       if (descending) {
+           for (int i = 0; i < count / 2; i++) {
+               long swap = ids[i];
+               ids[i] = ids[count - 1 - i];
+               ids[count - 1 - i] = swap;
+           }
+       }
+       return ids;
+   }
+
+   // Only numeric fields other than id get here, so the sort field has a long column
+   private List<Long> topN(TaskQuery query, QueryPlan plan) {
+       long[] column = longColumns[query.sortBy().ordinal()];
+       long[] idColumn = longColumns[TaskField.ID.ordinal()];
+       Comparator<Ranked> resultOrder = Comparator.comparingLong(Ranked::key).thenComparingLong(Ranked::id);
+       // Worst kept result at the head, so it is the one replaced
+       PriorityQueue<Ranked> best = new PriorityQueue<>(query.limit() + 1, resultOrder.reversed());
+       IntIterator iterator = plan.candidates().getIntIterator();
+       while (iterator.hasNext()) {
+           int ordinal = iterator.next();
+           if (!probe(plan, ordinal)) {
+               continue;
+           }
+           long key = sortKey(column[ordinal], query.descending());
+           if (best.size() < query.limit()) {
+               best.add(new Ranked(key, idColumn[ordinal]));
+           } else if (key <= best.peek().key()) {
+               // Candidates are not all in id order, so ties with the worst kept result are settled by id
+               Ranked candidate = new Ranked(key, idColumn[ordinal]);
+               if (resultOrder.compare(candidate, best.peek()) < 0) {
+                   best.poll();
+                   best.add(candidate);
+               }
+           }
+       }
+       List<Ranked> ranked = new ArrayList<>(best);
+       ranked.sort(resultOrder);
+       return ranked.stream().map(Ranked::id).toList();
+   }
+
+   // Orders ascending in both directions (~ reverses without overflow), with unset values last
+   private static long sortKey(long value, boolean descending) {
+       if (value == TaskField.NULL) {
+           return Long.MAX_VALUE;
+       }
+       return descending ? ~value : value;
+   }
+
+   // Unset values last in either direction
+   private static int compareValues(long a, long b, boolean descending) {
+       if (a == TaskField.NULL || b == TaskField.NULL) {
+           return Boolean.compare(a == TaskField.NULL, b == TaskField.NULL);
+       }
+       return descending ? Long.compare(b, a) : Long.compare(a, b);
+   }
+
+   private boolean probe(QueryPlan plan, int ordinal) {
+       List<QueryCondition> probes = plan.probes();
+       for (int i = 0; i < probes.size(); i++) {
+           QueryCondition condition = probes.get(i);
+           if (!condition.test(value(condition.field(), ordinal))) {
+               return false;
+           }
+       }
+       return true;
+   }
+
+   private <T> T read(Supplier<T> action) {
+       lock.readLock().lock();
+       try {
+           return action.get();
+       } finally {
+           lock.readLock().unlock();
+       }
+   }
+
+   private <T> T write(Supplier<T> action) {
+       lock.writeLock().lock();
+       try {
+           return action.get();
+       } finally {
+           lock.writeLock().unlock();
+       }
+   }
+
+   // Candidate ordinals after the bitmap steps, and the conditions still to check on each
+   record QueryPlan(RoaringBitmap candidates, List<QueryCondition> probes) {
+   }
+
+   // A condition answered from bitmaps: its exact cardinality, its ordinals on their own and what building them costs
+   // in words, and its intersection with other candidates
+   private record Access(QueryCondition condition, long cardinality, long firstCost, Supplier<RoaringBitmap> first,
+                         UnaryOperator<RoaringBitmap> intersect) {
+   }
+
+   private record Ranked(long key, long id) {
+   }
+
+   // A task to re-read, or with only applied set, a flush marker
+   private record Update(Long taskId, CountDownLatch applied) {
+   }
+}
@@ -0,0 +1,502 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+import com.railse.hiring.workforcemgmt.common.concurrent.StripedLock;
+import com.railse.hiring.workforcemgmt.common.exception.VersionConflictException;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.Comment;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.compact.LongBuckets;
+import com.railse.hiring.workforcemgmt.repository.compact.TaskColumns;
+import com.railse.hiring.workforcemgmt.repository.compact.TaskRows;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Heap-lean alternative to {@link InMemoryTaskRepository}. Task fields live in fixed-layout {@link TaskRows}
+ * addressed by id (primitive {@link TaskColumns} on the heap by default), and the assignee and reference indexes
+ * are primitive {@link LongBuckets}; priority and daily queries scan the rows instead of keeping further indexes.
+ * Callers get a freshly built {@link TaskManagement} view on every read, so a change only reaches the store
+ * through save or update.
+ * <p>
+ * Row access is guarded by a {@link StampedLock}: writes take it exclusively for the few stores of a row,
+ * single-task reads are optimistic and fall back to the read lock only when they race a write. Scans by id take the
+ * read lock one window of ids at a time, so a writer never waits for more than a window; a scan therefore sees each
+ * row as of when its window was read rather than one point in time. Read-modify-write still goes through the
+ * per-task stripe locks, like the other stores. History goes to a {@link TaskHistory}, by default the shared
+ * {@link TaskHistoryStore}; history for ids with no stored task is dropped.
+ */
+@Repository
+@ConditionalOnProperty(name = "task.store.type", havingValue = "compact")
+public class CompactTaskRepository implements TaskRepository {
+
+   private static final byte CANCELLED = TaskRows.ordinal(TaskStatus.CANCELLED);
+   private static final TaskStatus[] STATUSES = TaskStatus.values();
+   private static final Priority[] PRIORITIES = Priority.values();
+   private static final int SCAN_WINDOW = 4096;
+
+   private final TaskRows rows;
+   private final LongBuckets byAssignee = new LongBuckets(1024);
+   // Keyed by reference id alone; the reference type is checked against the column when resolving
+   private final LongBuckets byReference = new LongBuckets(1024);
+   private final long[] statusCounts = new long[TaskStatus.values().length];
+   private final long[] priorityCounts = new long[Priority.values().length];
+   private final TaskStatistics statistics = new TaskStatistics();
+   private final StampedLock rowLock = new StampedLock();
+   private final TaskHistory historyStore;
+   private final StripedLock taskLocks = new StripedLock(1024);
+   private final AtomicLong idCounter = new AtomicLong(0);
+   private final AtomicLong activityIdCounter = new AtomicLong(0);
+   private final AtomicLong commentIdCounter = new AtomicLong(0);
+   private long taskCount;
+
+   public CompactTaskRepository() {
+       this(new TaskColumns(), new TaskHistoryStore());
+   }
+
+   // Subclasses swap in other row and history storage; the indexes and locking stay the same
+   protected CompactTaskRepository(TaskRows rows, TaskHistory history) {
+       this.rows = rows;
+       this.historyStore = history;
+       for (TaskManagement task : saveAll(TaskSeeds.tasks())) {
+           addActivity(task, "Task created", task.getAssigneeId());
+       }
+   }
+
+   @Override
+   public Optional<TaskManagement> findById(Long id) {
+       if (id == null) {
+           return Optional.empty();
+       }
+       long stamp = rowLock.tryOptimisticRead();
+       if (stamp != 0) {
+           try {
+               TaskManagement task = rows.exists(id) ? rows.read(id) : null;
+               if (rowLock.validate(stamp)) {
+                   return Optional.ofNullable(task);
+               }
+           } catch (RuntimeException e) {
+               // A torn read of a row being written; retried below under the read lock
+           }
+       }
+       return read(() -> Optional.ofNullable(rows.exists(id) ? rows.read(id) : null));
+   }
+
+   @Override
+   public TaskManagement save(TaskManagement task) {
+       if (task.getId() == null) {
+           assignIds(List.of(task));
+           write(() -> store(task));
+           return task;
+       }
+       return withTaskLock(task.getId(), () -> {
+           write(() -> store(task));
+           return task;
+       });
+   }
+
+   // One exclusive section covers the whole batch
+   @Override
+   public List<TaskManagement> saveAll(List<TaskManagement> tasks) {
+       assignIds(tasks);
+       write(() -> tasks.forEach(this::store));
+       return tasks;
+   }
+
+   @Override
+   public Map<Long, TaskManagement> findAllById(Collection<Long> ids) {
+       return read(() -> {
+           Map<Long, TaskManagement> found = new HashMap<>(ids.size() * 2);
+           for (Long id : ids) {
+               if (id != null && rows.exists(id)) {
+                   found.put(id, rows.read(id));
+               }
+           }
+           return found;
+       });
+   }
+
+   @Override
+   public Optional<TaskManagement> update(Long id, Consumer<TaskManagement> mutation) {
+       return update(id, null, mutation);
+   }
+
+   @Override
+   public Optional<TaskManagement> update(Long id, Long expectedVersion, Consumer<TaskManagement> mutation) {
+       return withTaskLock(id, () -> {
+           Optional<TaskManagement> found = findById(id);
+           if (found.isEmpty()) {
+               return found;
+           }
+           TaskManagement task = found.get();
+           if (expectedVersion != null) {
+               checkVersion(id, task.getVersion(), expectedVersion);
+           }
+           mutation.accept(task);
+           write(() -> store(task));
+           return found;
+       });
+   }
+
+   @Override
+   public Map<Long, TaskManagement> updateAll(Collection<Long> ids, Consumer<Map<Long, TaskManagement>> mutation) {
+       return taskLocks.withLocks(ids, () -> {
+           Map<Long, TaskManagement> tasks = findAllById(ids);
+           mutation.accept(tasks);
+           saveAll(new ArrayList<>(tasks.values()));
+           return tasks;
+       });
+   }
+
+   @Override
+   public List<TaskManagement> findAll() {
+       return findPage(0, Integer.MAX_VALUE);
+   }
+
+   @Override
+   public List<TaskManagement> findPage(long afterId, int limit) {
+       return scan(afterId, limit, (int) Math.min(limit, countTasks()), id -> true);
+   }
+
+   @Override
+   public List<TaskManagement> findByReferenceIdAndReferenceType(Long referenceId, ReferenceType referenceType) {
+       if (referenceId == null || referenceType == null) {
+           return List.of();
+       }
+       byte type = TaskRows.ordinal(referenceType);
+       return read(() -> {
+           List<TaskManagement> tasks = new ArrayList<>(byReference.size(referenceId));
+           byReference.forEach(referenceId, id -> {
+               if (rows.referenceType(id) == type) {
+                   tasks.add(rows.read(id));
+               }
+           });
+           return tasks;
+       });
+   }
+
+   @Override
+   public List<TaskManagement> findByAssigneeIdIn(List<Long> assigneeIds) {
+       Set<Long> distinctAssignees = new HashSet<>(assigneeIds);
+       return read(() -> {
+           List<TaskManagement> tasks = new ArrayList<>();
+           for (Long assigneeId : distinctAssignees) {
+               if (assigneeId != null) {
+                   byAssignee.forEach(assigneeId, id -> tasks.add(rows.read(id)));
+               }
+           }
+           return tasks;
+       });
+   }
+
+   // Sequential scan of the one-byte priority column, a window at a time
+   @Override
+   public List<TaskManagement> findByPriority(Priority priority) {
+       if (priority == null) {
+           return List.of();
+       }
+       byte wanted = TaskRows.ordinal(priority);
+       return scan(0, Integer.MAX_VALUE, (int) countTasksByPriority(priority), id -> rows.priority(id) == wanted);
+   }
+
+   // Filters each assignee's bucket on the status and createdAt fields; only matching rows are materialised
+   @Override
+   public List<TaskManagement> findDailyTasks(List<Long> assigneeIds, long startMillis, long endMillis) {
+       Set<Long> distinctAssignees = new HashSet<>(assigneeIds);
+       return read(() -> {
+           List<TaskManagement> tasks = new ArrayList<>();
+           for (Long assigneeId : distinctAssignees) {
+               if (assigneeId == null) {
+                   continue;
+               }
+               byAssignee.forEach(assigneeId, id -> {
+                   byte status = rows.status(id);
+                   long createdAt = rows.createdAtMillis(id);
+                   if (status == CANCELLED || createdAt == TaskRows.NULL) {
+                       return;
+                   }
+                   boolean createdInRange = createdAt >= startMillis && createdAt <= endMillis;
+                   boolean openFromBefore = createdAt < startMillis && isOpen(status);
+                   if (createdInRange || openFromBefore) {
+                       tasks.add(rows.read(id));
+                   }
+               });
+           }
+           return tasks;
+       });
+   }
+
+   @Override
+   public void addActivity(TaskManagement task, String description, Long userId) {
+       withTaskLock(task.getId(), () -> {
+           if (!exists(task.getId())) {
+               return null;
+           }
+           Activity activity = new Activity(task.getId(), description, userId);
+           activity.setId(activityIdCounter.incrementAndGet());
+           historyStore.appendActivity(activity);
+           return activity;
+       });
+   }
+
+   @Override
+   public void addActivities(List<Activity> activities) {
+       long nextId = activityIdCounter.getAndAdd(activities.size()) + 1;
+       for (Activity activity : activities) {
+           activity.setId(nextId++);
+       }
+       Set<Long> taskIds = new HashSet<>();
+       activities.forEach(activity -> taskIds.add(activity.getTaskId()));
+       Set<Long> existing = findAllById(taskIds).keySet();
+       for (Activity activity : activities) {
+           if (existing.contains(activity.getTaskId())) {
+               historyStore.appendActivity(activity);
+           }
+       }
+   }
+
+   @Override
+   public void appendHistory(List<Activity> activities, List<Comment> comments) {
+       addActivities(activities);
+       long nextId = commentIdCounter.getAndAdd(comments.size()) + 1;
+       Set<Long> taskIds = new HashSet<>();
+       for (Comment comment : comments) {
+           comment.setId(nextId++);
+           taskIds.add(comment.getTaskId());
+       }
+       Set<Long> existing = findAllById(taskIds).keySet();
+       for (Comment comment : comments) {
+           if (existing.contains(comment.getTaskId())) {
+               historyStore.appendComment(comment);
+           }
+       }
+   }
+
+   @Override
+   public void addComment(TaskManagement task, String comment, Long userId) {
+       withTaskLock(task.getId(), () -> {
+           if (!exists(task.getId())) {
+               return null;
+           }
+           Comment taskComment = new Comment(task.getId(), comment, userId);
+           taskComment.setId(commentIdCounter.incrementAndGet());
+           historyStore.appendComment(taskComment);
+           return taskComment;
+       });
+   }
+
+   @Override
+   public List<Activity> findActivities(Long taskId, int offset, int limit) {
+       return historyStore.activities(taskId, offset, limit);
+   }
+
+   @Override
+   public List<Comment> findComments(Long taskId, int offset, int limit) {
+       return historyStore.comments(taskId, offset, limit);
+   }
+
+   @Override
+   public int countActivities(Long taskId) {
+       return historyStore.countActivities(taskId);
+   }
+
+   @Override
+   public int countComments(Long taskId) {
+       return historyStore.countComments(taskId);
+   }
+
+   @Override
+   public long countTasks() {
+       return read(() -> taskCount);
+   }
+
+   @Override
+   public long countTasksByStatus(TaskStatus status) {
+       return status == null ? 0 : read(() -> statusCounts[status.ordinal()]);
+   }
+
+   @Override
+   public long countTasksByPriority(Priority priority) {
+       return priority == null ? 0 : read(() -> priorityCounts[priority.ordinal()]);
+   }
+
+   @Override
+   public Map<String, Integer> indexSizes() {
+       return read(() -> {
+           Map<String, Integer> sizes = new LinkedHashMap<>();
+           sizes.put("assignee", byAssignee.keyCount());
+           sizes.put("reference", byReference.keyCount());
+           return sizes;
+       });
+   }
+
+   @Override
+   public TaskStatistics statistics() {
+       return statistics;
+   }
+
+   @Override
+   public long activityCountPercentile(double percentile) {
+       return historyStore.activityLengthPercentile(percentile);
+   }
+
+   @Override
+   public long commentCountPercentile(double percentile) {
+       return historyStore.commentLengthPercentile(percentile);
+   }
+
+   private boolean exists(Long id) {
+       return id != null && read(() -> rows.exists(id));
+   }
+
+   // Stored rows after afterId that match, in id order, taking the read lock once per window of ids
+   private List<TaskManagement> scan(long afterId, int limit, int expected, LongPredicate matches) {
+       List<TaskManagement> found = new ArrayList<>(expected);
+       long maxId = idCounter.get();
+       for (long from = Math.max(afterId, 0) + 1; from <= maxId && found.size() < limit; from += SCAN_WINDOW) {
+           long start = from;
+           long end = Math.min(maxId, from + SCAN_WINDOW - 1);
+           read(() -> {
+               for (long id = start; id <= end && found.size() < limit; id++) {
+                   if (rows.exists(id) && matches.test(id)) {
+                       found.add(rows.read(id));
+                   }
+               }
+               return null;
+           });
+       }
+       return found;
+   }
+
+   private <T> T withTaskLock(Long id, Supplier<T> action) {
+       return taskLocks.withLock(id, action);
+   }
+
+   // Creation times are truncated to the millisecond precision of the createdAt column up front,
+   // so the caller's copy matches what later reads return
+   private void assignIds(List<TaskManagement> tasks) {
+       int newTasks = (int) tasks.stream().filter(task -> task.getId() == null).count();
+       if (newTasks == 0) {
+           return;
+       }
+       long nextId = idCounter.getAndAdd(newTasks) + 1;
+       LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+       for (TaskManagement task : tasks) {
+           if (task.getId() == null) {
+               task.setId(nextId++);
+               task.setCreatedAt(now);
+           }
+       }
+   }
+
+   // Caller holds the row write lock, and the task's stripe lock when the task already exists
+   private void store(TaskManagement task) {
+       long id = task.getId();
+       long currentVersion = rows.version(id);
+       if (currentVersion > 0) {
+           reindex(id, task);
+       } else {
+           index(id, task);
+           taskCount++;
+       }
+       rows.write(id, task, currentVersion + 1);
+       task.setVersion(currentVersion + 1);
+   }
+
+   private void index(long id, TaskManagement task) {
+       if (task.getAssigneeId() != null) {
+           byAssignee.add(task.getAssigneeId(), id);
+       }
+       if (task.getReferenceId() != null) {
+           byReference.add(task.getReferenceId(), id);
+       }
+       count(TaskRows.ordinal(task.getStatus()), TaskRows.ordinal(task.getPriority()), 1);
+       statistics.added(task.getAssigneeId(), task.getStatus(), task.getPriority());
+   }
+
+   // Moves the row between buckets only for the fields that changed
+   private void reindex(long id, TaskManagement task) {
+       long previousAssignee = rows.assigneeId(id);
+       long assignee = TaskRows.toColumn(task.getAssigneeId());
+       if (previousAssignee != assignee) {
+           if (previousAssignee != TaskRows.NULL) {
+               byAssignee.remove(previousAssignee, id);
+           }
+           if (assignee != TaskRows.NULL) {
+               byAssignee.add(assignee, id);
+           }
+       }
+       long previousReference = rows.referenceId(id);
+       long reference = TaskRows.toColumn(task.getReferenceId());
+       if (previousReference != reference) {
+           if (previousReference != TaskRows.NULL) {
+               byReference.remove(previousReference, id);
+           }
+           if (reference != TaskRows.NULL) {
+               byReference.add(reference, id);
+           }
+       }
+       byte previousStatus = rows.status(id);
+       byte previousPriority = rows.priority(id);
+       count(previousStatus, previousPriority, -1);
+       count(TaskRows.ordinal(task.getStatus()), TaskRows.ordinal(task.getPriority()), 1);
+       statistics.moved(TaskRows.fromColumn(previousAssignee), TaskRows.enumOf(STATUSES, previousStatus), TaskRows.enumOf(PRIORITIES, previousPriority),
+               task.getAssigneeId(), task.getStatus(), task.getPriority(), true);
+   }
+
+   private void count(byte status, byte priority, int delta) {
+       if (status != TaskRows.NULL_ORDINAL) {
+           statusCounts[status] += delta;
+       }
+       if (priority != TaskRows.NULL_ORDINAL) {
+           priorityCounts[priority] += delta;
+       }
+   }
+
+   private <T> T read(Supplier<T> action) {
+       long stamp = rowLock.readLock();
+       try {
+           return action.get();
+       } finally {
+           rowLock.unlockRead(stamp);
+       }
+   }
+
+   private void write(Runnable action) {
+       long stamp = rowLock.writeLock();
+       try {
+           action.run();
+       } finally {
+           rowLock.unlockWrite(stamp);
+       }
+   }
+
+   private static boolean isOpen(byte status) {
+       return status == TaskStatus.ASSIGNED.ordinal() || status == TaskStatus.STARTED.ordinal();
+   }
+
+   private static void checkVersion(Long id, long currentVersion, long expectedVersion) {
+       if (currentVersion != expectedVersion) {
+           throw new VersionConflictException("Task " + id + " is at version " + currentVersion + ", expected " + expectedVersion);
+       }
+   }
+}
@@ -1,61 +1,82 @@
 package com.railse.hiring.workforcemgmt.repository;
 
+import com.railse.hiring.workforcemgmt.common.concurrent.StripedLock;
+import com.railse.hiring.workforcemgmt.common.exception.VersionConflictException;
 import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
 import com.railse.hiring.workforcemgmt.model.TaskManagement;
 import com.railse.hiring.workforcemgmt.model.Activity;
 import com.railse.hiring.workforcemgmt.model.Comment;
 import com.railse.hiring.workforcemgmt.model.enums.Priority;
-import com.railse.hiring.workforcemgmt.model.enums.Task;
 import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 @Repository
+@ConditionalOnProperty(name = "task.store.type", havingValue = "memory", matchIfMissing = true)
 public class InMemoryTaskRepository implements TaskRepository {
 
    private final Map<Long, TaskManagement> taskStore = new ConcurrentHashMap<>();
+   private final TaskIndex taskIndex;
+   private final TaskHistoryStore historyStore;
+   private final StripedLock taskLocks = new StripedLock(1024);
+   // The counters hand out sequence numbers; ids are derived from them by toId
    private final AtomicLong idCounter = new AtomicLong(0);
    private final AtomicLong activityIdCounter = new AtomicLong(0);
    private final AtomicLong commentIdCounter = new AtomicLong(0);
+   private final int idOffset;
+   private final int idStride;
 
    public InMemoryTaskRepository() {
-       // Seed data
-       createSeedTask(101L, ReferenceType.ORDER, Task.CREATE_INVOICE, 1L, TaskStatus.ASSIGNED, Priority.HIGH);
-       createSeedTask(101L, ReferenceType.ORDER, Task.ARRANGE_PICKUP, 1L, TaskStatus.COMPLETED, Priority.HIGH);
-       createSeedTask(102L, ReferenceType.ORDER, Task.CREATE_INVOICE, 2L, TaskStatus.ASSIGNED, Priority.MEDIUM);
-       createSeedTask(201L, ReferenceType.ENTITY, Task.ASSIGN_CUSTOMER_TO_SALES_PERSON, 2L, TaskStatus.ASSIGNED, Priority.LOW);
-       createSeedTask(201L, ReferenceType.ENTITY, Task.ASSIGN_CUSTOMER_TO_SALES_PERSON, 3L, TaskStatus.ASSIGNED, Priority.LOW); // Duplicate for Bug #1
-       createSeedTask(103L, ReferenceType.ORDER, Task.COLLECT_PAYMENT, 1L, TaskStatus.CANCELLED, Priority.MEDIUM); // For Bug #2
-   }
-
-   private void createSeedTask(Long refId, ReferenceType refType, Task task, Long assigneeId, TaskStatus status, Priority priority) {
-       long newId = idCounter.incrementAndGet();
-       TaskManagement newTask = new TaskManagement();
-       newTask.setId(newId);
-       newTask.setReferenceId(refId);
-       newTask.setReferenceType(refType);
-       newTask.setTask(task);
-       newTask.setAssigneeId(assigneeId);
-       newTask.setStatus(status);
-       newTask.setPriority(priority);
-       newTask.setDescription("This is a seed task.");
-       newTask.setTaskDeadlineTime(System.currentTimeMillis() + 86400000); // 1 day from now
+       this(true);
+   }
+
+   protected InMemoryTaskRepository(boolean seed) {
+       this(0, 1, new TaskStatistics(), new LengthHistogram(), new LengthHistogram());
+       if (seed) {
+           seedTasks();
+       }
+   }
+
+   /**
+    * Unseeded partition {@code shard} of {@code shards} (see {@link ShardedTaskRepository}). Its task, activity and
+    * comment ids are shard + 1, shard + 1 + shards, ... so partitions never hand out the same id, and the
+    * statistics and history-length histograms are shared with the other partitions.
+    */
+   InMemoryTaskRepository(int shard, int shards, TaskStatistics statistics,
+                          LengthHistogram activityLengths, LengthHistogram commentLengths) {
+       this.idOffset = shard;
+       this.idStride = shards;
+       this.taskIndex = new TaskIndex(statistics);
+       this.historyStore = new TaskHistoryStore(activityLengths, commentLengths);
+   }
+
+   protected void seedTasks() {
+       TaskSeeds.tasks().forEach(this::createSeedTask);
+   }
+
+   private void createSeedTask(TaskManagement newTask) {
+       newTask.setId(toId(idCounter.incrementAndGet()));
        newTask.setCreatedAt(LocalDateTime.now());
-       newTask.setActivities(new ArrayList<>());
-       newTask.setComments(new ArrayList<>());
        
        // Add initial activity
-       addActivity(newTask, "Task created", assigneeId);
+       appendActivity(newTask, "Task created", newTask.getAssigneeId());
        
-       taskStore.put(newId, newTask);
+       store(newTask);
    }
 
    @Override
@@ -66,17 +87,129 @@ public class InMemoryTaskRepository implements TaskRepository {
    @Override
    public TaskManagement save(TaskManagement task) {
        if (task.getId() == null) {
-           task.setId(idCounter.incrementAndGet());
-           task.setCreatedAt(LocalDateTime.now());
-           if (task.getActivities() == null) {
-               task.setActivities(new ArrayList<>());
+           initialiseNewTask(task, toId(idCounter.incrementAndGet()), LocalDateTime.now());
+           store(task);
+           return task;
+       }
+       return withTaskLock(task.getId(), () -> {
+           store(task);
+           return task;
+       });
+   }
+
+   @Override
+   public Optional<TaskManagement> update(Long id, Consumer<TaskManagement> mutation) {
+       return update(id, null, mutation);
+   }
+
+   @Override
+   public Optional<TaskManagement> update(Long id, Long expectedVersion, Consumer<TaskManagement> mutation) {
+       return withTaskLock(id, () -> {
+           TaskManagement task = taskStore.get(id);
+           if (task == null) {
+               return Optional.empty();
+           }
+           if (expectedVersion != null) {
+               checkVersion(id, versionOf(task), expectedVersion);
            }
-           if (task.getComments() == null) {
-               task.setComments(new ArrayList<>());
+           mutation.accept(task);
+           save(task);
+           return Optional.of(task);
+       });
+   }
+
+   @Override
+   public Map<Long, TaskManagement> updateAll(Collection<Long> ids, Consumer<Map<Long, TaskManagement>> mutation) {
+       return withTaskLocks(ids, () -> {
+           Map<Long, TaskManagement> tasks = findAllById(ids);
+           mutation.accept(tasks);
+           saveAll(new ArrayList<>(tasks.values()));
+           return tasks;
+       });
+   }
+
+   // Per-task mutual exclusion for read-modify-write; stripes keep unrelated tasks from contending
+   protected <T> T withTaskLock(Long id, Supplier<T> action) {
+       return taskLocks.withLock(id, action);
+   }
+
+   protected <T> T withTaskLocks(Collection<Long> ids, Supplier<T> action) {
+       return taskLocks.withLocks(ids, action);
+   }
+
+   @Override
+   public List<TaskManagement> saveAll(List<TaskManagement> tasks) {
+       assignIds(tasks);
+       tasks.forEach(this::store);
+       return tasks;
+   }
+
+   // Reserves one contiguous id block for all new tasks in the batch with a single atomic step
+   protected void assignIds(List<TaskManagement> tasks) {
+       int newTasks = (int) tasks.stream().filter(task -> task.getId() == null).count();
+       if (newTasks == 0) {
+           return;
+       }
+       long nextSequence = idCounter.getAndAdd(newTasks) + 1;
+       LocalDateTime now = LocalDateTime.now();
+       for (TaskManagement task : tasks) {
+           if (task.getId() == null) {
+               initialiseNewTask(task, toId(nextSequence++), now);
+           }
+       }
+   }
+
+   private long toId(long sequence) {
+       return (sequence - 1) * idStride + idOffset + 1;
+   }
+
+   private long toSequence(long id) {
+       return (id - idOffset - 1) / idStride + 1;
+   }
+
+   private void initialiseNewTask(TaskManagement task, long id, LocalDateTime createdAt) {
+       task.setId(id);
+       task.setCreatedAt(createdAt);
+   }
+
+   @Override
+   public Map<Long, TaskManagement> findAllById(Collection<Long> ids) {
+       Map<Long, TaskManagement> found = new HashMap<>(ids.size() * 2);
+       for (Long id : ids) {
+           TaskManagement task = id == null ? null : taskStore.get(id);
+           if (task != null) {
+               found.put(id, task);
            }
        }
-       taskStore.put(task.getId(), task);
-       return task;
+       return found;
+   }
+
+   // Index under the store's per-key lock so concurrent saves of one task can't interleave bucket moves
+   private void store(TaskManagement task) {
+       taskStore.compute(task.getId(), (id, existing) -> {
+           long currentVersion = versionOf(existing);
+           task.setVersion(currentVersion + 1);
+           taskIndex.index(task);
+           return task;
+       });
+   }
+
+   protected static long versionOf(TaskManagement task) {
+       return task == null || task.getVersion() == null ? 0 : task.getVersion();
+   }
+
+   protected static void checkVersion(Long id, long currentVersion, long expectedVersion) {
+       if (currentVersion != expectedVersion) {
+           throw new VersionConflictException("Task " + id + " is at version " + currentVersion + ", expected " + expectedVersion);
+       }
+   }
+
+   // Recovered tasks keep the version they were saved with
+   private void storeRecovered(TaskManagement task) {
+       taskStore.compute(task.getId(), (id, existing) -> {
+           taskIndex.restore(task);
+           return task;
+       });
    }
 
    @Override
@@ -84,38 +217,204 @@ public class InMemoryTaskRepository implements TaskRepository {
        return List.copyOf(taskStore.values());
    }
 
+   @Override
+   public List<TaskManagement> findPage(long afterId, int limit) {
+       // Ids are handed out densely by idCounter, so walking the id sequence visits the store in order without copying it
+       List<TaskManagement> page = new ArrayList<>(limit);
+       long maxSequence = idCounter.get();
+       long firstSequence = Math.floorDiv(Math.max(afterId, 0) - idOffset - 1, idStride) + 2;
+       for (long sequence = firstSequence; sequence <= maxSequence && page.size() < limit; sequence++) {
+           TaskManagement task = taskStore.get(toId(sequence));
+           if (task != null) {
+               page.add(task);
+           }
+       }
+       return page;
+   }
+
    @Override
    public List<TaskManagement> findByReferenceIdAndReferenceType(Long referenceId, ReferenceType referenceType) {
-       return taskStore.values().stream()
-               .filter(task -> task.getReferenceId().equals(referenceId) && task.getReferenceType().equals(referenceType))
-               .collect(Collectors.toList());
+       return resolve(taskIndex.idsByReference(referenceId, referenceType),
+               task -> referenceId.equals(task.getReferenceId()) && referenceType == task.getReferenceType());
    }
 
    @Override
    public List<TaskManagement> findByAssigneeIdIn(List<Long> assigneeIds) {
-       return taskStore.values().stream()
-               .filter(task -> assigneeIds.contains(task.getAssigneeId()))
-               .collect(Collectors.toList());
+       Set<Long> distinctAssignees = new HashSet<>(assigneeIds);
+       List<TaskManagement> tasks = new ArrayList<>();
+       for (Long assigneeId : distinctAssignees) {
+           tasks.addAll(resolve(taskIndex.idsByAssignee(assigneeId), task -> assigneeId.equals(task.getAssigneeId())));
+       }
+       return tasks;
    }
 
    @Override
    public List<TaskManagement> findByPriority(Priority priority) {
-       return taskStore.values().stream()
-               .filter(task -> task.getPriority() == priority)
-               .collect(Collectors.toList());
+       return resolve(taskIndex.idsByPriority(priority), task -> task.getPriority() == priority);
+   }
+
+   @Override
+   public List<TaskManagement> findDailyTasks(List<Long> assigneeIds, long startMillis, long endMillis) {
+       Set<Long> distinctAssignees = new HashSet<>(assigneeIds);
+       List<TaskManagement> tasks = new ArrayList<>();
+       for (Long assigneeId : distinctAssignees) {
+           taskIndex.forEachDailyTaskId(assigneeId, startMillis, endMillis, id -> {
+               TaskManagement task = taskStore.get(id);
+               if (task != null && assigneeId.equals(task.getAssigneeId()) && task.getStatus() != TaskStatus.CANCELLED) {
+                   tasks.add(task);
+               }
+           });
+       }
+       return tasks;
+   }
+
+   // Index buckets are only moved on save, so re-check the field in case a caller mutated the task in between
+   private List<TaskManagement> resolve(Set<Long> ids, Predicate<TaskManagement> stillMatches) {
+       List<TaskManagement> tasks = new ArrayList<>(ids.size());
+       for (Long id : ids) {
+           TaskManagement task = taskStore.get(id);
+           if (task != null && stillMatches.test(task)) {
+               tasks.add(task);
+           }
+       }
+       return tasks;
    }
 
-   // Helper method to add activities
+   @Override
    public void addActivity(TaskManagement task, String description, Long userId) {
-       Activity activity = new Activity(task.getId(), description, userId);
-       activity.setId(activityIdCounter.incrementAndGet());
-       task.getActivities().add(activity);
+       withTaskLock(task.getId(), () -> appendActivity(task, description, userId));
    }
 
-   // Helper method to add comments
+   @Override
    public void addComment(TaskManagement task, String comment, Long userId) {
+       withTaskLock(task.getId(), () -> appendComment(task, comment, userId));
+   }
+
+   @Override
+   public void addActivities(List<Activity> activities) {
+       assignActivityIds(activities);
+       activities.forEach(this::attachActivity);
+   }
+
+   @Override
+   public void appendHistory(List<Activity> activities, List<Comment> comments) {
+       addActivities(activities);
+       assignCommentIds(comments);
+       comments.forEach(this::attachComment);
+   }
+
+   protected void assignActivityIds(List<Activity> activities) {
+       long nextSequence = activityIdCounter.getAndAdd(activities.size()) + 1;
+       for (Activity activity : activities) {
+           activity.setId(toId(nextSequence++));
+       }
+   }
+
+   protected void attachActivity(Activity activity) {
+       if (taskStore.containsKey(activity.getTaskId())) {
+           historyStore.appendActivity(activity);
+       }
+   }
+
+   protected void assignCommentIds(List<Comment> comments) {
+       long nextSequence = commentIdCounter.getAndAdd(comments.size()) + 1;
+       for (Comment comment : comments) {
+           comment.setId(toId(nextSequence++));
+       }
+   }
+
+   protected void attachComment(Comment comment) {
+       if (taskStore.containsKey(comment.getTaskId())) {
+           historyStore.appendComment(comment);
+       }
+   }
+
+   @Override
+   public List<Activity> findActivities(Long taskId, int offset, int limit) {
+       return historyStore.activities(taskId, offset, limit);
+   }
+
+   @Override
+   public List<Comment> findComments(Long taskId, int offset, int limit) {
+       return historyStore.comments(taskId, offset, limit);
+   }
+
+   @Override
+   public int countActivities(Long taskId) {
+       return historyStore.countActivities(taskId);
+   }
+
+   @Override
+   public int countComments(Long taskId) {
+       return historyStore.countComments(taskId);
+   }
+
+   @Override
+   public long countTasks() {
+       return taskStore.size();
+   }
+
+   @Override
+   public long countTasksByStatus(TaskStatus status) {
+       return taskIndex.countByStatus(status);
+   }
+
+   @Override
+   public long countTasksByPriority(Priority priority) {
+       return taskIndex.countByPriority(priority);
+   }
+
+   @Override
+   public Map<String, Integer> indexSizes() {
+       return taskIndex.sizes();
+   }
+
+   @Override
+   public TaskStatistics statistics() {
+       return taskIndex.statistics();
+   }
+
+   @Override
+   public long activityCountPercentile(double percentile) {
+       return historyStore.activityLengthPercentile(percentile);
+   }
+
+   @Override
+   public long commentCountPercentile(double percentile) {
+       return historyStore.commentLengthPercentile(percentile);
+   }
+
+   protected Activity appendActivity(TaskManagement task, String description, Long userId) {
+       Activity activity = new Activity(task.getId(), description, userId);
+       activity.setId(toId(activityIdCounter.incrementAndGet()));
+       historyStore.appendActivity(activity);
+       return activity;
+   }
+
+   protected Comment appendComment(TaskManagement task, String comment, Long userId) {
        Comment taskComment = new Comment(task.getId(), comment, userId);
-       taskComment.setId(commentIdCounter.incrementAndGet());
-       task.getComments().add(taskComment);
+       taskComment.setId(toId(commentIdCounter.incrementAndGet()));
+       historyStore.appendComment(taskComment);
+       return taskComment;
+   }
+
+   // Recovery hooks for durable subclasses: load recovered state and move the id counters past it
+   protected void restoreTask(TaskManagement task) {
+       idCounter.accumulateAndGet(toSequence(task.getId()), Math::max);
+       storeRecovered(task);
+   }
+
+   protected void restoreActivity(Activity activity) {
+       activityIdCounter.accumulateAndGet(toSequence(activity.getId()), Math::max);
+       attachActivity(activity);
+   }
+
+   protected void restoreComment(Comment comment) {
+       commentIdCounter.accumulateAndGet(toSequence(comment.getId()), Math::max);
+       attachComment(comment);
+   }
+
+   protected void forEachTask(Consumer<TaskManagement> action) {
+       taskStore.values().forEach(action);
    }
 }
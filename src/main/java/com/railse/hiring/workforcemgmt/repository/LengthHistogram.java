@@ -0,0 +1,46 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts history logs per power-of-two length bucket; bucket b holds lengths in [2^(b-1), 2^b). A log only changes
+ * bucket when its length crosses a power of two, so keeping the histogram current costs O(1) per append.
+ */
+public class LengthHistogram {
+   private final AtomicLongArray buckets = new AtomicLongArray(Integer.SIZE + 1);
+
+   public void moved(int from, int to) {
+       int fromBucket = bucketOf(from);
+       int toBucket = bucketOf(to);
+       if (fromBucket != toBucket) {
+           if (from > 0) {
+               buckets.decrementAndGet(fromBucket);
+           }
+           buckets.incrementAndGet(toBucket);
+       }
+   }
+
+   // Upper bound of the bucket holding the given percentile, or 0 when no log has entries
+   public long percentile(double percentile) {
+       long total = 0;
+       for (int b = 1; b < buckets.length(); b++) {
+           total += buckets.get(b);
+       }
+       if (total == 0) {
+           return 0;
+       }
+       long rank = Math.max(1, (long) Math.ceil(percentile * total));
+       long seen = 0;
+       for (int b = 1; b < buckets.length(); b++) {
+           seen += buckets.get(b);
+           if (seen >= rank) {
+               return (1L << b) - 1;
+           }
+       }
+       return (1L << (buckets.length() - 1)) - 1;
+   }
+
+   private static int bucketOf(int length) {
+       return Integer.SIZE - Integer.numberOfLeadingZeros(length);
+   }
+}
@@ -0,0 +1,33 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+import com.railse.hiring.workforcemgmt.repository.offheap.OffHeapTaskHistory;
+import com.railse.hiring.workforcemgmt.repository.offheap.OffHeapTaskRecords;
+import com.railse.hiring.workforcemgmt.repository.offheap.SlabAllocator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Variant of the compact store that keeps task records, descriptions and history in direct memory, out of
+ * reach of the garbage collector. The heap holds only the page and slab directories and the primitive
+ * assignee and reference indexes, so heap size and GC pauses stay flat as the store grows.
+ * Direct memory is bounded by {@code -XX:MaxDirectMemorySize} (the maximum heap size by default).
+ */
+@Repository
+@ConditionalOnProperty(name = "task.store.type", havingValue = "offheap")
+public class OffHeapTaskRepository extends CompactTaskRepository {
+
+   public OffHeapTaskRepository(@Value("${task.store.offheap.slab-chunk-mb:16}") int slabChunkMegabytes) {
+       super(new OffHeapTaskRecords(new SlabAllocator(slabChunkBytes(slabChunkMegabytes))),
+               new OffHeapTaskHistory(new SlabAllocator(slabChunkBytes(slabChunkMegabytes))));
+   }
+
+   // Each chunk is one direct buffer, so it has to fit in an int; the allocator also wants a power of two
+   static int slabChunkBytes(int megabytes) {
+       long bytes = megabytes * (1L << 20);
+       if (megabytes <= 0 || bytes > Integer.MAX_VALUE) {
+           throw new IllegalArgumentException("task.store.offheap.slab-chunk-mb must be between 1 and 1024: " + megabytes);
+       }
+       return (int) bytes;
+   }
+}
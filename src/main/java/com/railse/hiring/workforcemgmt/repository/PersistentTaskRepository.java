@@ -0,0 +1,307 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.Comment;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.repository.persistence.RecordCodec;
+import com.railse.hiring.workforcemgmt.repository.persistence.SnapshotFile;
+import com.railse.hiring.workforcemgmt.repository.persistence.WriteAheadLog;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Durable variant of the in-memory store. The maps inherited from {@link InMemoryTaskRepository} still serve
+ * every read; each save, activity and comment is first appended to a write-ahead log, and only applied in memory
+ * and acknowledged once its group commit is on disk. Snapshots are taken periodically and on shutdown, and
+ * startup recovers by loading the latest snapshot and replaying the log records written after it.
+ */
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "task.store.type", havingValue = "persistent")
+public class PersistentTaskRepository extends InMemoryTaskRepository {
+
+   private final Path dataDirectory;
+   private final WriteAheadLog writeAheadLog;
+   private final ScheduledExecutorService snapshotScheduler;
+   // Writers hold it shared from appending a record until it is applied in memory, and a snapshot holds it
+   // exclusively while rolling the log, so every record the snapshot covers is already in memory when it is read
+   private final ReentrantReadWriteLock applyGate = new ReentrantReadWriteLock();
+
+   public PersistentTaskRepository(@Value("${task.store.data-dir:data}") String dataDirectory,
+                                   @Value("${task.store.snapshot-interval-seconds:300}") long snapshotIntervalSeconds) throws IOException {
+       super(false);
+       this.dataDirectory = Path.of(dataDirectory);
+       Files.createDirectories(this.dataDirectory);
+
+       long started = System.nanoTime();
+       long lastLsn = recover();
+       log.info("Recovered task store from {} up to LSN {} in {} ms", this.dataDirectory.toAbsolutePath(), lastLsn,
+               TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+       this.writeAheadLog = new WriteAheadLog(this.dataDirectory, lastLsn);
+       if (lastLsn == 0 && findPage(0, 1).isEmpty()) {
+           seedTasks();
+           snapshot();
+       }
+
+       this.snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+           Thread thread = new Thread(runnable, "task-store-snapshot");
+           thread.setDaemon(true);
+           return thread;
+       });
+       snapshotScheduler.scheduleWithFixedDelay(this::snapshotQuietly, snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+   }
+
+   @Override
+   public TaskManagement save(TaskManagement task) {
+       if (task.getId() == null) {
+           assignIds(List.of(task));
+       }
+       return withTaskLock(task.getId(), () -> {
+           logThenStore(List.of(task));
+           return task;
+       });
+   }
+
+   // The mutation runs on a copy, so the stored task is only replaced once its record is durable
+   @Override
+   public Optional<TaskManagement> update(Long id, Long expectedVersion, Consumer<TaskManagement> mutation) {
+       return withTaskLock(id, () -> {
+           Optional<TaskManagement> found = findById(id);
+           if (found.isEmpty()) {
+               return found;
+           }
+           if (expectedVersion != null) {
+               checkVersion(id, versionOf(found.get()), expectedVersion);
+           }
+           TaskManagement task = copyOf(found.get());
+           mutation.accept(task);
+           logThenStore(List.of(task));
+           return Optional.of(task);
+       });
+   }
+
+   @Override
+   public Map<Long, TaskManagement> updateAll(Collection<Long> ids, Consumer<Map<Long, TaskManagement>> mutation) {
+       return withTaskLocks(ids, () -> {
+           Map<Long, TaskManagement> tasks = new HashMap<>();
+           findAllById(ids).forEach((id, task) -> tasks.put(id, copyOf(task)));
+           mutation.accept(tasks);
+           logThenStore(new ArrayList<>(tasks.values()));
+           return tasks;
+       });
+   }
+
+   // The whole batch shares group commits
+   @Override
+   public List<TaskManagement> saveAll(List<TaskManagement> tasks) {
+       assignIds(tasks);
+       return withTaskLocks(tasks.stream().map(TaskManagement::getId).toList(), () -> {
+           logThenStore(tasks);
+           return tasks;
+       });
+   }
+
+   @Override
+   public void addActivities(List<Activity> activities) {
+       List<Long> taskIds = activities.stream().map(Activity::getTaskId).toList();
+       withTaskLocks(taskIds, () -> {
+           logThenAttach(activities, List.of());
+           return null;
+       });
+   }
+
+   @Override
+   public void addActivity(TaskManagement task, String description, Long userId) {
+       withTaskLock(task.getId(), () -> {
+           logThenAttach(List.of(new Activity(task.getId(), description, userId)), List.of());
+           return null;
+       });
+   }
+
+   @Override
+   public void addComment(TaskManagement task, String comment, Long userId) {
+       withTaskLock(task.getId(), () -> {
+           logThenAttach(List.of(), List.of(new Comment(task.getId(), comment, userId)));
+           return null;
+       });
+   }
+
+   // Write-behind path: the pipeline is then the only history writer and hands entries over in order, so no task
+   // lock is taken
+   @Override
+   public void appendHistory(List<Activity> activities, List<Comment> comments) {
+       logThenAttach(activities, comments);
+   }
+
+   /**
+    * Rolls the log, writes every task to a new snapshot and drops the log segments the snapshot now covers.
+    * Records after the roll may also be reflected in the snapshot; replaying them again on recovery is idempotent.
+    */
+   public synchronized void snapshot() {
+       long started = System.nanoTime();
+       long lastLsn;
+       applyGate.writeLock().lock();
+       try {
+           lastLsn = writeAheadLog.roll();
+       } finally {
+           applyGate.writeLock().unlock();
+       }
+       try {
+           SnapshotFile.write(dataDirectory, lastLsn, action -> forEachTask(task -> withTaskLock(task.getId(), () -> {
+               action.accept(new SnapshotFile.Entry(task,
+                       findActivities(task.getId(), 0, Integer.MAX_VALUE),
+                       findComments(task.getId(), 0, Integer.MAX_VALUE)));
+               return null;
+           })));
+       } catch (IOException e) {
+           throw new UncheckedIOException(e);
+       }
+       writeAheadLog.deleteSegmentsUpTo(lastLsn);
+       log.info("Wrote task store snapshot up to LSN {} in {} ms", lastLsn, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+   }
+
+   @PreDestroy
+   public void close() {
+       snapshotScheduler.shutdown();
+       snapshot();
+       writeAheadLog.close();
+   }
+
+   /**
+    * Logs each task at the version it is about to be stored with and stores the tasks once every record is
+    * durable, so a failed append leaves memory as it was. Callers hold the locks of every task in the list, which
+    * keeps the log order of a task's records the same as the order applied in memory; locks are always taken
+    * before the gate, so applying never waits for a lock.
+    */
+   private void logThenStore(List<TaskManagement> tasks) {
+       durably(() -> {
+           List<CompletableFuture<Long>> pending = new ArrayList<>(tasks.size());
+           for (TaskManagement task : tasks) {
+               TaskManagement logged = copyOf(task);
+               logged.setVersion(versionOf(findById(task.getId()).orElse(null)) + 1);
+               pending.add(writeAheadLog.append(RecordCodec.TASK, RecordCodec.encodeTask(logged)));
+           }
+           return pending;
+       }, () -> tasks.forEach(super::save));
+   }
+
+   private void logThenAttach(List<Activity> activities, List<Comment> comments) {
+       assignActivityIds(activities);
+       assignCommentIds(comments);
+       durably(() -> {
+           List<CompletableFuture<Long>> pending = new ArrayList<>(activities.size() + comments.size());
+           for (Activity activity : activities) {
+               pending.add(writeAheadLog.append(RecordCodec.ACTIVITY, RecordCodec.encodeActivity(activity)));
+           }
+           for (Comment comment : comments) {
+               pending.add(writeAheadLog.append(RecordCodec.COMMENT, RecordCodec.encodeComment(comment)));
+           }
+           return pending;
+       }, () -> {
+           activities.forEach(this::attachActivity);
+           comments.forEach(this::attachComment);
+       });
+   }
+
+   // Appends, waits for the records to be durable, then applies them, all inside the gate (see applyGate)
+   private void durably(Supplier<List<CompletableFuture<Long>>> append, Runnable apply) {
+       applyGate.readLock().lock();
+       try {
+           List<CompletableFuture<Long>> pending = append.get();
+           CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).join();
+           apply.run();
+       } finally {
+           applyGate.readLock().unlock();
+       }
+   }
+
+   private static TaskManagement copyOf(TaskManagement task) {
+       TaskManagement copy = new TaskManagement();
+       copy.setId(task.getId());
+       copy.setReferenceId(task.getReferenceId());
+       copy.setReferenceType(task.getReferenceType());
+       copy.setTask(task.getTask());
+       copy.setDescription(task.getDescription());
+       copy.setStatus(task.getStatus());
+       copy.setAssigneeId(task.getAssigneeId());
+       copy.setTaskDeadlineTime(task.getTaskDeadlineTime());
+       copy.setPriority(task.getPriority());
+       copy.setCreatedAt(task.getCreatedAt());
+       copy.setVersion(task.getVersion());
+       return copy;
+   }
+
+   private void snapshotQuietly() {
+       try {
+           snapshot();
+       } catch (RuntimeException e) {
+           log.error("Task store snapshot failed", e);
+       }
+   }
+
+   private long recover() throws IOException {
+       Set<Long> activityIds = new HashSet<>();
+       Set<Long> commentIds = new HashSet<>();
+       long snapshotLsn = SnapshotFile.read(dataDirectory, new SnapshotFile.Loader() {
+           @Override
+           public void task(TaskManagement task) {
+               restoreTask(task);
+           }
+
+           @Override
+           public void activity(Activity activity) {
+               activityIds.add(activity.getId());
+               restoreActivity(activity);
+           }
+
+           @Override
+           public void comment(Comment comment) {
+               commentIds.add(comment.getId());
+               restoreComment(comment);
+           }
+       });
+       return WriteAheadLog.replay(dataDirectory, snapshotLsn, entry -> {
+           switch (entry.type()) {
+               case RecordCodec.TASK -> restoreTask(RecordCodec.readTask(entry.payload()));
+               case RecordCodec.TASK_V1 -> restoreTask(RecordCodec.readTaskV1(entry.payload()));
+               case RecordCodec.ACTIVITY -> {
+                   Activity activity = RecordCodec.readActivity(entry.payload());
+                   if (activityIds.add(activity.getId())) {
+                       restoreActivity(activity);
+                   }
+               }
+               case RecordCodec.COMMENT -> {
+                   Comment comment = RecordCodec.readComment(entry.payload());
+                   if (commentIds.add(comment.getId())) {
+                       restoreComment(comment);
+                   }
+               }
+               default -> log.warn("Skipping unknown log record type {} at LSN {}", entry.type(), entry.lsn());
+           }
+       });
+   }
+}
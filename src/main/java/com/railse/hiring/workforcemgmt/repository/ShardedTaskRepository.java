@@ -0,0 +1,335 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.Comment;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * In-memory store split into independent partitions, each an {@link InMemoryTaskRepository} with its own map,
+ * indexes, locks and id counters, so writers on different partitions share no hot field. New tasks go to the
+ * partition of their reference, which keeps reference lookups and reassignments on one partition. Ids are
+ * interleaved ({@code (id - 1) % shards} is the partition), so an id is routed without a lookup; they are unique
+ * but not dense across the store. Queries by assignee or priority fan out to every partition, in parallel on the
+ * common pool when there is enough work to split, and the results are concatenated.
+ * <p>
+ * Statistics and history-length histograms are shared by the partitions, so they read the same as a single store.
+ */
+@Repository
+@ConditionalOnProperty(name = "task.store.type", havingValue = "sharded")
+public class ShardedTaskRepository implements TaskRepository {
+
+   // Below this many assignees a per-partition lookup is a few hash probes, cheaper than handing it to another thread
+   private static final int PARALLEL_ASSIGNEES = 16;
+
+   private final InMemoryTaskRepository[] shards;
+   private final TaskStatistics statistics = new TaskStatistics();
+   private final LengthHistogram activityLengths = new LengthHistogram();
+   private final LengthHistogram commentLengths = new LengthHistogram();
+
+   @Autowired
+   public ShardedTaskRepository(@Value("${task.store.shards:0}") int shards) {
+       this(shards, true);
+   }
+
+   // shards <= 0 means one partition per available processor
+   public ShardedTaskRepository(int shards, boolean seed) {
+       int count = shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+       this.shards = new InMemoryTaskRepository[count];
+       for (int shard = 0; shard < count; shard++) {
+           this.shards[shard] = new InMemoryTaskRepository(shard, count, statistics, activityLengths, commentLengths);
+       }
+       if (seed) {
+           for (TaskManagement task : TaskSeeds.tasks()) {
+               save(task);
+               addActivity(task, "Task created", task.getAssigneeId());
+           }
+       }
+   }
+
+   public int shardCount() {
+       return shards.length;
+   }
+
+   @Override
+   public Optional<TaskManagement> findById(Long id) {
+       return id == null ? Optional.empty() : shardOf(id).findById(id);
+   }
+
+   @Override
+   public TaskManagement save(TaskManagement task) {
+       return shardFor(task).save(task);
+   }
+
+   @Override
+   public List<TaskManagement> saveAll(List<TaskManagement> tasks) {
+       Map<InMemoryTaskRepository, List<TaskManagement>> byShard = new LinkedHashMap<>();
+       for (TaskManagement task : tasks) {
+           byShard.computeIfAbsent(shardFor(task), shard -> new ArrayList<>()).add(task);
+       }
+       byShard.forEach(InMemoryTaskRepository::saveAll);
+       return tasks;
+   }
+
+   @Override
+   public Map<Long, TaskManagement> findAllById(Collection<Long> ids) {
+       Map<Long, TaskManagement> found = new HashMap<>(ids.size() * 2);
+       groupByShard(ids).forEach((shard, shardIds) -> found.putAll(shards[shard].findAllById(shardIds)));
+       return found;
+   }
+
+   @Override
+   public Optional<TaskManagement> update(Long id, Consumer<TaskManagement> mutation) {
+       return shardOf(id).update(id, mutation);
+   }
+
+   @Override
+   public Optional<TaskManagement> update(Long id, Long expectedVersion, Consumer<TaskManagement> mutation) {
+       return shardOf(id).update(id, expectedVersion, mutation);
+   }
+
+   // Takes each involved partition's task locks in partition order, runs the mutation once over all found tasks
+   // and saves them partition by partition on the way out; a throwing mutation saves nothing
+   @Override
+   public Map<Long, TaskManagement> updateAll(Collection<Long> ids, Consumer<Map<Long, TaskManagement>> mutation) {
+       List<Map.Entry<Integer, List<Long>>> involved = new ArrayList<>(groupByShard(ids).entrySet());
+       involved.sort(Map.Entry.comparingByKey());
+       Map<Long, TaskManagement> tasks = new HashMap<>(ids.size() * 2);
+       updateAll(involved, 0, tasks, mutation);
+       return tasks;
+   }
+
+   private void updateAll(List<Map.Entry<Integer, List<Long>>> involved, int next, Map<Long, TaskManagement> tasks,
+                          Consumer<Map<Long, TaskManagement>> mutation) {
+       if (next == involved.size()) {
+           mutation.accept(tasks);
+           return;
+       }
+       Map.Entry<Integer, List<Long>> entry = involved.get(next);
+       shards[entry.getKey()].updateAll(entry.getValue(), shardTasks -> {
+           tasks.putAll(shardTasks);
+           updateAll(involved, next + 1, tasks, mutation);
+       });
+   }
+
+   @Override
+   public List<TaskManagement> findAll() {
+       List<TaskManagement> tasks = new ArrayList<>();
+       for (InMemoryTaskRepository shard : shards) {
+           tasks.addAll(shard.findAll());
+       }
+       return tasks;
+   }
+
+   // Each partition returns its own first page after afterId; the lowest ids across them form the merged page
+   @Override
+   public List<TaskManagement> findPage(long afterId, int limit) {
+       List<TaskManagement> candidates = fanOut(shard -> shard.findPage(afterId, limit), true);
+       candidates.sort(Comparator.comparing(TaskManagement::getId));
+       return new ArrayList<>(candidates.subList(0, Math.min(limit, candidates.size())));
+   }
+
+   @Override
+   public List<TaskManagement> findByReferenceIdAndReferenceType(Long referenceId, ReferenceType referenceType) {
+       return shards[shardOf(referenceId, referenceType)].findByReferenceIdAndReferenceType(referenceId, referenceType);
+   }
+
+   @Override
+   public List<TaskManagement> findByAssigneeIdIn(List<Long> assigneeIds) {
+       return fanOut(shard -> shard.findByAssigneeIdIn(assigneeIds), assigneeIds.size() >= PARALLEL_ASSIGNEES);
+   }
+
+   @Override
+   public List<TaskManagement> findByPriority(Priority priority) {
+       return fanOut(shard -> shard.findByPriority(priority), true);
+   }
+
+   @Override
+   public List<TaskManagement> findDailyTasks(List<Long> assigneeIds, long startMillis, long endMillis) {
+       return fanOut(shard -> shard.findDailyTasks(assigneeIds, startMillis, endMillis), assigneeIds.size() >= PARALLEL_ASSIGNEES);
+   }
+
+   @Override
+   public void addActivity(TaskManagement task, String description, Long userId) {
+       shardOf(task.getId()).addActivity(task, description, userId);
+   }
+
+   @Override
+   public void addActivities(List<Activity> activities) {
+       Map<InMemoryTaskRepository, List<Activity>> byShard = new LinkedHashMap<>();
+       for (Activity activity : activities) {
+           byShard.computeIfAbsent(shardOf(activity.getTaskId()), shard -> new ArrayList<>()).add(activity);
+       }
+       byShard.forEach(InMemoryTaskRepository::addActivities);
+   }
+
+   @Override
+   public void appendHistory(List<Activity> activities, List<Comment> comments) {
+       Map<Integer, List<Activity>> activitiesByShard = new HashMap<>();
+       for (Activity activity : activities) {
+           activitiesByShard.computeIfAbsent(shardIndexOf(activity.getTaskId()), shard -> new ArrayList<>()).add(activity);
+       }
+       Map<Integer, List<Comment>> commentsByShard = new HashMap<>();
+       for (Comment comment : comments) {
+           commentsByShard.computeIfAbsent(shardIndexOf(comment.getTaskId()), shard -> new ArrayList<>()).add(comment);
+       }
+       for (int shard = 0; shard < shards.length; shard++) {
+           List<Activity> shardActivities = activitiesByShard.getOrDefault(shard, List.of());
+           List<Comment> shardComments = commentsByShard.getOrDefault(shard, List.of());
+           if (!shardActivities.isEmpty() || !shardComments.isEmpty()) {
+               shards[shard].appendHistory(shardActivities, shardComments);
+           }
+       }
+   }
+
+   @Override
+   public void addComment(TaskManagement task, String comment, Long userId) {
+       shardOf(task.getId()).addComment(task, comment, userId);
+   }
+
+   @Override
+   public List<Activity> findActivities(Long taskId, int offset, int limit) {
+       return shardOf(taskId).findActivities(taskId, offset, limit);
+   }
+
+   @Override
+   public List<Comment> findComments(Long taskId, int offset, int limit) {
+       return shardOf(taskId).findComments(taskId, offset, limit);
+   }
+
+   @Override
+   public int countActivities(Long taskId) {
+       return shardOf(taskId).countActivities(taskId);
+   }
+
+   @Override
+   public int countComments(Long taskId) {
+       return shardOf(taskId).countComments(taskId);
+   }
+
+   @Override
+   public long countTasks() {
+       long count = 0;
+       for (InMemoryTaskRepository shard : shards) {
+           count += shard.countTasks();
+       }
+       return count;
+   }
+
+   @Override
+   public long countTasksByStatus(TaskStatus status) {
+       long count = 0;
+       for (InMemoryTaskRepository shard : shards) {
+           count += shard.countTasksByStatus(status);
+       }
+       return count;
+   }
+
+   @Override
+   public long countTasksByPriority(Priority priority) {
+       long count = 0;
+       for (InMemoryTaskRepository shard : shards) {
+           count += shard.countTasksByPriority(priority);
+       }
+       return count;
+   }
+
+   // Keys of one index can sit in several partitions (e.g. an assignee's tasks), so these are summed key counts
+   @Override
+   public Map<String, Integer> indexSizes() {
+       Map<String, Integer> sizes = new LinkedHashMap<>();
+       for (InMemoryTaskRepository shard : shards) {
+           shard.indexSizes().forEach((index, size) -> sizes.merge(index, size, Integer::sum));
+       }
+       return sizes;
+   }
+
+   @Override
+   public TaskStatistics statistics() {
+       return statistics;
+   }
+
+   @Override
+   public long activityCountPercentile(double percentile) {
+       return activityLengths.percentile(percentile);
+   }
+
+   @Override
+   public long commentCountPercentile(double percentile) {
+       return commentLengths.percentile(percentile);
+   }
+
+   // Runs the query on every partition and concatenates the results; in parallel, the caller takes partition 0
+   private <T> List<T> fanOut(Function<InMemoryTaskRepository, List<T>> query, boolean parallel) {
+       List<T> results = new ArrayList<>();
+       if (!parallel || shards.length == 1) {
+           for (InMemoryTaskRepository shard : shards) {
+               results.addAll(query.apply(shard));
+           }
+           return results;
+       }
+       List<CompletableFuture<List<T>>> others = new ArrayList<>(shards.length - 1);
+       for (int shard = 1; shard < shards.length; shard++) {
+           InMemoryTaskRepository repository = shards[shard];
+           others.add(CompletableFuture.supplyAsync(() -> query.apply(repository), ForkJoinPool.commonPool()));
+       }
+       results.addAll(query.apply(shards[0]));
+       for (CompletableFuture<List<T>> other : others) {
+           results.addAll(other.join());
+       }
+       return results;
+   }
+
+   private Map<Integer, List<Long>> groupByShard(Collection<Long> ids) {
+       Map<Integer, List<Long>> byShard = new HashMap<>();
+       for (Long id : ids) {
+           if (id != null) {
+               byShard.computeIfAbsent(shardIndexOf(id), shard -> new ArrayList<>()).add(id);
+           }
+       }
+       return byShard;
+   }
+
+   // New tasks go to their reference's partition; stored tasks stay where their id puts them
+   private InMemoryTaskRepository shardFor(TaskManagement task) {
+       return task.getId() == null
+               ? shards[shardOf(task.getReferenceId(), task.getReferenceType())]
+               : shardOf(task.getId());
+   }
+
+   private InMemoryTaskRepository shardOf(Long id) {
+       return shards[shardIndexOf(id)];
+   }
+
+   private int shardIndexOf(long id) {
+       return (int) Math.floorMod(id - 1, (long) shards.length);
+   }
+
+   private int shardOf(Long referenceId, ReferenceType referenceType) {
+       if (referenceId == null || referenceType == null) {
+           return ThreadLocalRandom.current().nextInt(shards.length);
+       }
+       int hash = Long.hashCode(referenceId) * 31 + referenceType.ordinal();
+       return Math.floorMod(hash ^ (hash >>> 16), shards.length);
+   }
+}
@@ -0,0 +1,19 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.Comment;
+
+import java.util.List;
+
+// Append-only per-task activity and comment history; implementations are safe for concurrent use
+public interface TaskHistory {
+   void appendActivity(Activity activity);
+   void appendComment(Comment comment);
+   // Approximate percentile (power-of-two resolution) of history length over tasks that have any entries
+   long activityLengthPercentile(double percentile);
+   long commentLengthPercentile(double percentile);
+   int countActivities(Long taskId);
+   int countComments(Long taskId);
+   List<Activity> activities(Long taskId, int offset, int limit);
+   List<Comment> comments(Long taskId, int offset, int limit);
+}
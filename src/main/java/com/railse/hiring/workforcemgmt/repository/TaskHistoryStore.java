@@ -0,0 +1,127 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.Comment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only activity and comment history, kept apart from the task records and keyed by task id.
+ * Each task's entries live in fixed-size segments, so appends never copy earlier entries and readers
+ * can page through history without locking.
+ */
+public class TaskHistoryStore implements TaskHistory {
+
+   private static final int SEGMENT_SIZE = 32;
+
+   private final Map<Long, EventLog<Activity>> activities = new ConcurrentHashMap<>();
+   private final Map<Long, EventLog<Comment>> comments = new ConcurrentHashMap<>();
+   private final LengthHistogram activityLengths;
+   private final LengthHistogram commentLengths;
+
+   public TaskHistoryStore() {
+       this(new LengthHistogram(), new LengthHistogram());
+   }
+
+   // Histograms may be shared by several stores, e.g. the partitions of a sharded store
+   public TaskHistoryStore(LengthHistogram activityLengths, LengthHistogram commentLengths) {
+       this.activityLengths = activityLengths;
+       this.commentLengths = commentLengths;
+   }
+
+   @Override
+   public void appendActivity(Activity activity) {
+       activities.computeIfAbsent(activity.getTaskId(), id -> new EventLog<>(activityLengths)).append(activity);
+   }
+
+   @Override
+   public void appendComment(Comment comment) {
+       comments.computeIfAbsent(comment.getTaskId(), id -> new EventLog<>(commentLengths)).append(comment);
+   }
+
+   @Override
+   public long activityLengthPercentile(double percentile) {
+       return activityLengths.percentile(percentile);
+   }
+
+   @Override
+   public long commentLengthPercentile(double percentile) {
+       return commentLengths.percentile(percentile);
+   }
+
+   @Override
+   public int countActivities(Long taskId) {
+       EventLog<Activity> log = activities.get(taskId);
+       return log == null ? 0 : log.size();
+   }
+
+   @Override
+   public int countComments(Long taskId) {
+       EventLog<Comment> log = comments.get(taskId);
+       return log == null ? 0 : log.size();
+   }
+
+   @Override
+   public List<Activity> activities(Long taskId, int offset, int limit) {
+       EventLog<Activity> log = activities.get(taskId);
+       return log == null ? Collections.emptyList() : log.range(offset, limit);
+   }
+
+   @Override
+   public List<Comment> comments(Long taskId, int offset, int limit) {
+       EventLog<Comment> log = comments.get(taskId);
+       return log == null ? Collections.emptyList() : log.range(offset, limit);
+   }
+
+   /**
+    * Single-writer-per-log, many-reader append-only list. An append stores the entry (and, when a segment
+    * fills up, publishes a grown segment directory) before bumping the volatile size, so a reader that sees
+    * a size also sees every entry below it.
+    */
+   private static final class EventLog<E> {
+       private final LengthHistogram lengths;
+       private volatile Object[][] segments = new Object[1][];
+       private volatile int size;
+
+       EventLog(LengthHistogram lengths) {
+           this.lengths = lengths;
+       }
+
+       synchronized void append(E entry) {
+           int index = size;
+           int segment = index / SEGMENT_SIZE;
+           Object[][] current = segments;
+           if (segment == current.length) {
+               current = Arrays.copyOf(current, current.length * 2);
+           }
+           if (current[segment] == null) {
+               current[segment] = new Object[SEGMENT_SIZE];
+           }
+           current[segment][index % SEGMENT_SIZE] = entry;
+           segments = current;
+           size = index + 1;
+           lengths.moved(index, index + 1);
+       }
+
+       int size() {
+           return size;
+       }
+
+       @SuppressWarnings("unchecked")
+       List<E> range(int offset, int limit) {
+           int from = Math.max(offset, 0);
+           int end = (int) Math.min(size, (long) from + Math.max(limit, 0));
+           Object[][] current = segments;
+           List<E> entries = new ArrayList<>(Math.max(end - from, 0));
+           for (int i = from; i < end; i++) {
+               entries.add((E) current[i / SEGMENT_SIZE][i % SEGMENT_SIZE]);
+           }
+           return entries;
+       }
+   }
+}
@@ -0,0 +1,267 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Secondary indexes (assignee, reference, priority -> task ids, plus per-assignee creation timelines) and the
+ * {@link TaskStatistics} counters, kept in step with the task store. {@link #index(TaskManagement)} must be called
+ * while holding exclusive access to the task id, e.g. from inside {@code compute} on the store, so a task moves
+ * between buckets atomically.
+ */
+public class TaskIndex {
+
+   private final Map<Long, Set<Long>> byAssignee = new ConcurrentHashMap<>();
+   private final Map<ReferenceKey, Set<Long>> byReference = new ConcurrentHashMap<>();
+   private final Map<Priority, Set<Long>> byPriority = new EnumMap<>(Priority.class);
+   private final Map<Long, AssigneeTimeline> timelines = new ConcurrentHashMap<>();
+   private final Map<Long, IndexedFields> indexed = new ConcurrentHashMap<>();
+   private final Map<TaskStatus, LongAdder> statusCounts = new EnumMap<>(TaskStatus.class);
+   private final TaskStatistics statistics;
+
+   public TaskIndex() {
+       this(new TaskStatistics());
+   }
+
+   // Counters may be shared by several indexes, e.g. the partitions of a sharded store
+   public TaskIndex(TaskStatistics statistics) {
+       this.statistics = statistics;
+       for (Priority priority : Priority.values()) {
+           byPriority.put(priority, ConcurrentHashMap.newKeySet());
+       }
+       for (TaskStatus status : TaskStatus.values()) {
+           statusCounts.put(status, new LongAdder());
+       }
+   }
+
+   public void index(TaskManagement task) {
+       index(task, true);
+   }
+
+   // For tasks replayed during recovery: indexed the same way, but status changes are not counted as completions today
+   public void restore(TaskManagement task) {
+       index(task, false);
+   }
+
+   public TaskStatistics statistics() {
+       return statistics;
+   }
+
+   private void index(TaskManagement task, boolean live) {
+       Long id = task.getId();
+       IndexedFields previous = indexed.get(id);
+       IndexedFields current = IndexedFields.of(task, previous);
+       indexed.put(id, current);
+       if (previous == null) {
+           addTo(byAssignee, current.assigneeId(), id);
+           addTo(byReference, current.reference(), id);
+           addToPriority(current.priority(), id);
+           updateTimeline(current, id, AssigneeTimeline::add);
+           countStatus(current.status(), 1);
+           statistics.added(current.assigneeId(), current.status(), current.priority());
+           return;
+       }
+       if (!Objects.equals(previous.assigneeId(), current.assigneeId())) {
+           addTo(byAssignee, current.assigneeId(), id);
+           removeFrom(byAssignee, previous.assigneeId(), id);
+       }
+       if (!Objects.equals(previous.reference(), current.reference())) {
+           addTo(byReference, current.reference(), id);
+           removeFrom(byReference, previous.reference(), id);
+       }
+       if (previous.priority() != current.priority()) {
+           addToPriority(current.priority(), id);
+           if (previous.priority() != null) {
+               byPriority.get(previous.priority()).remove(id);
+           }
+       }
+       if (previous.status() != current.status()) {
+           countStatus(previous.status(), -1);
+           countStatus(current.status(), 1);
+       }
+       if (!previous.sameTimelinePosition(current)) {
+           updateTimeline(previous, id, AssigneeTimeline::remove);
+           updateTimeline(current, id, AssigneeTimeline::add);
+       }
+       statistics.moved(previous.assigneeId(), previous.status(), previous.priority(),
+               current.assigneeId(), current.status(), current.priority(), live);
+   }
+
+   private void updateTimeline(IndexedFields fields, Long id, TimelineUpdate update) {
+       if (fields.assigneeId() == null || fields.createdAtMillis() == null) {
+           return;
+       }
+       AssigneeTimeline timeline = timelines.computeIfAbsent(fields.assigneeId(), k -> new AssigneeTimeline());
+       update.apply(timeline, new TimelineEntry(fields.createdAtMillis(), id), fields.status());
+   }
+
+   public Set<Long> idsByAssignee(Long assigneeId) {
+       return view(byAssignee.get(assigneeId));
+   }
+
+   public Set<Long> idsByReference(Long referenceId, ReferenceType referenceType) {
+       return view(byReference.get(new ReferenceKey(referenceType, referenceId)));
+   }
+
+   public Set<Long> idsByPriority(Priority priority) {
+       return priority == null ? Collections.emptySet() : view(byPriority.get(priority));
+   }
+
+   /**
+    * Ids of the assignee's tasks that were created inside [startMillis, endMillis] and are not cancelled,
+    * plus those created before startMillis that are still ASSIGNED or STARTED. Both halves are range seeks.
+    */
+   public void forEachDailyTaskId(Long assigneeId, long startMillis, long endMillis, Consumer<Long> action) {
+       AssigneeTimeline timeline = timelines.get(assigneeId);
+       if (timeline == null) {
+           return;
+       }
+       timeline.open.headSet(TimelineEntry.first(startMillis)).forEach(entry -> action.accept(entry.taskId()));
+       if (startMillis <= endMillis) {
+           timeline.active.subSet(TimelineEntry.first(startMillis), true, TimelineEntry.last(endMillis), true)
+                   .forEach(entry -> action.accept(entry.taskId()));
+       }
+   }
+
+   public long countByStatus(TaskStatus status) {
+       return status == null ? 0 : statusCounts.get(status).sum();
+   }
+
+   public long countByPriority(Priority priority) {
+       return idsByPriority(priority).size();
+   }
+
+   // Number of distinct keys held by each index
+   public Map<String, Integer> sizes() {
+       Map<String, Integer> sizes = new LinkedHashMap<>();
+       sizes.put("assignee", byAssignee.size());
+       sizes.put("reference", byReference.size());
+       sizes.put("assignee_timeline", timelines.size());
+       sizes.put("indexed_task", indexed.size());
+       return sizes;
+   }
+
+   private void countStatus(TaskStatus status, int delta) {
+       if (status != null) {
+           statusCounts.get(status).add(delta);
+       }
+   }
+
+   private void addToPriority(Priority priority, Long id) {
+       if (priority != null) {
+           byPriority.get(priority).add(id);
+       }
+   }
+
+   private static <K> void addTo(Map<K, Set<Long>> buckets, K key, Long id) {
+       if (key == null) {
+           return;
+       }
+       buckets.compute(key, (k, ids) -> {
+           Set<Long> bucket = ids != null ? ids : ConcurrentHashMap.newKeySet();
+           bucket.add(id);
+           return bucket;
+       });
+   }
+
+   private static <K> void removeFrom(Map<K, Set<Long>> buckets, K key, Long id) {
+       if (key == null) {
+           return;
+       }
+       buckets.computeIfPresent(key, (k, ids) -> {
+           ids.remove(id);
+           return ids.isEmpty() ? null : ids;
+       });
+   }
+
+   private static Set<Long> view(Set<Long> ids) {
+       return ids == null ? Collections.emptySet() : Collections.unmodifiableSet(ids);
+   }
+
+   record ReferenceKey(ReferenceType referenceType, Long referenceId) {
+   }
+
+   static boolean isOpen(TaskStatus status) {
+       return status == TaskStatus.ASSIGNED || status == TaskStatus.STARTED;
+   }
+
+   private interface TimelineUpdate {
+       void apply(AssigneeTimeline timeline, TimelineEntry entry, TaskStatus status);
+   }
+
+   private static final class AssigneeTimeline {
+       // Non-cancelled tasks ordered by creation time
+       private final NavigableSet<TimelineEntry> active = new ConcurrentSkipListSet<>();
+       // ASSIGNED/STARTED tasks ordered by creation time
+       private final NavigableSet<TimelineEntry> open = new ConcurrentSkipListSet<>();
+
+       void add(TimelineEntry entry, TaskStatus status) {
+           if (status != TaskStatus.CANCELLED) {
+               active.add(entry);
+           }
+           if (isOpen(status)) {
+               open.add(entry);
+           }
+       }
+
+       void remove(TimelineEntry entry, TaskStatus status) {
+           active.remove(entry);
+           open.remove(entry);
+       }
+   }
+
+   private record TimelineEntry(long createdAtMillis, long taskId) implements Comparable<TimelineEntry> {
+       static TimelineEntry first(long createdAtMillis) {
+           return new TimelineEntry(createdAtMillis, Long.MIN_VALUE);
+       }
+
+       static TimelineEntry last(long createdAtMillis) {
+           return new TimelineEntry(createdAtMillis, Long.MAX_VALUE);
+       }
+
+       @Override
+       public int compareTo(TimelineEntry other) {
+           int byTime = Long.compare(createdAtMillis, other.createdAtMillis);
+           return byTime != 0 ? byTime : Long.compare(taskId, other.taskId);
+       }
+   }
+
+   private record IndexedFields(Long assigneeId, ReferenceKey reference, Priority priority, TaskStatus status,
+                                LocalDateTime createdAt, Long createdAtMillis) {
+       static IndexedFields of(TaskManagement task, IndexedFields previous) {
+           ReferenceKey reference = task.getReferenceId() == null || task.getReferenceType() == null
+                   ? null
+                   : new ReferenceKey(task.getReferenceType(), task.getReferenceId());
+           LocalDateTime createdAt = task.getCreatedAt();
+           Long createdAtMillis;
+           if (previous != null && Objects.equals(previous.createdAt(), createdAt)) {
+               createdAtMillis = previous.createdAtMillis();
+           } else {
+               createdAtMillis = createdAt == null ? null : createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+           }
+           return new IndexedFields(task.getAssigneeId(), reference, task.getPriority(), task.getStatus(), createdAt, createdAtMillis);
+       }
+
+       boolean sameTimelinePosition(IndexedFields other) {
+           return Objects.equals(assigneeId, other.assigneeId)
+                   && Objects.equals(createdAtMillis, other.createdAtMillis)
+                   && status == other.status;
+       }
+   }
+}
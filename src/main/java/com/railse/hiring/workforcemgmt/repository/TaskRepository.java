@@ -1,17 +1,57 @@
 package com.railse.hiring.workforcemgmt.repository;
 
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.Comment;
 import com.railse.hiring.workforcemgmt.model.TaskManagement;
 import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
 import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface TaskRepository {
    Optional<TaskManagement> findById(Long id);
    TaskManagement save(TaskManagement task);
+   // New tasks in the batch get one contiguous id block
+   List<TaskManagement> saveAll(List<TaskManagement> tasks);
+   // Found tasks keyed by id; ids with no task are absent from the map
+   Map<Long, TaskManagement> findAllById(Collection<Long> ids);
+   // Applies the mutation and saves the task while holding that task's write lock; empty if there is no such task
+   Optional<TaskManagement> update(Long id, Consumer<TaskManagement> mutation);
+   // Conditional update: throws VersionConflictException before mutating if the task is not at expectedVersion (null = any)
+   Optional<TaskManagement> update(Long id, Long expectedVersion, Consumer<TaskManagement> mutation);
+   // Same as update for several tasks at once; the mutation sees only the ids that exist and may throw to apply nothing
+   Map<Long, TaskManagement> updateAll(Collection<Long> ids, Consumer<Map<Long, TaskManagement>> mutation);
    List<TaskManagement> findAll();
+   // Up to limit tasks with id greater than afterId, in ascending id order
+   List<TaskManagement> findPage(long afterId, int limit);
    List<TaskManagement> findByReferenceIdAndReferenceType(Long referenceId, ReferenceType referenceType);
    List<TaskManagement> findByAssigneeIdIn(List<Long> assigneeIds);
    List<TaskManagement> findByPriority(Priority priority);
+   // Tasks created within [startMillis, endMillis] that are not cancelled, plus older tasks that are still open
+   List<TaskManagement> findDailyTasks(List<Long> assigneeIds, long startMillis, long endMillis);
+   void addActivity(TaskManagement task, String description, Long userId);
+   void addActivities(List<Activity> activities);
+   void addComment(TaskManagement task, String comment, Long userId);
+   // Appends history built elsewhere, each list in order, without taking task locks: only for a single history
+   // writer (TaskHistoryWriter in write-behind mode) that already receives each task's entries in order
+   void appendHistory(List<Activity> activities, List<Comment> comments);
+   // History is append-only and ordered by insertion; offset/limit page through it
+   List<Activity> findActivities(Long taskId, int offset, int limit);
+   List<Comment> findComments(Long taskId, int offset, int limit);
+   int countActivities(Long taskId);
+   int countComments(Long taskId);
+   // Store-wide statistics for metrics gauges; each is cheap enough to read on every scrape
+   long countTasks();
+   long countTasksByStatus(TaskStatus status);
+   long countTasksByPriority(Priority priority);
+   Map<String, Integer> indexSizes();
+   // Status x priority counts per assignee and completions per day, maintained on every write
+   TaskStatistics statistics();
+   long activityCountPercentile(double percentile);
+   long commentCountPercentile(double percentile);
 }
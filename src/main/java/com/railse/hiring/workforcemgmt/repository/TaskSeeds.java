@@ -0,0 +1,39 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+
+import java.util.List;
+
+// Seed data shared by the store implementations; ids and creation times are assigned by the store
+final class TaskSeeds {
+
+   private TaskSeeds() {
+   }
+
+   static List<TaskManagement> tasks() {
+       return List.of(
+               seed(101L, ReferenceType.ORDER, Task.CREATE_INVOICE, 1L, TaskStatus.ASSIGNED, Priority.HIGH),
+               seed(101L, ReferenceType.ORDER, Task.ARRANGE_PICKUP, 1L, TaskStatus.COMPLETED, Priority.HIGH),
+               seed(102L, ReferenceType.ORDER, Task.CREATE_INVOICE, 2L, TaskStatus.ASSIGNED, Priority.MEDIUM),
+               seed(201L, ReferenceType.ENTITY, Task.ASSIGN_CUSTOMER_TO_SALES_PERSON, 2L, TaskStatus.ASSIGNED, Priority.LOW),
+               seed(201L, ReferenceType.ENTITY, Task.ASSIGN_CUSTOMER_TO_SALES_PERSON, 3L, TaskStatus.ASSIGNED, Priority.LOW), // Duplicate for Bug #1
+               seed(103L, ReferenceType.ORDER, Task.COLLECT_PAYMENT, 1L, TaskStatus.CANCELLED, Priority.MEDIUM)); // For Bug #2
+   }
+
+   private static TaskManagement seed(Long refId, ReferenceType refType, Task task, Long assigneeId, TaskStatus status, Priority priority) {
+       TaskManagement newTask = new TaskManagement();
+       newTask.setReferenceId(refId);
+       newTask.setReferenceType(refType);
+       newTask.setTask(task);
+       newTask.setAssigneeId(assigneeId);
+       newTask.setStatus(status);
+       newTask.setPriority(priority);
+       newTask.setDescription("This is a seed task.");
+       newTask.setTaskDeadlineTime(System.currentTimeMillis() + 86400000); // 1 day from now
+       return newTask;
+   }
+}
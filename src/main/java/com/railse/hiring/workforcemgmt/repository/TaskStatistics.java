@@ -0,0 +1,94 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dashboard counters kept in step with the store's write path: tasks per status x priority, overall and per
+ * assignee, plus completions per day. Stores report every insert and every change of assignee, status or
+ * priority, so reading a figure is a single counter read instead of a scan.
+ * <p>
+ * The overall cells take every write, so they are {@link LongAdder}s; per-assignee cells only see that
+ * assignee's writes and are plain atomic longs, which keeps them small for stores with many assignees. A move
+ * is a decrement followed by an increment, so a reader racing it can see a task counted in neither cell, or in
+ * both, for that instant. Completions are counted on the day a task moves into COMPLETED, are not persisted,
+ * and restart with the process.
+ */
+public class TaskStatistics {
+
+   // The last status and priority slot counts tasks without one
+   private static final int STATUS_SLOTS = TaskStatus.values().length + 1;
+   private static final int PRIORITY_SLOTS = Priority.values().length + 1;
+   private static final int CELLS = STATUS_SLOTS * PRIORITY_SLOTS;
+
+   private final LongAdder[] totals = new LongAdder[CELLS];
+   private final Map<Long, AtomicLongArray> byAssignee = new ConcurrentHashMap<>();
+   private final Map<Long, LongAdder> completedByDay = new ConcurrentHashMap<>();
+
+   public TaskStatistics() {
+       for (int cell = 0; cell < CELLS; cell++) {
+           totals[cell] = new LongAdder();
+       }
+   }
+
+   public void added(Long assigneeId, TaskStatus status, Priority priority) {
+       count(assigneeId, cell(status, priority), 1);
+   }
+
+   /**
+    * Moves a task between cells if its assignee, status or priority changed. A move into COMPLETED is counted
+    * as today's completion unless countCompletion is false, e.g. for transitions replayed during recovery.
+    */
+   public void moved(Long fromAssignee, TaskStatus fromStatus, Priority fromPriority,
+                     Long toAssignee, TaskStatus toStatus, Priority toPriority, boolean countCompletion) {
+       int from = cell(fromStatus, fromPriority);
+       int to = cell(toStatus, toPriority);
+       if (from == to && Objects.equals(fromAssignee, toAssignee)) {
+           return;
+       }
+       count(fromAssignee, from, -1);
+       count(toAssignee, to, 1);
+       if (countCompletion && toStatus == TaskStatus.COMPLETED && fromStatus != TaskStatus.COMPLETED) {
+           completedByDay.computeIfAbsent(LocalDate.now().toEpochDay(), day -> new LongAdder()).increment();
+       }
+   }
+
+   // Null status or priority reads the cell of tasks without one
+   public long count(TaskStatus status, Priority priority) {
+       return totals[cell(status, priority)].sum();
+   }
+
+   public long count(Long assigneeId, TaskStatus status, Priority priority) {
+       AtomicLongArray cells = assigneeId == null ? null : byAssignee.get(assigneeId);
+       return cells == null ? 0 : cells.get(cell(status, priority));
+   }
+
+   public long completedOn(LocalDate day) {
+       LongAdder completed = completedByDay.get(day.toEpochDay());
+       return completed == null ? 0 : completed.sum();
+   }
+
+   private void count(Long assigneeId, int cell, int delta) {
+       totals[cell].add(delta);
+       if (assigneeId != null) {
+           AtomicLongArray cells = byAssignee.get(assigneeId);
+           if (cells == null) {
+               cells = byAssignee.computeIfAbsent(assigneeId, key -> new AtomicLongArray(CELLS));
+           }
+           cells.addAndGet(cell, delta);
+       }
+   }
+
+   private static int cell(TaskStatus status, Priority priority) {
+       int statusSlot = status == null ? STATUS_SLOTS - 1 : status.ordinal();
+       int prioritySlot = priority == null ? PRIORITY_SLOTS - 1 : priority.ordinal();
+       return statusSlot * PRIORITY_SLOTS + prioritySlot;
+   }
+}
@@ -0,0 +1,25 @@
+package com.railse.hiring.workforcemgmt.repository.compact;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+// Converts createdAt between a LocalDateTime in the system zone and epoch millis, the form task rows store it in
+public final class EpochMillis {
+
+   private final ZoneId zone = ZoneId.systemDefault();
+   // Decoding with a fixed offset skips the zone-rules lookup; null when the zone has transitions
+   private final ZoneOffset fixedOffset = zone.getRules().isFixedOffset() ? zone.getRules().getOffset(Instant.EPOCH) : null;
+
+   public long toMillis(LocalDateTime dateTime) {
+       return dateTime.atZone(zone).toInstant().toEpochMilli();
+   }
+
+   public LocalDateTime toDateTime(long millis) {
+       if (fixedOffset == null) {
+           return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone);
+       }
+       return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), Math.floorMod(millis, 1000) * 1_000_000, fixedOffset);
+   }
+}
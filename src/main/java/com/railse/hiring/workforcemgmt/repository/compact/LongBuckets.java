@@ -0,0 +1,134 @@
+package com.railse.hiring.workforcemgmt.repository.compact;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Open-addressing map from a primitive long key to an unordered bucket of primitive long ids. Keys are never
+ * boxed and a bucket is a bare long[], so each indexed id costs about eight bytes instead of a hash-set node
+ * plus a boxed Long. Not thread-safe; callers serialize writers against readers.
+ */
+public class LongBuckets {
+
+   private static final long[] EMPTY = new long[0];
+
+   private long[] keys;
+   private boolean[] used;
+   private long[][] buckets;
+   private int[] sizes;
+   private int slotsUsed;
+   private int nonEmptyKeys;
+
+   public LongBuckets(int expectedKeys) {
+       int capacity = Integer.highestOneBit(Math.max(4, expectedKeys * 2 - 1)) << 1;
+       allocate(capacity);
+   }
+
+   public void add(long key, long id) {
+       int slot = slotOf(key);
+       if (!used[slot]) {
+           if ((slotsUsed + 1) * 2 > keys.length) {
+               rehash(keys.length * 2);
+               slot = slotOf(key);
+           }
+           used[slot] = true;
+           keys[slot] = key;
+           buckets[slot] = EMPTY;
+           slotsUsed++;
+       }
+       long[] bucket = buckets[slot];
+       int size = sizes[slot];
+       if (size == bucket.length) {
+           bucket = Arrays.copyOf(bucket, Math.max(2, size + (size >> 1) + 1));
+           buckets[slot] = bucket;
+       }
+       bucket[size] = id;
+       sizes[slot] = size + 1;
+       if (size == 0) {
+           nonEmptyKeys++;
+       }
+   }
+
+   // Swap-removes the id; emptied keys keep their slot so removal never needs tombstones
+   public void remove(long key, long id) {
+       int slot = slotOf(key);
+       if (!used[slot]) {
+           return;
+       }
+       long[] bucket = buckets[slot];
+       int size = sizes[slot];
+       for (int i = 0; i < size; i++) {
+           if (bucket[i] == id) {
+               bucket[i] = bucket[size - 1];
+               sizes[slot] = size - 1;
+               if (size == 1) {
+                   buckets[slot] = EMPTY;
+                   nonEmptyKeys--;
+               }
+               return;
+           }
+       }
+   }
+
+   public void forEach(long key, LongConsumer action) {
+       int slot = slotOf(key);
+       if (!used[slot]) {
+           return;
+       }
+       long[] bucket = buckets[slot];
+       for (int i = 0, size = sizes[slot]; i < size; i++) {
+           action.accept(bucket[i]);
+       }
+   }
+
+   public int size(long key) {
+       int slot = slotOf(key);
+       return used[slot] ? sizes[slot] : 0;
+   }
+
+   // Number of keys that currently have at least one id
+   public int keyCount() {
+       return nonEmptyKeys;
+   }
+
+   // Linear probe to the key's slot, or to the free slot where it would go
+   private int slotOf(long key) {
+       int mask = keys.length - 1;
+       int slot = mix(key) & mask;
+       while (used[slot] && keys[slot] != key) {
+           slot = (slot + 1) & mask;
+       }
+       return slot;
+   }
+
+   private void rehash(int capacity) {
+       long[] oldKeys = keys;
+       boolean[] oldUsed = used;
+       long[][] oldBuckets = buckets;
+       int[] oldSizes = sizes;
+       allocate(capacity);
+       for (int i = 0; i < oldKeys.length; i++) {
+           if (oldUsed[i] && oldSizes[i] > 0) {
+               int slot = slotOf(oldKeys[i]);
+               used[slot] = true;
+               keys[slot] = oldKeys[i];
+               buckets[slot] = oldBuckets[i];
+               sizes[slot] = oldSizes[i];
+               slotsUsed++;
+           }
+       }
+   }
+
+   private void allocate(int capacity) {
+       keys = new long[capacity];
+       used = new boolean[capacity];
+       buckets = new long[capacity][];
+       sizes = new int[capacity];
+       slotsUsed = 0;
+   }
+
+   private static int mix(long key) {
+       long hash = key * 0x9E3779B97F4A7C15L;
+       return (int) (hash ^ (hash >>> 32));
+   }
+}
@@ -0,0 +1,150 @@
+package com.railse.hiring.workforcemgmt.repository.compact;
+
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+
+import java.util.Arrays;
+
+import static com.railse.hiring.workforcemgmt.repository.compact.TaskRows.enumOf;
+import static com.railse.hiring.workforcemgmt.repository.compact.TaskRows.fromColumn;
+import static com.railse.hiring.workforcemgmt.repository.compact.TaskRows.ordinal;
+import static com.railse.hiring.workforcemgmt.repository.compact.TaskRows.toColumn;
+
+/**
+ * On-heap {@link TaskRows}: task fields stored column by column in primitive arrays, with the task id as the
+ * row number, so a row costs a few dozen bytes and no objects apart from its description. Columns are split
+ * into fixed-size pages that are allocated as ids grow, so growing never copies earlier rows.
+ */
+public class TaskColumns implements TaskRows {
+
+   private static final int PAGE_SHIFT = 14;
+   private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+   private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+   private static final ReferenceType[] REFERENCE_TYPES = ReferenceType.values();
+   private static final Task[] TASKS = Task.values();
+   private static final TaskStatus[] STATUSES = TaskStatus.values();
+   private static final Priority[] PRIORITIES = Priority.values();
+
+   private final EpochMillis epochMillis = new EpochMillis();
+   private Page[] pages = new Page[16];
+
+   @Override
+   public boolean exists(long id) {
+       Page page = pageOf(id);
+       return page != null && page.version[slot(id)] > 0;
+   }
+
+   @Override
+   public long version(long id) {
+       Page page = pageOf(id);
+       return page == null ? 0 : page.version[slot(id)];
+   }
+
+   @Override
+   public long assigneeId(long id) {
+       return pages[page(id)].assigneeId[slot(id)];
+   }
+
+   @Override
+   public long referenceId(long id) {
+       return pages[page(id)].referenceId[slot(id)];
+   }
+
+   @Override
+   public byte referenceType(long id) {
+       return pages[page(id)].referenceType[slot(id)];
+   }
+
+   @Override
+   public byte status(long id) {
+       return pages[page(id)].status[slot(id)];
+   }
+
+   @Override
+   public byte priority(long id) {
+       return pages[page(id)].priority[slot(id)];
+   }
+
+   @Override
+   public long createdAtMillis(long id) {
+       return pages[page(id)].createdAt[slot(id)];
+   }
+
+   @Override
+   public void write(long id, TaskManagement task, long version) {
+       Page page = pageFor(id);
+       int slot = slot(id);
+       page.referenceId[slot] = toColumn(task.getReferenceId());
+       page.referenceType[slot] = ordinal(task.getReferenceType());
+       page.task[slot] = ordinal(task.getTask());
+       page.description[slot] = task.getDescription();
+       page.status[slot] = ordinal(task.getStatus());
+       page.assigneeId[slot] = toColumn(task.getAssigneeId());
+       page.deadline[slot] = toColumn(task.getTaskDeadlineTime());
+       page.priority[slot] = ordinal(task.getPriority());
+       page.createdAt[slot] = task.getCreatedAt() == null ? NULL : epochMillis.toMillis(task.getCreatedAt());
+       page.version[slot] = version;
+   }
+
+   @Override
+   public TaskManagement read(long id) {
+       Page page = pages[page(id)];
+       int slot = slot(id);
+       TaskManagement task = new TaskManagement();
+       task.setId(id);
+       task.setReferenceId(fromColumn(page.referenceId[slot]));
+       task.setReferenceType(enumOf(REFERENCE_TYPES, page.referenceType[slot]));
+       task.setTask(enumOf(TASKS, page.task[slot]));
+       task.setDescription(page.description[slot]);
+       task.setStatus(enumOf(STATUSES, page.status[slot]));
+       task.setAssigneeId(fromColumn(page.assigneeId[slot]));
+       task.setTaskDeadlineTime(fromColumn(page.deadline[slot]));
+       task.setPriority(enumOf(PRIORITIES, page.priority[slot]));
+       long createdAt = page.createdAt[slot];
+       task.setCreatedAt(createdAt == NULL ? null : epochMillis.toDateTime(createdAt));
+       task.setVersion(page.version[slot]);
+       return task;
+   }
+
+   // Compared as a long: ids past the int page range would otherwise wrap to a negative page
+   private Page pageOf(long id) {
+       long page = id >>> PAGE_SHIFT;
+       return id < 0 || page >= pages.length ? null : pages[(int) page];
+   }
+
+   private Page pageFor(long id) {
+       int page = page(id);
+       if (page >= pages.length) {
+           pages = Arrays.copyOf(pages, Math.max(page + 1, pages.length * 2));
+       }
+       if (pages[page] == null) {
+           pages[page] = new Page();
+       }
+       return pages[page];
+   }
+
+   private static int page(long id) {
+       return (int) (id >>> PAGE_SHIFT);
+   }
+
+   private static int slot(long id) {
+       return (int) (id & PAGE_MASK);
+   }
+
+   private static final class Page {
+       final long[] referenceId = new long[PAGE_SIZE];
+       final long[] assigneeId = new long[PAGE_SIZE];
+       final long[] deadline = new long[PAGE_SIZE];
+       final long[] createdAt = new long[PAGE_SIZE];
+       final long[] version = new long[PAGE_SIZE];
+       final byte[] referenceType = new byte[PAGE_SIZE];
+       final byte[] task = new byte[PAGE_SIZE];
+       final byte[] status = new byte[PAGE_SIZE];
+       final byte[] priority = new byte[PAGE_SIZE];
+       final String[] description = new String[PAGE_SIZE];
+   }
+}
@@ -0,0 +1,43 @@
+package com.railse.hiring.workforcemgmt.repository.compact;
+
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+
+/**
+ * Fixed-layout task rows addressed by task id. Enums are exposed as ordinal bytes, nullable longs as
+ * {@link #NULL} and createdAt as epoch millis, so queries can filter rows without building task objects.
+ * Implementations are not thread-safe; callers serialize writers against readers.
+ */
+public interface TaskRows {
+
+   long NULL = Long.MIN_VALUE;
+   byte NULL_ORDINAL = -1;
+
+   // Version 0 means the row is empty; stored tasks start at version 1
+   boolean exists(long id);
+   long version(long id);
+   long assigneeId(long id);
+   long referenceId(long id);
+   byte referenceType(long id);
+   byte status(long id);
+   byte priority(long id);
+   long createdAtMillis(long id);
+   void write(long id, TaskManagement task, long version);
+   // Builds a fresh TaskManagement view of the row; callers own it and may mutate it freely
+   TaskManagement read(long id);
+
+   static long toColumn(Long value) {
+       return value == null ? NULL : value;
+   }
+
+   static Long fromColumn(long value) {
+       return value == NULL ? null : value;
+   }
+
+   static byte ordinal(Enum<?> value) {
+       return value == null ? NULL_ORDINAL : (byte) value.ordinal();
+   }
+
+   static <E> E enumOf(E[] values, byte ordinal) {
+       return ordinal == NULL_ORDINAL ? null : values[ordinal];
+   }
+}
@@ -0,0 +1,52 @@
+package com.railse.hiring.workforcemgmt.repository.offheap;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Fixed-width records addressed by a dense long id and stored in direct pages of 16384 records. Since ids are
+ * dense, the id-to-offset mapping is pure arithmetic and the page directory is the only heap state.
+ * Pages are zero-filled when allocated. Not thread-safe; callers serialize access.
+ */
+public class OffHeapPages {
+
+   private static final int PAGE_SHIFT = 14;
+   private static final int PAGE_MASK = (1 << PAGE_SHIFT) - 1;
+
+   private final int recordSize;
+   private ByteBuffer[] pages = new ByteBuffer[16];
+   private int allocatedPages;
+
+   public OffHeapPages(int recordSize) {
+       this.recordSize = recordSize;
+   }
+
+   // The page holding the id, or null if no record on it was ever written; compared as a long so huge ids can't wrap
+   public ByteBuffer pageOf(long id) {
+       long page = id >>> PAGE_SHIFT;
+       return id < 0 || page >= pages.length ? null : pages[(int) page];
+   }
+
+   public ByteBuffer pageFor(long id) {
+       if (id < 0) {
+           throw new IllegalArgumentException("Negative record id " + id);
+       }
+       int page = (int) (id >>> PAGE_SHIFT);
+       if (page >= pages.length) {
+           pages = Arrays.copyOf(pages, Math.max(page + 1, pages.length * 2));
+       }
+       if (pages[page] == null) {
+           pages[page] = ByteBuffer.allocateDirect(recordSize << PAGE_SHIFT);
+           allocatedPages++;
+       }
+       return pages[page];
+   }
+
+   public int offset(long id) {
+       return (int) (id & PAGE_MASK) * recordSize;
+   }
+
+   public long reservedBytes() {
+       return (long) allocatedPages * (recordSize << PAGE_SHIFT);
+   }
+}
@@ -0,0 +1,234 @@
+package com.railse.hiring.workforcemgmt.repository.offheap;
+
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.Comment;
+import com.railse.hiring.workforcemgmt.repository.LengthHistogram;
+import com.railse.hiring.workforcemgmt.repository.TaskHistory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import static com.railse.hiring.workforcemgmt.repository.compact.TaskRows.NULL;
+import static com.railse.hiring.workforcemgmt.repository.compact.TaskRows.fromColumn;
+import static com.railse.hiring.workforcemgmt.repository.compact.TaskRows.toColumn;
+
+/**
+ * Off-heap {@link TaskHistory}. Every activity or comment is one slab block (links, id, user, timestamp and UTF-8
+ * text) on a per-task doubly linked list, and a fixed 40-byte directory record per task holds the head, tail and
+ * length of both lists. A page of history is walked from whichever end is closer, so the recent entries shown
+ * with a task cost the same however long its history is.
+ */
+public class OffHeapTaskHistory implements TaskHistory {
+
+   private static final int ACTIVITY_HEAD = 0;
+   private static final int ACTIVITY_TAIL = 8;
+   private static final int COMMENT_HEAD = 16;
+   private static final int COMMENT_TAIL = 24;
+   private static final int ACTIVITY_COUNT = 32;
+   private static final int COMMENT_COUNT = 36;
+   private static final int DIRECTORY_RECORD_SIZE = 40;
+
+   private static final int PREV = 0;
+   private static final int NEXT = 8;
+   private static final int ID = 16;
+   private static final int USER_ID = 24;
+   private static final int CREATED_SECOND = 32;
+   private static final int CREATED_NANO = 40;
+   private static final int TEXT_LENGTH = 44;
+   private static final int TEXT = 48;
+
+   private final SlabAllocator slab;
+   private final OffHeapPages directory = new OffHeapPages(DIRECTORY_RECORD_SIZE);
+   private final Log activities = new Log(ACTIVITY_HEAD, ACTIVITY_TAIL, ACTIVITY_COUNT);
+   private final Log comments = new Log(COMMENT_HEAD, COMMENT_TAIL, COMMENT_COUNT);
+   private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+   public OffHeapTaskHistory(SlabAllocator slab) {
+       this.slab = slab;
+   }
+
+   @Override
+   public void appendActivity(Activity activity) {
+       append(activities, activity.getTaskId(), activity.getId(), activity.getDescription(), activity.getUserId(), activity.getCreatedAt());
+   }
+
+   @Override
+   public void appendComment(Comment comment) {
+       append(comments, comment.getTaskId(), comment.getId(), comment.getComment(), comment.getUserId(), comment.getCreatedAt());
+   }
+
+   @Override
+   public long activityLengthPercentile(double percentile) {
+       return activities.lengths.percentile(percentile);
+   }
+
+   @Override
+   public long commentLengthPercentile(double percentile) {
+       return comments.lengths.percentile(percentile);
+   }
+
+   @Override
+   public int countActivities(Long taskId) {
+       return read(() -> count(activities, taskId));
+   }
+
+   @Override
+   public int countComments(Long taskId) {
+       return read(() -> count(comments, taskId));
+   }
+
+   @Override
+   public List<Activity> activities(Long taskId, int offset, int limit) {
+       return read(() -> range(activities, taskId, offset, limit, (id, text, userId, createdAt) -> {
+           Activity activity = new Activity(taskId, text, userId);
+           activity.setId(id);
+           activity.setCreatedAt(createdAt);
+           return activity;
+       }));
+   }
+
+   @Override
+   public List<Comment> comments(Long taskId, int offset, int limit) {
+       return read(() -> range(comments, taskId, offset, limit, (id, text, userId, createdAt) -> {
+           Comment comment = new Comment(taskId, text, userId);
+           comment.setId(id);
+           comment.setCreatedAt(createdAt);
+           return comment;
+       }));
+   }
+
+   public long reservedBytes() {
+       lock.readLock().lock();
+       try {
+           return directory.reservedBytes() + slab.reservedBytes();
+       } finally {
+           lock.readLock().unlock();
+       }
+   }
+
+   private void append(Log log, Long taskId, Long id, String text, Long userId, LocalDateTime createdAt) {
+       byte[] bytes = text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8);
+       lock.writeLock().lock();
+       try {
+           long entry = slab.allocate(TEXT + bytes.length);
+           ByteBuffer buffer = slab.buffer(entry);
+           int at = SlabAllocator.offset(entry);
+           ByteBuffer record = directory.pageFor(taskId);
+           int recordAt = directory.offset(taskId);
+           long tail = record.getLong(recordAt + log.tail);
+           buffer.putLong(at + PREV, tail);
+           buffer.putLong(at + NEXT, SlabAllocator.NULL);
+           buffer.putLong(at + ID, toColumn(id));
+           buffer.putLong(at + USER_ID, toColumn(userId));
+           buffer.putLong(at + CREATED_SECOND, createdAt == null ? NULL : createdAt.toEpochSecond(ZoneOffset.UTC));
+           buffer.putInt(at + CREATED_NANO, createdAt == null ? 0 : createdAt.getNano());
+           buffer.putInt(at + TEXT_LENGTH, text == null ? -1 : bytes.length);
+           buffer.put(at + TEXT, bytes);
+           if (tail == SlabAllocator.NULL) {
+               record.putLong(recordAt + log.head, entry);
+           } else {
+               slab.buffer(tail).putLong(SlabAllocator.offset(tail) + NEXT, entry);
+           }
+           record.putLong(recordAt + log.tail, entry);
+           int size = record.getInt(recordAt + log.count);
+           record.putInt(recordAt + log.count, size + 1);
+           log.lengths.moved(size, size + 1);
+       } finally {
+           lock.writeLock().unlock();
+       }
+   }
+
+   private int count(Log log, Long taskId) {
+       ByteBuffer record = taskId == null ? null : directory.pageOf(taskId);
+       return record == null ? 0 : record.getInt(directory.offset(taskId) + log.count);
+   }
+
+   private <E> List<E> range(Log log, Long taskId, int offset, int limit, EntryReader<E> reader) {
+       int size = count(log, taskId);
+       int from = Math.max(offset, 0);
+       int end = (int) Math.min(size, (long) from + Math.max(limit, 0));
+       if (from >= end) {
+           return Collections.emptyList();
+       }
+       ByteBuffer record = directory.pageOf(taskId);
+       int recordAt = directory.offset(taskId);
+       List<E> entries = new ArrayList<>(end - from);
+       // Walking from the head visits end entries, walking back from the tail visits size - from
+       if (end <= size - from) {
+           long entry = record.getLong(recordAt + log.head);
+           for (int i = 0; i < from; i++) {
+               entry = link(entry, NEXT);
+           }
+           for (int i = from; i < end; i++) {
+               entries.add(decode(entry, reader));
+               entry = link(entry, NEXT);
+           }
+       } else {
+           long entry = record.getLong(recordAt + log.tail);
+           for (int i = size - 1; i >= end; i--) {
+               entry = link(entry, PREV);
+           }
+           for (int i = end - 1; i >= from; i--) {
+               entries.add(decode(entry, reader));
+               entry = link(entry, PREV);
+           }
+           Collections.reverse(entries);
+       }
+       return entries;
+   }
+
+   private long link(long entry, int direction) {
+       return slab.buffer(entry).getLong(SlabAllocator.offset(entry) + direction);
+   }
+
+   private <E> E decode(long entry, EntryReader<E> reader) {
+       ByteBuffer buffer = slab.buffer(entry);
+       int at = SlabAllocator.offset(entry);
+       int length = buffer.getInt(at + TEXT_LENGTH);
+       String text = null;
+       if (length >= 0) {
+           byte[] bytes = new byte[length];
+           buffer.get(at + TEXT, bytes);
+           text = new String(bytes, StandardCharsets.UTF_8);
+       }
+       long createdSecond = buffer.getLong(at + CREATED_SECOND);
+       LocalDateTime createdAt = createdSecond == NULL ? null
+               : LocalDateTime.ofEpochSecond(createdSecond, buffer.getInt(at + CREATED_NANO), ZoneOffset.UTC);
+       return reader.read(fromColumn(buffer.getLong(at + ID)), text, fromColumn(buffer.getLong(at + USER_ID)), createdAt);
+   }
+
+   private <T> T read(Supplier<T> action) {
+       lock.readLock().lock();
+       try {
+           return action.get();
+       } finally {
+           lock.readLock().unlock();
+       }
+   }
+
+   private interface EntryReader<E> {
+       E read(Long id, String text, Long userId, LocalDateTime createdAt);
+   }
+
+   // Field offsets of one history kind within the directory record, plus its length histogram
+   private static final class Log {
+       final int head;
+       final int tail;
+       final int count;
+       final LengthHistogram lengths = new LengthHistogram();
+
+       Log(int head, int tail, int count) {
+           this.head = head;
+           this.tail = tail;
+           this.count = count;
+       }
+   }
+}
@@ -0,0 +1,144 @@
+package com.railse.hiring.workforcemgmt.repository.offheap;
+
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.compact.EpochMillis;
+import com.railse.hiring.workforcemgmt.repository.compact.TaskRows;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static com.railse.hiring.workforcemgmt.repository.compact.TaskRows.enumOf;
+import static com.railse.hiring.workforcemgmt.repository.compact.TaskRows.fromColumn;
+import static com.railse.hiring.workforcemgmt.repository.compact.TaskRows.ordinal;
+import static com.railse.hiring.workforcemgmt.repository.compact.TaskRows.toColumn;
+
+/**
+ * Off-heap {@link TaskRows}: each task is a 56-byte record in {@link OffHeapPages}, and its description is a
+ * UTF-8 block in a {@link SlabAllocator} referenced from the record. The garbage collector sees neither.
+ */
+public class OffHeapTaskRecords implements TaskRows {
+
+   private static final int VERSION = 0;
+   private static final int REFERENCE_ID = 8;
+   private static final int ASSIGNEE_ID = 16;
+   private static final int DEADLINE = 24;
+   private static final int CREATED_AT = 32;
+   private static final int DESCRIPTION = 40;
+   private static final int REFERENCE_TYPE = 48;
+   private static final int TASK = 49;
+   private static final int STATUS = 50;
+   private static final int PRIORITY = 51;
+   private static final int RECORD_SIZE = 56;
+
+   private static final ReferenceType[] REFERENCE_TYPES = ReferenceType.values();
+   private static final Task[] TASKS = Task.values();
+   private static final TaskStatus[] STATUSES = TaskStatus.values();
+   private static final Priority[] PRIORITIES = Priority.values();
+
+   private final OffHeapPages records = new OffHeapPages(RECORD_SIZE);
+   private final SlabAllocator descriptions;
+   private final EpochMillis epochMillis = new EpochMillis();
+
+   public OffHeapTaskRecords(SlabAllocator descriptions) {
+       this.descriptions = descriptions;
+   }
+
+   @Override
+   public boolean exists(long id) {
+       return version(id) > 0;
+   }
+
+   @Override
+   public long version(long id) {
+       ByteBuffer page = records.pageOf(id);
+       return page == null ? 0 : page.getLong(records.offset(id) + VERSION);
+   }
+
+   @Override
+   public long assigneeId(long id) {
+       return records.pageOf(id).getLong(records.offset(id) + ASSIGNEE_ID);
+   }
+
+   @Override
+   public long referenceId(long id) {
+       return records.pageOf(id).getLong(records.offset(id) + REFERENCE_ID);
+   }
+
+   @Override
+   public byte referenceType(long id) {
+       return records.pageOf(id).get(records.offset(id) + REFERENCE_TYPE);
+   }
+
+   @Override
+   public byte status(long id) {
+       return records.pageOf(id).get(records.offset(id) + STATUS);
+   }
+
+   @Override
+   public byte priority(long id) {
+       return records.pageOf(id).get(records.offset(id) + PRIORITY);
+   }
+
+   @Override
+   public long createdAtMillis(long id) {
+       return records.pageOf(id).getLong(records.offset(id) + CREATED_AT);
+   }
+
+   @Override
+   public void write(long id, TaskManagement task, long version) {
+       ByteBuffer page = records.pageFor(id);
+       int offset = records.offset(id);
+       page.putLong(offset + DESCRIPTION, writeDescription(page.getLong(offset + DESCRIPTION), task.getDescription()));
+       page.putLong(offset + REFERENCE_ID, toColumn(task.getReferenceId()));
+       page.putLong(offset + ASSIGNEE_ID, toColumn(task.getAssigneeId()));
+       page.putLong(offset + DEADLINE, toColumn(task.getTaskDeadlineTime()));
+       page.putLong(offset + CREATED_AT, task.getCreatedAt() == null ? NULL : epochMillis.toMillis(task.getCreatedAt()));
+       page.put(offset + REFERENCE_TYPE, ordinal(task.getReferenceType()));
+       page.put(offset + TASK, ordinal(task.getTask()));
+       page.put(offset + STATUS, ordinal(task.getStatus()));
+       page.put(offset + PRIORITY, ordinal(task.getPriority()));
+       page.putLong(offset + VERSION, version);
+   }
+
+   @Override
+   public TaskManagement read(long id) {
+       ByteBuffer page = records.pageOf(id);
+       int offset = records.offset(id);
+       TaskManagement task = new TaskManagement();
+       task.setId(id);
+       task.setReferenceId(fromColumn(page.getLong(offset + REFERENCE_ID)));
+       task.setReferenceType(enumOf(REFERENCE_TYPES, page.get(offset + REFERENCE_TYPE)));
+       task.setTask(enumOf(TASKS, page.get(offset + TASK)));
+       task.setDescription(descriptions.readString(page.getLong(offset + DESCRIPTION)));
+       task.setStatus(enumOf(STATUSES, page.get(offset + STATUS)));
+       task.setAssigneeId(fromColumn(page.getLong(offset + ASSIGNEE_ID)));
+       task.setTaskDeadlineTime(fromColumn(page.getLong(offset + DEADLINE)));
+       task.setPriority(enumOf(PRIORITIES, page.get(offset + PRIORITY)));
+       long createdAt = page.getLong(offset + CREATED_AT);
+       task.setCreatedAt(createdAt == NULL ? null : epochMillis.toDateTime(createdAt));
+       task.setVersion(page.getLong(offset + VERSION));
+       return task;
+   }
+
+   public long reservedBytes() {
+       return records.reservedBytes() + descriptions.reservedBytes();
+   }
+
+   // Most saves leave the description alone, so an unchanged one keeps its block instead of being rewritten
+   private long writeDescription(long current, String description) {
+       if (description == null) {
+           descriptions.freeString(current);
+           return SlabAllocator.NULL;
+       }
+       byte[] bytes = description.getBytes(StandardCharsets.UTF_8);
+       if (descriptions.stringEquals(current, bytes)) {
+           return current;
+       }
+       descriptions.freeString(current);
+       return descriptions.writeBytes(bytes);
+   }
+}
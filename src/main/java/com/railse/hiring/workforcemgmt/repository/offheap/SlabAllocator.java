@@ -0,0 +1,154 @@
+package com.railse.hiring.workforcemgmt.repository.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Off-heap allocator for variable-length data. Memory comes from direct chunks that are carved up by bumping a
+ * pointer; every block is rounded up to a power-of-two size class, and freed blocks go onto a per-class free
+ * list that is threaded through the blocks themselves, so the only heap state is the chunk directory and one
+ * list head per class. An address packs the chunk index into the high 32 bits and the offset into the low 32;
+ * {@link #NULL} (0) is never handed out.
+ * Not thread-safe; callers serialize access.
+ */
+public class SlabAllocator {
+
+   public static final long NULL = 0;
+
+   private static final int MIN_BLOCK_SHIFT = 4;
+   private static final int STRING_HEADER = Integer.BYTES;
+
+   private final int chunkSize;
+   private final long[] freeLists;
+   private ByteBuffer[] chunks = new ByteBuffer[4];
+   private int chunkCount;
+   private int top;
+   private long allocatedBytes;
+
+   public SlabAllocator(int chunkSize) {
+       if (Integer.bitCount(chunkSize) != 1 || chunkSize < (1 << MIN_BLOCK_SHIFT) * 2) {
+           throw new IllegalArgumentException("Chunk size must be a power of two of at least 32 bytes: " + chunkSize);
+       }
+       this.chunkSize = chunkSize;
+       this.freeLists = new long[Integer.numberOfTrailingZeros(chunkSize) + 1];
+       // Keeps the first block of the first chunk unused so that address 0 can mean null
+       this.top = chunkSize;
+   }
+
+   public long allocate(int size) {
+       int sizeClass = sizeClassOf(size);
+       long address = freeLists[sizeClass];
+       if (address != NULL) {
+           freeLists[sizeClass] = buffer(address).getLong(offset(address));
+       } else {
+           int blockSize = 1 << sizeClass;
+           if (top + blockSize > chunkSize) {
+               addChunk();
+           }
+           address = ((long) (chunkCount - 1) << 32) | top;
+           top += blockSize;
+       }
+       allocatedBytes += 1L << sizeClass;
+       return address;
+   }
+
+   public void free(long address, int size) {
+       if (address == NULL) {
+           return;
+       }
+       int sizeClass = sizeClassOf(size);
+       buffer(address).putLong(offset(address), freeLists[sizeClass]);
+       freeLists[sizeClass] = address;
+       allocatedBytes -= 1L << sizeClass;
+   }
+
+   public ByteBuffer buffer(long address) {
+       return chunks[(int) (address >>> 32)];
+   }
+
+   public static int offset(long address) {
+       return (int) address;
+   }
+
+   // Length-prefixed UTF-8; NULL for a null string
+   public long writeString(String value) {
+       if (value == null) {
+           return NULL;
+       }
+       return writeBytes(value.getBytes(StandardCharsets.UTF_8));
+   }
+
+   public long writeBytes(byte[] bytes) {
+       long address = allocate(STRING_HEADER + bytes.length);
+       ByteBuffer buffer = buffer(address);
+       int offset = offset(address);
+       buffer.putInt(offset, bytes.length);
+       buffer.put(offset + STRING_HEADER, bytes);
+       return address;
+   }
+
+   public String readString(long address) {
+       if (address == NULL) {
+           return null;
+       }
+       ByteBuffer buffer = buffer(address);
+       int offset = offset(address);
+       byte[] bytes = new byte[checkedLength(buffer, offset)];
+       buffer.get(offset + STRING_HEADER, bytes);
+       return new String(bytes, StandardCharsets.UTF_8);
+   }
+
+   public boolean stringEquals(long address, byte[] bytes) {
+       if (address == NULL) {
+           return false;
+       }
+       ByteBuffer buffer = buffer(address);
+       int offset = offset(address);
+       if (buffer.getInt(offset) != bytes.length) {
+           return false;
+       }
+       return buffer.slice(offset + STRING_HEADER, bytes.length).equals(ByteBuffer.wrap(bytes));
+   }
+
+   public void freeString(long address) {
+       if (address != NULL) {
+           free(address, STRING_HEADER + buffer(address).getInt(offset(address)));
+       }
+   }
+
+   // Bytes handed out to live blocks, including size-class rounding
+   public long allocatedBytes() {
+       return allocatedBytes;
+   }
+
+   public long reservedBytes() {
+       return (long) chunkCount * chunkSize;
+   }
+
+   // Guards against a length read from a reused or half-written block
+   private int checkedLength(ByteBuffer buffer, int offset) {
+       int length = buffer.getInt(offset);
+       if (length < 0 || (long) offset + STRING_HEADER + length > chunkSize) {
+           throw new IllegalStateException("Corrupt string block at offset " + offset);
+       }
+       return length;
+   }
+
+   private int sizeClassOf(int size) {
+       int blockSize = Math.max(size, 1 << MIN_BLOCK_SHIFT);
+       if (blockSize > chunkSize) {
+           throw new IllegalArgumentException("Block of " + size + " bytes exceeds the slab chunk size of " + chunkSize);
+       }
+       return 32 - Integer.numberOfLeadingZeros(blockSize - 1);
+   }
+
+   private void addChunk() {
+       if (chunkCount == chunks.length) {
+           chunks = Arrays.copyOf(chunks, chunks.length * 2);
+       }
+       chunks[chunkCount] = ByteBuffer.allocateDirect(chunkSize);
+       top = chunkCount == 0 ? 1 << MIN_BLOCK_SHIFT : 0;
+       chunkCount++;
+   }
+}
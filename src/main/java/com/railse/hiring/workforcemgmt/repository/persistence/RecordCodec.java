@@ -0,0 +1,195 @@
+package com.railse.hiring.workforcemgmt.repository.persistence;
+
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.Comment;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Compact binary encoding shared by the write-ahead log and snapshots.
+ * Enums are written as ordinals, nullable values carry a presence marker and timestamps are UTC epoch second + nanos.
+ */
+public final class RecordCodec {
+
+   // Task records written before tasks carried a version; still accepted on replay
+   public static final byte TASK_V1 = 1;
+   public static final byte ACTIVITY = 2;
+   public static final byte COMMENT = 3;
+   public static final byte TASK = 4;
+
+   private static final Priority[] PRIORITIES = Priority.values();
+   private static final ReferenceType[] REFERENCE_TYPES = ReferenceType.values();
+   private static final Task[] TASKS = Task.values();
+   private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+   private RecordCodec() {
+   }
+
+   public static byte[] encodeTask(TaskManagement task) {
+       return encode(out -> writeTask(out, task));
+   }
+
+   public static byte[] encodeActivity(Activity activity) {
+       return encode(out -> writeActivity(out, activity));
+   }
+
+   public static byte[] encodeComment(Comment comment) {
+       return encode(out -> writeComment(out, comment));
+   }
+
+   public static void writeTask(DataOutput out, TaskManagement task) throws IOException {
+       out.writeLong(task.getId());
+       writeNullableLong(out, task.getReferenceId());
+       writeEnum(out, task.getReferenceType());
+       writeEnum(out, task.getTask());
+       writeString(out, task.getDescription());
+       writeEnum(out, task.getStatus());
+       writeNullableLong(out, task.getAssigneeId());
+       writeNullableLong(out, task.getTaskDeadlineTime());
+       writeEnum(out, task.getPriority());
+       writeDateTime(out, task.getCreatedAt());
+       out.writeLong(task.getVersion() == null ? 0 : task.getVersion());
+   }
+
+   public static TaskManagement readTask(ByteBuffer in) {
+       TaskManagement task = readTaskV1(in);
+       task.setVersion(in.getLong());
+       return task;
+   }
+
+   public static TaskManagement readTaskV1(ByteBuffer in) {
+       TaskManagement task = new TaskManagement();
+       task.setId(in.getLong());
+       task.setReferenceId(readNullableLong(in));
+       task.setReferenceType(readEnum(in, REFERENCE_TYPES));
+       task.setTask(readEnum(in, TASKS));
+       task.setDescription(readString(in));
+       task.setStatus(readEnum(in, STATUSES));
+       task.setAssigneeId(readNullableLong(in));
+       task.setTaskDeadlineTime(readNullableLong(in));
+       task.setPriority(readEnum(in, PRIORITIES));
+       task.setCreatedAt(readDateTime(in));
+       task.setVersion(1L);
+       return task;
+   }
+
+   public static void writeActivity(DataOutput out, Activity activity) throws IOException {
+       out.writeLong(activity.getId());
+       out.writeLong(activity.getTaskId());
+       writeString(out, activity.getDescription());
+       writeNullableLong(out, activity.getUserId());
+       writeDateTime(out, activity.getCreatedAt());
+   }
+
+   public static Activity readActivity(ByteBuffer in) {
+       Activity activity = new Activity();
+       activity.setId(in.getLong());
+       activity.setTaskId(in.getLong());
+       activity.setDescription(readString(in));
+       activity.setUserId(readNullableLong(in));
+       activity.setCreatedAt(readDateTime(in));
+       return activity;
+   }
+
+   public static void writeComment(DataOutput out, Comment comment) throws IOException {
+       out.writeLong(comment.getId());
+       out.writeLong(comment.getTaskId());
+       writeString(out, comment.getComment());
+       writeNullableLong(out, comment.getUserId());
+       writeDateTime(out, comment.getCreatedAt());
+   }
+
+   public static Comment readComment(ByteBuffer in) {
+       Comment comment = new Comment();
+       comment.setId(in.getLong());
+       comment.setTaskId(in.getLong());
+       comment.setComment(readString(in));
+       comment.setUserId(readNullableLong(in));
+       comment.setCreatedAt(readDateTime(in));
+       return comment;
+   }
+
+   private static void writeNullableLong(DataOutput out, Long value) throws IOException {
+       out.writeBoolean(value != null);
+       if (value != null) {
+           out.writeLong(value);
+       }
+   }
+
+   private static Long readNullableLong(ByteBuffer in) {
+       return in.get() != 0 ? in.getLong() : null;
+   }
+
+   private static void writeEnum(DataOutput out, Enum<?> value) throws IOException {
+       out.writeByte(value == null ? -1 : value.ordinal());
+   }
+
+   private static <E extends Enum<E>> E readEnum(ByteBuffer in, E[] values) {
+       byte ordinal = in.get();
+       return ordinal < 0 ? null : values[ordinal];
+   }
+
+   private static void writeString(DataOutput out, String value) throws IOException {
+       if (value == null) {
+           out.writeInt(-1);
+           return;
+       }
+       byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+       out.writeInt(bytes.length);
+       out.write(bytes);
+   }
+
+   private static String readString(ByteBuffer in) {
+       int length = in.getInt();
+       if (length < 0) {
+           return null;
+       }
+       byte[] bytes = new byte[length];
+       in.get(bytes);
+       return new String(bytes, StandardCharsets.UTF_8);
+   }
+
+   private static void writeDateTime(DataOutput out, LocalDateTime value) throws IOException {
+       out.writeBoolean(value != null);
+       if (value != null) {
+           out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+           out.writeInt(value.getNano());
+       }
+   }
+
+   private static LocalDateTime readDateTime(ByteBuffer in) {
+       if (in.get() == 0) {
+           return null;
+       }
+       long epochSecond = in.getLong();
+       int nano = in.getInt();
+       return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+   }
+
+   private static byte[] encode(Writer writer) {
+       ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+       try (DataOutputStream out = new DataOutputStream(bytes)) {
+           writer.write(out);
+       } catch (IOException e) {
+           throw new UncheckedIOException(e);
+       }
+       return bytes.toByteArray();
+   }
+
+   private interface Writer {
+       void write(DataOutput out) throws IOException;
+   }
+}
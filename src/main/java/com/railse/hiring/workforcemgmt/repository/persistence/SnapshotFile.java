@@ -0,0 +1,142 @@
+package com.railse.hiring.workforcemgmt.repository.persistence;
+
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.Comment;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Point-in-time image of the task store: {@code int magic | int version | long lastLsn}, then one
+ * {@code 1 | task | activities | comments} block per task and a terminating {@code 0} byte.
+ * Snapshots are written to a temporary file and atomically moved into place, and are read back memory-mapped one
+ * window of at most {@value #WINDOW_BYTES} bytes at a time, so their size is not limited by a single mapping.
+ */
+public final class SnapshotFile {
+
+   private static final int MAGIC = 0x54534E50; // "TSNP"
+   private static final int VERSION = 2;
+   private static final int VERSION_WITHOUT_TASK_VERSIONS = 1;
+   private static final String FILE_NAME = "snapshot.bin";
+   private static final int WINDOW_BYTES = 1 << 30;
+
+   private SnapshotFile() {
+   }
+
+   public interface TaskSource {
+       void forEach(Consumer<Entry> action);
+   }
+
+   public record Entry(TaskManagement task, List<Activity> activities, List<Comment> comments) {
+   }
+
+   public interface Loader {
+       void task(TaskManagement task);
+
+       void activity(Activity activity);
+
+       void comment(Comment comment);
+   }
+
+   public static void write(Path directory, long lastLsn, TaskSource tasks) throws IOException {
+       Path target = directory.resolve(FILE_NAME);
+       Path temp = directory.resolve(FILE_NAME + ".tmp");
+       try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+           out.writeInt(MAGIC);
+           out.writeInt(VERSION);
+           out.writeLong(lastLsn);
+           tasks.forEach(entry -> {
+               try {
+                   out.writeByte(1);
+                   RecordCodec.writeTask(out, entry.task());
+                   out.writeInt(entry.activities().size());
+                   for (Activity activity : entry.activities()) {
+                       RecordCodec.writeActivity(out, activity);
+                   }
+                   out.writeInt(entry.comments().size());
+                   for (Comment comment : entry.comments()) {
+                       RecordCodec.writeComment(out, comment);
+                   }
+               } catch (IOException e) {
+                   throw new UncheckedIOException(e);
+               }
+           });
+           out.writeByte(0);
+           out.flush();
+           channel.force(true);
+       }
+       Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+   }
+
+   /** Loads the snapshot, if any, and returns the last LSN it covers (0 when there is none). */
+   public static long read(Path directory, Loader loader) throws IOException {
+       return read(directory, loader, WINDOW_BYTES);
+   }
+
+   // Each task block is decoded whole before it is loaded; one that runs past the end of the window is decoded
+   // again from the start of a window beginning at that block
+   static long read(Path directory, Loader loader, int windowBytes) throws IOException {
+       Path path = directory.resolve(FILE_NAME);
+       if (!Files.exists(path)) {
+           return 0;
+       }
+       try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+           long size = channel.size();
+           long windowStart = 0;
+           ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, windowBytes));
+           int version = in.getInt() == MAGIC ? in.getInt() : -1;
+           if (version != VERSION && version != VERSION_WITHOUT_TASK_VERSIONS) {
+               throw new IOException("Unrecognised snapshot format in " + path);
+           }
+           long lastLsn = in.getLong();
+           while (true) {
+               int blockStart = in.position();
+               Entry entry;
+               try {
+                   if (in.get() != 1) {
+                       return lastLsn;
+                   }
+                   entry = readEntry(in, version);
+               } catch (BufferUnderflowException e) {
+                   if (blockStart == 0 || windowStart + in.limit() == size) {
+                       throw new IOException("Truncated snapshot " + path + " at byte " + (windowStart + blockStart), e);
+                   }
+                   windowStart += blockStart;
+                   in = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(size - windowStart, windowBytes));
+                   continue;
+               }
+               loader.task(entry.task());
+               entry.activities().forEach(loader::activity);
+               entry.comments().forEach(loader::comment);
+           }
+       }
+   }
+
+   private static Entry readEntry(ByteBuffer in, int version) {
+       TaskManagement task = version == VERSION ? RecordCodec.readTask(in) : RecordCodec.readTaskV1(in);
+       List<Activity> activities = new ArrayList<>();
+       for (int i = in.getInt(); i > 0; i--) {
+           activities.add(RecordCodec.readActivity(in));
+       }
+       List<Comment> comments = new ArrayList<>();
+       for (int i = in.getInt(); i > 0; i--) {
+           comments.add(RecordCodec.readComment(in));
+       }
+       return new Entry(task, activities, comments);
+   }
+}
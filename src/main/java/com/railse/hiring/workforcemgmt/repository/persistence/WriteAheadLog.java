@@ -0,0 +1,293 @@
+package com.railse.hiring.workforcemgmt.repository.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Segmented, append-only log with group commit. Appenders enqueue records and wait on the returned future;
+ * a single writer thread drains everything queued so far, writes it with one {@link FileChannel#write} and
+ * makes the whole batch durable with one {@link FileChannel#force}.
+ * <p>
+ * Record layout: {@code int length | long lsn | byte type | payload | int crc32c}, where length and crc cover
+ * lsn, type and payload. Segments are named after the first LSN they may contain.
+ * <p>
+ * A failed write or force leaves the end of the segment in an unknown state, so the log then fails every later
+ * append instead of acknowledging records that recovery might not reach.
+ */
+@Slf4j
+public class WriteAheadLog implements Closeable {
+
+   private static final int MAX_BATCH = 1024;
+   private static final int HEADER_BYTES = Integer.BYTES;
+   private static final int FRAME_OVERHEAD = Long.BYTES + Byte.BYTES;
+
+   private final Path directory;
+   private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+   private final ReentrantLock writeLock = new ReentrantLock();
+   private final Thread writer;
+   private FileChannel segment;
+   private long lastLsn;
+   private volatile boolean closed;
+   private volatile IOException failure;
+
+   public WriteAheadLog(Path directory, long lastRecoveredLsn) {
+       this.directory = directory;
+       this.lastLsn = lastRecoveredLsn;
+       try {
+           Files.createDirectories(directory);
+           openSegment(lastRecoveredLsn + 1);
+       } catch (IOException e) {
+           throw new UncheckedIOException(e);
+       }
+       this.writer = new Thread(this::drain, "wal-writer");
+       this.writer.setDaemon(true);
+       this.writer.start();
+   }
+
+   public CompletableFuture<Long> append(byte type, byte[] payload) {
+       if (closed) {
+           throw new IllegalStateException("Write-ahead log is closed");
+       }
+       if (failure != null) {
+           return CompletableFuture.failedFuture(failure);
+       }
+       PendingWrite write = new PendingWrite(type, payload, new CompletableFuture<>());
+       queue.add(write);
+       // Closed since the check: the writer may already have stopped, so fail the record unless it was taken
+       if (closed && queue.remove(write)) {
+           write.result.completeExceptionally(new IllegalStateException("Write-ahead log is closed"));
+       }
+       return write.result;
+   }
+
+   /**
+    * Starts a new segment and returns the last LSN written to the previous ones. Every record up to that LSN
+    * is durable, so a snapshot taken afterwards can replace those segments.
+    */
+   public long roll() {
+       writeLock.lock();
+       try {
+           segment.force(false);
+           segment.close();
+           openSegment(lastLsn + 1);
+           return lastLsn;
+       } catch (IOException e) {
+           throw new UncheckedIOException(e);
+       } finally {
+           writeLock.unlock();
+       }
+   }
+
+   // Deletes segments that only hold records up to and including the given LSN
+   public void deleteSegmentsUpTo(long lsn) {
+       writeLock.lock();
+       try {
+           List<Path> segments = segments(directory);
+           // A segment is fully covered once the segment after it starts at or below lsn + 1
+           for (int i = 0; i + 1 < segments.size(); i++) {
+               if (startLsnOf(segments.get(i + 1)) <= lsn + 1) {
+                   Files.deleteIfExists(segments.get(i));
+               }
+           }
+       } catch (IOException e) {
+           throw new UncheckedIOException(e);
+       } finally {
+           writeLock.unlock();
+       }
+   }
+
+   /**
+    * Replays every intact record with an LSN greater than {@code afterLsn}, in LSN order, and returns the last
+    * LSN seen. Segments wholly covered by {@code afterLsn} are skipped. The first torn or corrupt record ends the
+    * replay: its segment is truncated there and later segments are set aside as {@code .discarded}, since their
+    * records would follow a gap and the log continues from the last LSN replayed.
+    */
+   public static long replay(Path directory, long afterLsn, Consumer<Entry> consumer) throws IOException {
+       long last = afterLsn;
+       if (!Files.isDirectory(directory)) {
+           return last;
+       }
+       List<Path> segments = segments(directory);
+       for (int i = 0; i < segments.size(); i++) {
+           Path path = segments.get(i);
+           if (i + 1 < segments.size() && startLsnOf(segments.get(i + 1)) <= afterLsn + 1) {
+               continue;
+           }
+           long intactBytes = -1;
+           try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+               MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+               while (buffer.hasRemaining()) {
+                   int recordStart = buffer.position();
+                   int length = buffer.remaining() >= HEADER_BYTES ? buffer.getInt() : -1;
+                   if (length < FRAME_OVERHEAD || length + Integer.BYTES > buffer.remaining()) {
+                       log.warn("Stopping replay of {} at a truncated record at byte {}", path, recordStart);
+                       intactBytes = recordStart;
+                       break;
+                   }
+                   ByteBuffer frame = buffer.slice(buffer.position(), length);
+                   buffer.position(buffer.position() + length);
+                   int crc = buffer.getInt();
+                   if (crc != checksum(frame.duplicate())) {
+                       log.warn("Stopping replay of {} at a corrupt record at byte {}", path, recordStart);
+                       intactBytes = recordStart;
+                       break;
+                   }
+                   long lsn = frame.getLong();
+                   byte type = frame.get();
+                   if (lsn > afterLsn) {
+                       consumer.accept(new Entry(lsn, type, frame.slice()));
+                       last = Math.max(last, lsn);
+                   }
+               }
+           }
+           if (intactBytes >= 0) {
+               discardFrom(path, intactBytes, segments.subList(i + 1, segments.size()));
+               break;
+           }
+       }
+       return last;
+   }
+
+   @Override
+   public void close() {
+       closed = true;
+       try {
+           writer.join();
+       } catch (InterruptedException e) {
+           Thread.currentThread().interrupt();
+       }
+       // Records queued after the writer's last look at the queue
+       for (PendingWrite write; (write = queue.poll()) != null; ) {
+           write.result.completeExceptionally(new IllegalStateException("Write-ahead log is closed"));
+       }
+       writeLock.lock();
+       try {
+           segment.force(false);
+           segment.close();
+       } catch (IOException e) {
+           throw new UncheckedIOException(e);
+       } finally {
+           writeLock.unlock();
+       }
+   }
+
+   private void drain() {
+       List<PendingWrite> batch = new ArrayList<>(MAX_BATCH);
+       while (!closed || !queue.isEmpty()) {
+           try {
+               PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+               if (first == null) {
+                   continue;
+               }
+               batch.add(first);
+               queue.drainTo(batch, MAX_BATCH - 1);
+               commit(batch);
+           } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+               return;
+           } finally {
+               batch.clear();
+           }
+       }
+   }
+
+   private void commit(List<PendingWrite> batch) {
+       if (failure != null) {
+           batch.forEach(write -> write.result.completeExceptionally(failure));
+           return;
+       }
+       long[] lsns = new long[batch.size()];
+       writeLock.lock();
+       try {
+           int size = 0;
+           for (PendingWrite write : batch) {
+               size += HEADER_BYTES + FRAME_OVERHEAD + write.payload.length + Integer.BYTES;
+           }
+           ByteBuffer buffer = ByteBuffer.allocate(size);
+           for (int i = 0; i < batch.size(); i++) {
+               PendingWrite write = batch.get(i);
+               lsns[i] = ++lastLsn;
+               buffer.putInt(FRAME_OVERHEAD + write.payload.length);
+               int frameStart = buffer.position();
+               buffer.putLong(lsns[i]).put(write.type).put(write.payload);
+               buffer.putInt(checksum(buffer.slice(frameStart, buffer.position() - frameStart)));
+           }
+           buffer.flip();
+           while (buffer.hasRemaining()) {
+               segment.write(buffer);
+           }
+           segment.force(false);
+       } catch (IOException e) {
+           log.error("Write-ahead log failed; rejecting every later append", e);
+           failure = e;
+           batch.forEach(write -> write.result.completeExceptionally(e));
+           return;
+       } finally {
+           writeLock.unlock();
+       }
+       for (int i = 0; i < batch.size(); i++) {
+           batch.get(i).result.complete(lsns[i]);
+       }
+   }
+
+   private static void discardFrom(Path segment, long intactBytes, List<Path> laterSegments) throws IOException {
+       try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+           channel.truncate(intactBytes);
+           channel.force(true);
+       }
+       for (Path later : laterSegments) {
+           log.warn("Setting aside {}, whose records follow the end of the replayed log", later);
+           Files.move(later, later.resolveSibling(later.getFileName() + ".discarded"));
+       }
+   }
+
+   // A segment starting after the last recovered LSN can only hold a torn record, so it is safe to truncate
+   private void openSegment(long startLsn) throws IOException {
+       segment = FileChannel.open(directory.resolve(String.format("wal-%020d.log", startLsn)),
+               StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+   }
+
+   private static List<Path> segments(Path directory) throws IOException {
+       try (Stream<Path> files = Files.list(directory)) {
+           return files.filter(path -> path.getFileName().toString().matches("wal-\\d{20}\\.log"))
+                   .sorted()
+                   .toList();
+       }
+   }
+
+   private static long startLsnOf(Path segment) {
+       String name = segment.getFileName().toString();
+       return Long.parseLong(name.substring(4, 24));
+   }
+
+   private static int checksum(ByteBuffer frame) {
+       CRC32C crc = new CRC32C();
+       crc.update(frame);
+       return (int) crc.getValue();
+   }
+
+   public record Entry(long lsn, byte type, ByteBuffer payload) {
+   }
+
+   private record PendingWrite(byte type, byte[] payload, CompletableFuture<Long> result) {
+   }
+}
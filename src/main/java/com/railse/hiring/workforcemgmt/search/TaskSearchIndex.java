@@ -0,0 +1,552 @@
+package com.railse.hiring.workforcemgmt.search;
+
+import com.railse.hiring.workforcemgmt.dto.TaskChangeEvent;
+import com.railse.hiring.workforcemgmt.feed.TaskChangeFeed;
+import com.railse.hiring.workforcemgmt.model.Comment;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskChangeType;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory inverted index over task descriptions and comments. Text is split into lower-cased runs of letters
+ * and digits; each term maps to a posting list of task ids in ascending order. The term dictionary is sorted,
+ * so a prefix query is a range of it. Each assignee has a posting list of their tasks too, and each task keeps
+ * its status and priority, so filters are applied while walking postings, without reading the store.
+ * <p>
+ * Descriptions and filter fields follow the change feed: each event re-reads its task and moves the task's
+ * description terms to the new text. Comments are added by the service as they are recorded and never removed.
+ * Queries are ANDs of their terms; a term ending in {@code *} matches every term with that prefix. Results come
+ * newest task first.
+ * <p>
+ * Writers only queue the task id (or a comment's terms) on a bounded queue, and a single indexer thread applies
+ * them in batches, so request threads never wait for the index lock; a full queue makes them wait for room. The
+ * same thread builds the index from the store first, so startup does not wait for it either. Searches are
+ * eventually consistent: a change shows up once the indexer gets to it, and a search during the initial build
+ * sees only the tasks loaded so far.
+ */
+@Slf4j
+@Component
+public class TaskSearchIndex implements MeterBinder {
+
+   public static final int MIN_TERM_LENGTH = 2;
+   static final int MAX_TERM_LENGTH = 40;
+   private static final int LOAD_BATCH = 10_000;
+   private static final int APPLY_BATCH = 1_000;
+
+   private final TaskRepository taskRepository;
+   private final BlockingQueue<Update> updates;
+   private final Thread indexer;
+   // Taken for writing by the indexer thread only
+   private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+   private final NavigableMap<String, Postings> terms = new TreeMap<>();
+   private final Map<Long, Postings> byAssignee = new HashMap<>();
+   private final Map<Long, Document> documents = new HashMap<>();
+
+   public TaskSearchIndex(TaskRepository taskRepository, TaskChangeFeed changeFeed,
+                          @Value("${task.search.queue-capacity:65536}") int queueCapacity) {
+       this.taskRepository = taskRepository;
+       this.updates = new ArrayBlockingQueue<>(queueCapacity);
+       // Listening before the load means a change made while it runs is applied again after it
+       changeFeed.addListener(this::onChange);
+       this.indexer = new Thread(this::run, "task-search-indexer");
+       indexer.setDaemon(true);
+       indexer.start();
+   }
+
+   @PreDestroy
+   public void close() {
+       indexer.interrupt();
+   }
+
+   /**
+    * Ids of up to limit tasks containing every query term (prefix terms: any term with that prefix) in their
+    * description or comments, newest first. Null filters match anything. A query with no terms matches nothing.
+    */
+   public List<Long> search(String query, Long assigneeId, TaskStatus status, Priority priority, int limit) {
+       List<QueryTerm> queryTerms = parse(query);
+       if (queryTerms.isEmpty() || limit <= 0) {
+           return List.of();
+       }
+       return read(() -> {
+           List<Matcher> matchers = new ArrayList<>(queryTerms.size() + 1);
+           for (QueryTerm term : queryTerms) {
+               matchers.add(matcher(term));
+           }
+           // An assignee has few tasks, so its list usually drives the walk instead of a common term's
+           if (assigneeId != null) {
+               matchers.add(byAssignee.getOrDefault(assigneeId, Postings.EMPTY));
+           }
+           matchers.sort(Comparator.comparingLong(Matcher::size));
+           if (matchers.get(0).size() == 0) {
+               return List.of();
+           }
+           List<Long> ids = new ArrayList<>(Math.min(limit, 64));
+           Cursor cursor = matchers.get(0).descending();
+           for (long id = cursor.next(); id > 0 && ids.size() < limit; id = cursor.next()) {
+               if (matchesAll(matchers, id) && documents.get(id).matches(status, priority)) {
+                   ids.add(id);
+               }
+           }
+           return ids;
+       });
+   }
+
+   // False when no word of the query is long enough to be a term, so the query can match nothing
+   public static boolean isSearchable(String query) {
+       return !parse(query).isEmpty();
+   }
+
+   public void addComment(Long taskId, String comment) {
+       enqueue(new Update(taskId, tokenize(comment), null));
+   }
+
+   // Waits until the initial build and every update queued before the call are applied; for tests and benchmarks
+   public void flush() throws InterruptedException {
+       CountDownLatch applied = new CountDownLatch(1);
+       updates.put(new Update(null, null, applied));
+       applied.await();
+   }
+
+   public int documentCount() {
+       return read(documents::size);
+   }
+
+   public int termCount() {
+       return read(terms::size);
+   }
+
+   public int pendingCount() {
+       return updates.size();
+   }
+
+   @Override
+   public void bindTo(MeterRegistry registry) {
+       Gauge.builder("task.search.documents", this, TaskSearchIndex::documentCount)
+               .description("Tasks in the full-text search index")
+               .register(registry);
+       Gauge.builder("task.search.terms", this, TaskSearchIndex::termCount)
+               .description("Distinct terms in the full-text search index")
+               .register(registry);
+       Gauge.builder("task.search.pending", this, TaskSearchIndex::pendingCount)
+               .description("Task changes and comments waiting to be indexed")
+               .register(registry);
+   }
+
+   // Distinct terms of the text in order of first appearance
+   static List<String> tokenize(String text) {
+       if (text == null || text.isEmpty()) {
+           return List.of();
+       }
+       Set<String> tokens = new LinkedHashSet<>();
+       int start = -1;
+       for (int i = 0; i <= text.length(); i++) {
+           boolean termChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+           if (termChar && start < 0) {
+               start = i;
+           } else if (!termChar && start >= 0) {
+               if (i - start >= MIN_TERM_LENGTH) {
+                   tokens.add(text.substring(start, Math.min(i, start + MAX_TERM_LENGTH)).toLowerCase(Locale.ROOT));
+               }
+               start = -1;
+           }
+       }
+       return new ArrayList<>(tokens);
+   }
+
+   // Whitespace-separated words; a trailing * makes the word's last term a prefix
+   static List<QueryTerm> parse(String query) {
+       List<QueryTerm> queryTerms = new ArrayList<>();
+       if (query == null) {
+           return queryTerms;
+       }
+       for (String word : query.trim().split("\\s+")) {
+           boolean prefix = word.endsWith("*");
+           List<String> wordTerms = tokenize(prefix ? word.substring(0, word.length() - 1) : word);
+           for (int i = 0; i < wordTerms.size(); i++) {
+               queryTerms.add(new QueryTerm(wordTerms.get(i), prefix && i == wordTerms.size() - 1));
+           }
+       }
+       return queryTerms;
+   }
+
+   private void onChange(TaskChangeEvent event) {
+       if (event.getType() == TaskChangeType.OVERDUE || event.getType() == TaskChangeType.COMMENTED) {
+           return;
+       }
+       enqueue(new Update(event.getTaskId(), null, null));
+   }
+
+   private void enqueue(Update update) {
+       try {
+           updates.put(update);
+       } catch (InterruptedException e) {
+           Thread.currentThread().interrupt();
+           throw new IllegalStateException("Interrupted while queueing a search index update", e);
+       }
+   }
+
+   private void run() {
+       try {
+           load();
+       } catch (RuntimeException e) {
+           log.error("Building the search index failed; it only holds tasks changed from now on", e);
+       }
+       List<Update> batch = new ArrayList<>(APPLY_BATCH);
+       try {
+           while (true) {
+               batch.add(updates.take());
+               updates.drainTo(batch, APPLY_BATCH - 1);
+               try {
+                   apply(batch);
+               } catch (RuntimeException e) {
+                   log.error("Applying {} search index updates failed", batch.size(), e);
+               }
+               for (Update update : batch) {
+                   if (update.applied() != null) {
+                       update.applied().countDown();
+                   }
+               }
+               batch.clear();
+           }
+       } catch (InterruptedException e) {
+           Thread.currentThread().interrupt();
+       }
+   }
+
+   // Tasks are read outside the lock: this thread is the only writer, and it reads them after they changed
+   private void apply(List<Update> batch) {
+       Set<Long> taskIds = new LinkedHashSet<>();
+       for (Update update : batch) {
+           if (update.taskId() != null) {
+               taskIds.add(update.taskId());
+           }
+       }
+       Map<Long, TaskManagement> tasks = taskIds.isEmpty() ? Map.of() : taskRepository.findAllById(taskIds);
+       write(() -> {
+           for (Update update : batch) {
+               if (update.taskId() == null) {
+                   continue;
+               }
+               TaskManagement task = tasks.get(update.taskId());
+               if (update.commentTerms() == null) {
+                   index(update.taskId(), task);
+                   continue;
+               }
+               Document document = documents.get(update.taskId());
+               if (document == null) {
+                   document = index(update.taskId(), task);
+               }
+               if (document != null) {
+                   for (String term : update.commentTerms()) {
+                       addPosting(term, update.taskId());
+                   }
+               }
+           }
+           return null;
+       });
+   }
+
+   private void load() {
+       long afterId = 0;
+       List<TaskManagement> page;
+       do {
+           page = taskRepository.findPage(afterId, LOAD_BATCH);
+           List<TaskManagement> batch = page;
+           List<List<String>> commentTerms = new ArrayList<>(batch.size());
+           for (TaskManagement task : batch) {
+               List<String> taskTerms = new ArrayList<>();
+               for (Comment comment : taskRepository.findComments(task.getId(), 0, Integer.MAX_VALUE)) {
+                   taskTerms.addAll(tokenize(comment.getComment()));
+               }
+               commentTerms.add(taskTerms);
+           }
+           // Searches only wait for the index changes, not for the store reads above
+           write(() -> {
+               for (int i = 0; i < batch.size(); i++) {
+                   TaskManagement task = batch.get(i);
+                   index(task.getId(), task);
+                   for (String term : commentTerms.get(i)) {
+                       addPosting(term, task.getId());
+                   }
+               }
+               return null;
+           });
+           if (!page.isEmpty()) {
+               afterId = page.get(page.size() - 1).getId();
+           }
+       } while (page.size() == LOAD_BATCH);
+   }
+
+   // Caller holds the write lock; brings the task's description terms and filter fields up to date
+   private Document index(Long taskId, TaskManagement task) {
+       if (task == null) {
+           return null;
+       }
+       Document previous = documents.get(taskId);
+       String[] previousTerms = previous == null ? new String[0] : previous.descriptionTerms();
+       String[] currentTerms = tokenize(task.getDescription()).toArray(new String[0]);
+       if (Arrays.equals(currentTerms, previousTerms)) {
+           currentTerms = previousTerms;
+       } else {
+           Set<String> kept = Set.of(currentTerms);
+           Set<String> old = Set.of(previousTerms);
+           for (String term : previousTerms) {
+               if (!kept.contains(term)) {
+                   removePosting(terms, term, taskId);
+               }
+           }
+           // Documents share the dictionary's copy of each term
+           for (int i = 0; i < currentTerms.length; i++) {
+               Postings postings = old.contains(currentTerms[i]) ? terms.get(currentTerms[i]) : addPosting(currentTerms[i], taskId);
+               currentTerms[i] = postings.term;
+           }
+       }
+       Long previousAssignee = previous == null ? null : previous.assigneeId();
+       if (!Objects.equals(previousAssignee, task.getAssigneeId())) {
+           if (previousAssignee != null) {
+               removePosting(byAssignee, previousAssignee, taskId);
+           }
+           if (task.getAssigneeId() != null) {
+               byAssignee.computeIfAbsent(task.getAssigneeId(), key -> new Postings(null)).add(taskId);
+           }
+       }
+       Document document = new Document(currentTerms, task.getAssigneeId(), task.getStatus(), task.getPriority());
+       documents.put(taskId, document);
+       return document;
+   }
+
+   private Postings addPosting(String term, long taskId) {
+       Postings postings = terms.computeIfAbsent(term, Postings::new);
+       postings.add(taskId);
+       return postings;
+   }
+
+   private static <K> void removePosting(Map<K, Postings> lists, K key, long taskId) {
+       Postings postings = lists.get(key);
+       if (postings != null && postings.remove(taskId) && postings.size() == 0) {
+           lists.remove(key);
+       }
+   }
+
+   private Matcher matcher(QueryTerm term) {
+       if (!term.prefix()) {
+           Postings postings = terms.get(term.text());
+           return postings == null ? Postings.EMPTY : postings;
+       }
+       List<Postings> expansions = new ArrayList<>(terms.subMap(term.text(), true, term.text() + Character.MAX_VALUE, true).values());
+       if (expansions.isEmpty()) {
+           return Postings.EMPTY;
+       }
+       return expansions.size() == 1 ? expansions.get(0) : new Expansion(expansions);
+   }
+
+   // The first matcher drives the walk, so only the rest are checked
+   private static boolean matchesAll(List<Matcher> matchers, long id) {
+       for (int m = 1; m < matchers.size(); m++) {
+           if (!matchers.get(m).contains(id)) {
+               return false;
+           }
+       }
+       return true;
+   }
+
+   private <T> T read(Supplier<T> action) {
+       lock.readLock().lock();
+       try {
+           return action.get();
+       } finally {
+           lock.readLock().unlock();
+       }
+   }
+
+   private <T> T write(Supplier<T> action) {
+       lock.writeLock().lock();
+       try {
+           return action.get();
+       } finally {
+           lock.writeLock().unlock();
+       }
+   }
+
+   record QueryTerm(String text, boolean prefix) {
+   }
+
+   // A task to re-read (commentTerms null), a comment's terms, or with only applied set, a flush marker
+   private record Update(Long taskId, List<String> commentTerms, CountDownLatch applied) {
+   }
+
+   private record Document(String[] descriptionTerms, Long assigneeId, TaskStatus status, Priority priority) {
+       boolean matches(TaskStatus status, Priority priority) {
+           return (status == null || status == this.status)
+                   && (priority == null || priority == this.priority);
+       }
+   }
+
+   private interface Matcher {
+       // Ids in the list, or for an expansion the sum over its terms
+       long size();
+
+       boolean contains(long id);
+
+       Cursor descending();
+   }
+
+   // Distinct ids from highest to lowest, then 0
+   private interface Cursor {
+       long next();
+   }
+
+   /**
+    * The terms a prefix expands to. Walking it merges their lists from the top, so a query that fills its limit
+    * early reads only the newest entries of each; membership is a search of every list.
+    */
+   private static final class Expansion implements Matcher {
+       private final List<Postings> lists;
+       private final long size;
+
+       Expansion(List<Postings> lists) {
+           this.lists = lists;
+           this.size = lists.stream().mapToLong(Postings::size).sum();
+       }
+
+       @Override
+       public long size() {
+           return size;
+       }
+
+       @Override
+       public boolean contains(long id) {
+           for (Postings list : lists) {
+               if (list.contains(id)) {
+                   return true;
+               }
+           }
+           return false;
+       }
+
+       @Override
+       public Cursor descending() {
+           int[] positions = new int[lists.size()];
+           PriorityQueue<Integer> heads = new PriorityQueue<>(lists.size(),
+                   (a, b) -> Long.compare(lists.get(b).idAt(positions[b]), lists.get(a).idAt(positions[a])));
+           for (int i = 0; i < lists.size(); i++) {
+               positions[i] = lists.get(i).size - 1;
+               heads.add(i);
+           }
+           return () -> {
+               long id = 0;
+               while (!heads.isEmpty() && (id == 0 || lists.get(heads.peek()).idAt(positions[heads.peek()]) == id)) {
+                   int list = heads.poll();
+                   id = lists.get(list).idAt(positions[list]--);
+                   if (positions[list] >= 0) {
+                       heads.add(list);
+                   }
+               }
+               return id;
+           };
+       }
+   }
+
+   /**
+    * Sorted task ids with how many of the task's fields (its description, each comment) contain the term, so a
+    * description edit only drops the task once no comment holds the term either. New tasks have the highest ids,
+    * so adding is normally an append.
+    */
+   private static final class Postings implements Matcher {
+       static final Postings EMPTY = new Postings(null, new long[0], new int[0], 0);
+
+       final String term;
+       private long[] ids;
+       private int[] counts;
+       private int size;
+
+       Postings(String term) {
+           this(term, new long[2], new int[2], 0);
+       }
+
+       private Postings(String term, long[] ids, int[] counts, int size) {
+           this.term = term;
+           this.ids = ids;
+           this.counts = counts;
+           this.size = size;
+       }
+
+       void add(long id) {
+           int index = size == 0 || ids[size - 1] < id ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+           if (index >= 0) {
+               counts[index]++;
+               return;
+           }
+           int insertAt = -(index + 1);
+           if (size == ids.length) {
+               ids = Arrays.copyOf(ids, size * 2);
+               counts = Arrays.copyOf(counts, size * 2);
+           }
+           System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+           System.arraycopy(counts, insertAt, counts, insertAt + 1, size - insertAt);
+           ids[insertAt] = id;
+           counts[insertAt] = 1;
+           size++;
+       }
+
+       // True if the id left the list
+       boolean remove(long id) {
+           int index = Arrays.binarySearch(ids, 0, size, id);
+           if (index < 0 || --counts[index] > 0) {
+               return false;
+           }
+           System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+           System.arraycopy(counts, index + 1, counts, index, size - index - 1);
+           size--;
+           return true;
+       }
+
+       @Override
+       public long size() {
+           return size;
+       }
+
+       long idAt(int index) {
+           return ids[index];
+       }
+
+       @Override
+       public Cursor descending() {
+           int[] position = {size - 1};
+           return () -> position[0] >= 0 ? ids[position[0]--] : 0;
+       }
+
+       @Override
+       public boolean contains(long id) {
+           return Arrays.binarySearch(ids, 0, size, id) >= 0;
+       }
+   }
+}
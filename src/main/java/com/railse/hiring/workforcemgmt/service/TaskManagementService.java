@@ -1,18 +1,41 @@
 package com.railse.hiring.workforcemgmt.service;
 
 import com.railse.hiring.workforcemgmt.dto.*;
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.Comment;
 import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface TaskManagementService {
    List<TaskManagementDto> createTasks(TaskCreateRequest request);
    List<TaskManagementDto> updateTasks(UpdateTaskRequest request);
    String assignByReference(AssignByReferenceRequest request);
+   // Processes references in parallel; results are in request order and one failure doesn't stop the rest
+   List<AssignByReferenceResult> assignByReferenceBulk(BulkAssignByReferenceRequest request);
    List<TaskManagementDto> fetchTasksByDate(TaskFetchByDateRequest request);
    TaskManagementDto findTaskById(Long id);
-   List<TaskManagementDto> getAllTasks();
+   // The task DTO as pre-serialized JSON, for writing straight into a response
+   SerializedTask findTaskJsonById(Long id);
+   PagedResult<TaskManagementDto> getTasksPage(String cursor, Integer pageSize);
+   void streamAllTasks(Consumer<TaskManagementDto> sink);
    List<TaskManagementDto> fetchTasksByPriority(Priority priority);
-   void updateTaskPriority(PriorityUpdateRequest request);
-   void addCommentToTask(CommentRequest request);
+   // Open tasks past their deadline, most overdue first, one page at a time; every assignee's when assigneeId is null
+   PagedResult<TaskManagementDto> fetchOverdueTasks(Long assigneeId, String cursor, Integer pageSize);
+   // Tasks whose description or comments contain every word of the query (word* for a prefix), newest first
+   List<TaskManagementDto> searchTasks(String query, Long assigneeId, TaskStatus status, Priority priority, Integer limit);
+   // Tasks matching every filter of the request, sorted and limited as it asks
+   List<TaskManagementDto> queryTasks(TaskQueryRequest request);
+   // Read from the store's running counters; every task when assigneeId is null
+   TaskCountSummary getTaskCounts(Long assigneeId);
+   // Completions per day in [startDate, endDate]; endDate defaults to today and startDate to a week before it
+   List<DailyCount> getCompletedPerDay(LocalDate startDate, LocalDate endDate);
+   // Conditional when expectedVersion is set; both return the task's version after the write
+   long updateTaskPriority(PriorityUpdateRequest request, Long expectedVersion);
+   long addCommentToTask(CommentRequest request, Long expectedVersion);
+   PagedResult<Activity> getTaskActivities(Long taskId, String cursor, Integer pageSize);
+   PagedResult<Comment> getTaskComments(Long taskId, String cursor, Integer pageSize);
 }
@@ -0,0 +1,277 @@
+package com.railse.hiring.workforcemgmt.service.impl;
+
+import com.railse.hiring.workforcemgmt.dto.*;
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.Comment;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.service.TaskManagementService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Times every {@link TaskManagementService} call into a per-method histogram. Timers are registered once up
+ * front and calls are measured with {@link System#nanoTime()}, so the recording path allocates nothing.
+ */
+@Primary
+@Service
+public class MeteredTaskManagementService implements TaskManagementService {
+
+   private static final String TIMER_NAME = "task.service.calls";
+
+   private final TaskManagementService delegate;
+   private final Timer createTasks;
+   private final Timer updateTasks;
+   private final Timer assignByReference;
+   private final Timer assignByReferenceBulk;
+   private final Timer fetchTasksByDate;
+   private final Timer findTaskById;
+   private final Timer findTaskJsonById;
+   private final Timer getTasksPage;
+   private final Timer streamAllTasks;
+   private final Timer fetchTasksByPriority;
+   private final Timer fetchOverdueTasks;
+   private final Timer searchTasks;
+   private final Timer queryTasks;
+   private final Timer getTaskCounts;
+   private final Timer getCompletedPerDay;
+   private final Timer updateTaskPriority;
+   private final Timer addCommentToTask;
+   private final Timer getTaskActivities;
+   private final Timer getTaskComments;
+
+   public MeteredTaskManagementService(TaskManagementServiceImpl delegate, MeterRegistry registry) {
+       this.delegate = delegate;
+       this.createTasks = timer(registry, "createTasks");
+       this.updateTasks = timer(registry, "updateTasks");
+       this.assignByReference = timer(registry, "assignByReference");
+       this.assignByReferenceBulk = timer(registry, "assignByReferenceBulk");
+       this.fetchTasksByDate = timer(registry, "fetchTasksByDate");
+       this.findTaskById = timer(registry, "findTaskById");
+       this.findTaskJsonById = timer(registry, "findTaskJsonById");
+       this.getTasksPage = timer(registry, "getTasksPage");
+       this.streamAllTasks = timer(registry, "streamAllTasks");
+       this.fetchTasksByPriority = timer(registry, "fetchTasksByPriority");
+       this.fetchOverdueTasks = timer(registry, "fetchOverdueTasks");
+       this.searchTasks = timer(registry, "searchTasks");
+       this.queryTasks = timer(registry, "queryTasks");
+       this.getTaskCounts = timer(registry, "getTaskCounts");
+       this.getCompletedPerDay = timer(registry, "getCompletedPerDay");
+       this.updateTaskPriority = timer(registry, "updateTaskPriority");
+       this.addCommentToTask = timer(registry, "addCommentToTask");
+       this.getTaskActivities = timer(registry, "getTaskActivities");
+       this.getTaskComments = timer(registry, "getTaskComments");
+   }
+
+   private static Timer timer(MeterRegistry registry, String method) {
+       return Timer.builder(TIMER_NAME)
+               .description("Latency of task management service calls")
+               .tag("method", method)
+               .publishPercentileHistogram()
+               .minimumExpectedValue(Duration.ofNanos(50_000))
+               .maximumExpectedValue(Duration.ofSeconds(10))
+               .register(registry);
+   }
+
+   @Override
+   public List<TaskManagementDto> createTasks(TaskCreateRequest request) {
+       long start = System.nanoTime();
+       try {
+           return delegate.createTasks(request);
+       } finally {
+           stop(createTasks, start);
+       }
+   }
+
+   @Override
+   public List<TaskManagementDto> updateTasks(UpdateTaskRequest request) {
+       long start = System.nanoTime();
+       try {
+           return delegate.updateTasks(request);
+       } finally {
+           stop(updateTasks, start);
+       }
+   }
+
+   @Override
+   public String assignByReference(AssignByReferenceRequest request) {
+       long start = System.nanoTime();
+       try {
+           return delegate.assignByReference(request);
+       } finally {
+           stop(assignByReference, start);
+       }
+   }
+
+   @Override
+   public List<AssignByReferenceResult> assignByReferenceBulk(BulkAssignByReferenceRequest request) {
+       long start = System.nanoTime();
+       try {
+           return delegate.assignByReferenceBulk(request);
+       } finally {
+           stop(assignByReferenceBulk, start);
+       }
+   }
+
+   @Override
+   public List<TaskManagementDto> fetchTasksByDate(TaskFetchByDateRequest request) {
+       long start = System.nanoTime();
+       try {
+           return delegate.fetchTasksByDate(request);
+       } finally {
+           stop(fetchTasksByDate, start);
+       }
+   }
+
+   @Override
+   public TaskManagementDto findTaskById(Long id) {
+       long start = System.nanoTime();
+       try {
+           return delegate.findTaskById(id);
+       } finally {
+           stop(findTaskById, start);
+       }
+   }
+
+   @Override
+   public SerializedTask findTaskJsonById(Long id) {
+       long start = System.nanoTime();
+       try {
+           return delegate.findTaskJsonById(id);
+       } finally {
+           stop(findTaskJsonById, start);
+       }
+   }
+
+   @Override
+   public PagedResult<TaskManagementDto> getTasksPage(String cursor, Integer pageSize) {
+       long start = System.nanoTime();
+       try {
+           return delegate.getTasksPage(cursor, pageSize);
+       } finally {
+           stop(getTasksPage, start);
+       }
+   }
+
+   @Override
+   public void streamAllTasks(Consumer<TaskManagementDto> sink) {
+       long start = System.nanoTime();
+       try {
+           delegate.streamAllTasks(sink);
+       } finally {
+           stop(streamAllTasks, start);
+       }
+   }
+
+   @Override
+   public List<TaskManagementDto> fetchTasksByPriority(Priority priority) {
+       long start = System.nanoTime();
+       try {
+           return delegate.fetchTasksByPriority(priority);
+       } finally {
+           stop(fetchTasksByPriority, start);
+       }
+   }
+
+   @Override
+   public PagedResult<TaskManagementDto> fetchOverdueTasks(Long assigneeId, String cursor, Integer pageSize) {
+       long start = System.nanoTime();
+       try {
+           return delegate.fetchOverdueTasks(assigneeId, cursor, pageSize);
+       } finally {
+           stop(fetchOverdueTasks, start);
+       }
+   }
+
+   @Override
+   public List<TaskManagementDto> searchTasks(String query, Long assigneeId, TaskStatus status, Priority priority, Integer limit) {
+       long start = System.nanoTime();
+       try {
+           return delegate.searchTasks(query, assigneeId, status, priority, limit);
+       } finally {
+           stop(searchTasks, start);
+       }
+   }
+
+   @Override
+   public List<TaskManagementDto> queryTasks(TaskQueryRequest request) {
+       long start = System.nanoTime();
+       try {
+           return delegate.queryTasks(request);
+       } finally {
+           stop(queryTasks, start);
+       }
+   }
+
+   @Override
+   public TaskCountSummary getTaskCounts(Long assigneeId) {
+       long start = System.nanoTime();
+       try {
+           return delegate.getTaskCounts(assigneeId);
+       } finally {
+           stop(getTaskCounts, start);
+       }
+   }
+
+   @Override
+   public List<DailyCount> getCompletedPerDay(LocalDate startDate, LocalDate endDate) {
+       long start = System.nanoTime();
+       try {
+           return delegate.getCompletedPerDay(startDate, endDate);
+       } finally {
+           stop(getCompletedPerDay, start);
+       }
+   }
+
+   @Override
+   public long updateTaskPriority(PriorityUpdateRequest request, Long expectedVersion) {
+       long start = System.nanoTime();
+       try {
+           return delegate.updateTaskPriority(request, expectedVersion);
+       } finally {
+           stop(updateTaskPriority, start);
+       }
+   }
+
+   @Override
+   public long addCommentToTask(CommentRequest request, Long expectedVersion) {
+       long start = System.nanoTime();
+       try {
+           return delegate.addCommentToTask(request, expectedVersion);
+       } finally {
+           stop(addCommentToTask, start);
+       }
+   }
+
+   @Override
+   public PagedResult<Activity> getTaskActivities(Long taskId, String cursor, Integer pageSize) {
+       long start = System.nanoTime();
+       try {
+           return delegate.getTaskActivities(taskId, cursor, pageSize);
+       } finally {
+           stop(getTaskActivities, start);
+       }
+   }
+
+   @Override
+   public PagedResult<Comment> getTaskComments(Long taskId, String cursor, Integer pageSize) {
+       long start = System.nanoTime();
+       try {
+           return delegate.getTaskComments(taskId, cursor, pageSize);
+       } finally {
+           stop(getTaskComments, start);
+       }
+   }
+
+   private static void stop(Timer timer, long start) {
+       timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+   }
+}
@@ -1,51 +1,180 @@
 package com.railse.hiring.workforcemgmt.service.impl;
 
+import com.railse.hiring.workforcemgmt.cache.TaskDtoCache;
+import com.railse.hiring.workforcemgmt.common.concurrent.StripedLock;
+import com.railse.hiring.workforcemgmt.common.exception.BadRequestException;
 import com.railse.hiring.workforcemgmt.common.exception.ResourceNotFoundException;
+import com.railse.hiring.workforcemgmt.common.exception.VersionConflictException;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.common.model.response.Pagination;
+import com.railse.hiring.workforcemgmt.deadline.TaskDeadlineTracker;
 import com.railse.hiring.workforcemgmt.dto.*;
+import com.railse.hiring.workforcemgmt.feed.TaskChangeFeed;
+import com.railse.hiring.workforcemgmt.history.TaskHistoryWriter;
 import com.railse.hiring.workforcemgmt.mapper.ITaskManagementMapper;
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.Comment;
 import com.railse.hiring.workforcemgmt.model.TaskManagement;
 import com.railse.hiring.workforcemgmt.model.enums.Priority;
 import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskChangeType;
 import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
-import com.railse.hiring.workforcemgmt.repository.InMemoryTaskRepository;
+import com.railse.hiring.workforcemgmt.query.TaskQuery;
+import com.railse.hiring.workforcemgmt.query.TaskQueryIndex;
 import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import com.railse.hiring.workforcemgmt.repository.TaskStatistics;
+import com.railse.hiring.workforcemgmt.search.TaskSearchIndex;
 import com.railse.hiring.workforcemgmt.service.TaskManagementService;
+import jakarta.annotation.PreDestroy;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 public class TaskManagementServiceImpl implements TaskManagementService {
 
+   private static final int DEFAULT_PAGE_SIZE = 100;
+   private static final int MAX_PAGE_SIZE = 1000;
+   private static final int STREAM_BATCH_SIZE = 500;
+   private static final int RECENT_HISTORY_SIZE = 3;
+   private static final int DEFAULT_STATS_DAYS = 7;
+   private static final int MAX_STATS_DAYS = 366;
+   private static final String NO_PRIORITY = "NONE";
+   // Every priority, then null for the tasks without one
+   private static final Priority[] PRIORITY_SLOTS = Arrays.copyOf(Priority.values(), Priority.values().length + 1);
+
    private final TaskRepository taskRepository;
-   private final InMemoryTaskRepository inMemoryTaskRepository;
    private final ITaskManagementMapper taskMapper;
+   private final TaskDtoCache taskDtoCache;
+   private final TaskChangeFeed changeFeed;
+   private final TaskDeadlineTracker deadlineTracker;
+   private final TaskHistoryWriter historyWriter;
+   private final TaskSearchIndex searchIndex;
+   private final TaskQueryIndex queryIndex;
+   // Bulk assign-by-reference chunks, one thread per core; kept apart from the request and async MVC threads
+   private final ExecutorService fanOutExecutor = fanOutPool();
+   // Serializes assign-by-reference per (referenceType, referenceId) so concurrent calls can't both create or keep a task
+   private final StripedLock referenceLocks = new StripedLock(1024);
 
-   public TaskManagementServiceImpl(InMemoryTaskRepository taskRepository, ITaskManagementMapper taskMapper) {
+   public TaskManagementServiceImpl(TaskRepository taskRepository, ITaskManagementMapper taskMapper, TaskDtoCache taskDtoCache,
+                                    TaskChangeFeed changeFeed, TaskDeadlineTracker deadlineTracker, TaskHistoryWriter historyWriter,
+                                    TaskSearchIndex searchIndex, TaskQueryIndex queryIndex) {
        this.taskRepository = taskRepository;
-       this.inMemoryTaskRepository = taskRepository;
        this.taskMapper = taskMapper;
+       this.taskDtoCache = taskDtoCache;
+       this.changeFeed = changeFeed;
+       this.deadlineTracker = deadlineTracker;
+       this.historyWriter = historyWriter;
+       this.searchIndex = searchIndex;
+       this.queryIndex = queryIndex;
+   }
+
+   @PreDestroy
+   public void close() {
+       fanOutExecutor.shutdown();
    }
 
    @Override
    public TaskManagementDto findTaskById(Long id) {
        TaskManagement task = taskRepository.findById(id)
                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
-       return taskMapper.modelToDto(task);
+       return toDto(task);
+   }
+
+   @Override
+   public SerializedTask findTaskJsonById(Long id) {
+       TaskManagement task = taskRepository.findById(id)
+               .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
+       int activityCount = taskRepository.countActivities(id);
+       int commentCount = taskRepository.countComments(id);
+       TaskDtoCache.CachedTask cached = taskDtoCache.getWithJson(id, stampOf(task, activityCount, commentCount),
+               () -> buildDto(task, activityCount, commentCount));
+       TaskDtoCache.Stamp stamp = cached.stamp();
+       return new SerializedTask(stamp.version(), stamp.activityCount(), stamp.commentCount(), cached.json());
+   }
+
+   @Override
+   public PagedResult<TaskManagementDto> getTasksPage(String cursor, Integer pageSize) {
+       int size = pageSizeOf(pageSize);
+       long afterId = positionOf(cursor);
+
+       // Fetch one extra task to learn whether another page exists
+       List<TaskManagement> tasks = taskRepository.findPage(afterId, size + 1);
+       boolean hasNext = tasks.size() > size;
+       if (hasNext) {
+           tasks = tasks.subList(0, size);
+       }
+       String nextCursor = hasNext ? Pagination.encodeCursor(tasks.get(tasks.size() - 1).getId()) : null;
+       return new PagedResult<>(toDtos(tasks), new Pagination(nextCursor, size, hasNext));
    }
 
    @Override
-   public List<TaskManagementDto> getAllTasks() {
-       List<TaskManagement> allTasks = taskRepository.findAll();
-       return taskMapper.modelListToDtoList(allTasks);
+   public PagedResult<Activity> getTaskActivities(Long taskId, String cursor, Integer pageSize) {
+       requireTask(taskId);
+       int size = pageSizeOf(pageSize);
+       int offset = (int) positionOf(cursor);
+       List<Activity> activities = taskRepository.findActivities(taskId, offset, size);
+       return new PagedResult<>(activities, historyPagination(offset, size, activities.size(), taskRepository.countActivities(taskId)));
+   }
+
+   @Override
+   public PagedResult<Comment> getTaskComments(Long taskId, String cursor, Integer pageSize) {
+       requireTask(taskId);
+       int size = pageSizeOf(pageSize);
+       int offset = (int) positionOf(cursor);
+       List<Comment> comments = taskRepository.findComments(taskId, offset, size);
+       return new PagedResult<>(comments, historyPagination(offset, size, comments.size(), taskRepository.countComments(taskId)));
+   }
+
+   private Pagination historyPagination(int offset, int size, int returned, int total) {
+       boolean hasNext = offset + returned < total;
+       return new Pagination(hasNext ? Pagination.encodeCursor(offset + returned) : null, size, hasNext);
+   }
+
+   private void requireTask(Long taskId) {
+       taskRepository.findById(taskId)
+               .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
+   }
+
+   private static int pageSizeOf(Integer pageSize) {
+       return pageSize == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE);
+   }
+
+   private static long positionOf(String cursor) {
+       return cursor == null || cursor.isEmpty() ? 0 : Pagination.decodeCursor(cursor);
+   }
+
+   @Override
+   public void streamAllTasks(Consumer<TaskManagementDto> sink) {
+       long afterId = 0;
+       List<TaskManagement> page;
+       do {
+           page = taskRepository.findPage(afterId, STREAM_BATCH_SIZE);
+           for (TaskManagement task : page) {
+               sink.accept(toDto(task));
+               afterId = task.getId();
+           }
+       } while (page.size() == STREAM_BATCH_SIZE);
    }
 
    @Override
    public List<TaskManagementDto> createTasks(TaskCreateRequest createRequest) {
-       List<TaskManagement> createdTasks = new ArrayList<>();
+       List<TaskManagement> newTasks = new ArrayList<>(createRequest.getRequests().size());
        for (TaskCreateRequest.RequestItem item : createRequest.getRequests()) {
            TaskManagement newTask = new TaskManagement();
            newTask.setReferenceId(item.getReferenceId());
@@ -56,34 +185,119 @@ public class TaskManagementServiceImpl implements TaskManagementService {
            newTask.setTaskDeadlineTime(item.getTaskDeadlineTime());
            newTask.setStatus(TaskStatus.ASSIGNED);
            newTask.setDescription("New task created.");
-           taskRepository.save(newTask);
-           inMemoryTaskRepository.addActivity(newTask, "Task created", item.getAssigneeId());
-           createdTasks.add(newTask);
+           newTasks.add(newTask);
        }
-       return taskMapper.modelListToDtoList(createdTasks);
+       taskRepository.saveAll(newTasks);
+
+       List<Activity> activities = new ArrayList<>(newTasks.size());
+       for (TaskManagement newTask : newTasks) {
+           activities.add(new Activity(newTask.getId(), "Task created", newTask.getAssigneeId()));
+       }
+       historyWriter.activities(activities);
+       newTasks.forEach(task -> changeFeed.publish(TaskChangeType.CREATED, task));
+       return toDtos(newTasks);
    }
 
    @Override
    public List<TaskManagementDto> updateTasks(UpdateTaskRequest updateRequest) {
-       List<TaskManagement> updatedTasks = new ArrayList<>();
-       for (UpdateTaskRequest.RequestItem item : updateRequest.getRequests()) {
-           TaskManagement task = taskRepository.findById(item.getTaskId())
-                   .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + item.getTaskId()));
-
-           if (item.getTaskStatus() != null) {
-               task.setStatus(item.getTaskStatus());
-               inMemoryTaskRepository.addActivity(task, "Status updated to " + item.getTaskStatus(), null);
+       List<UpdateTaskRequest.RequestItem> items = updateRequest.getRequests();
+
+       List<Long> taskIds = items.stream().map(UpdateTaskRequest.RequestItem::getTaskId).collect(Collectors.toList());
+       List<TaskManagement> updatedTasks = new ArrayList<>(items.size());
+       Set<Long> cancelledIds = new HashSet<>();
+
+       // The batch is applied while holding the write locks of all its tasks, and only after every id has resolved
+       taskRepository.updateAll(taskIds, tasksById -> {
+           List<Long> missingIds = taskIds.stream().filter(id -> !tasksById.containsKey(id)).distinct().collect(Collectors.toList());
+           if (!missingIds.isEmpty()) {
+               throw new ResourceNotFoundException("Tasks not found with ids: " + missingIds);
            }
-           if (item.getDescription() != null) {
-               task.setDescription(item.getDescription());
+           List<Long> conflictingIds = items.stream()
+                   .filter(item -> item.getVersion() != null && !item.getVersion().equals(tasksById.get(item.getTaskId()).getVersion()))
+                   .map(UpdateTaskRequest.RequestItem::getTaskId)
+                   .distinct()
+                   .collect(Collectors.toList());
+           if (!conflictingIds.isEmpty()) {
+               throw new VersionConflictException("Tasks changed since the expected version: " + conflictingIds);
            }
-           updatedTasks.add(taskRepository.save(task));
-       }
-       return taskMapper.modelListToDtoList(updatedTasks);
+
+           List<Activity> activities = new ArrayList<>();
+           for (UpdateTaskRequest.RequestItem item : items) {
+               TaskManagement task = tasksById.get(item.getTaskId());
+               if (item.getTaskStatus() != null) {
+                   task.setStatus(item.getTaskStatus());
+                   if (item.getTaskStatus() == TaskStatus.CANCELLED) {
+                       cancelledIds.add(task.getId());
+                   }
+                   activities.add(new Activity(task.getId(), "Status updated to " + item.getTaskStatus(), null));
+               }
+               if (item.getDescription() != null) {
+                   task.setDescription(item.getDescription());
+               }
+               if (item.getTaskDeadlineTime() != null) {
+                   task.setTaskDeadlineTime(item.getTaskDeadlineTime());
+                   activities.add(new Activity(task.getId(), "Deadline updated", null));
+               }
+               updatedTasks.add(task);
+           }
+           historyWriter.activities(activities);
+       });
+       taskDtoCache.invalidateAll(taskIds);
+       Map<Long, TaskManagement> changedTasks = new LinkedHashMap<>();
+       updatedTasks.forEach(task -> changedTasks.put(task.getId(), task));
+       changedTasks.values().forEach(task -> changeFeed.publish(
+               cancelledIds.contains(task.getId()) ? TaskChangeType.CANCELLED : TaskChangeType.UPDATED, task));
+       return toDtos(updatedTasks);
    }
 
    @Override
    public String assignByReference(AssignByReferenceRequest request) {
+       if (request.getReferenceId() == null || request.getReferenceType() == null) {
+           throw new BadRequestException("reference_id and reference_type are required");
+       }
+       return referenceLocks.withLock(new ReferenceKey(request.getReferenceType(), request.getReferenceId()),
+               () -> assignByReferenceLocked(request));
+   }
+
+   @Override
+   public List<AssignByReferenceResult> assignByReferenceBulk(BulkAssignByReferenceRequest request) {
+       List<AssignByReferenceRequest> references = request.getRequests();
+       int chunks = Math.min(references.size(), Runtime.getRuntime().availableProcessors());
+       int chunkSize = chunks == 0 ? 0 : (references.size() + chunks - 1) / chunks;
+       List<CompletableFuture<List<AssignByReferenceResult>>> pending = new ArrayList<>(chunks);
+       for (int from = 0; from < references.size(); from += chunkSize) {
+           List<AssignByReferenceRequest> chunk = references.subList(from, Math.min(from + chunkSize, references.size()));
+           pending.add(CompletableFuture.supplyAsync(() -> assignChunk(chunk), fanOutExecutor));
+       }
+       List<AssignByReferenceResult> results = new ArrayList<>(references.size());
+       for (CompletableFuture<List<AssignByReferenceResult>> chunk : pending) {
+           results.addAll(chunk.join());
+       }
+       return results;
+   }
+
+   private static ExecutorService fanOutPool() {
+       AtomicInteger created = new AtomicInteger();
+       return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+           Thread thread = new Thread(runnable, "task-bulk-assign-" + created.incrementAndGet());
+           thread.setDaemon(true);
+           return thread;
+       });
+   }
+
+   private List<AssignByReferenceResult> assignChunk(List<AssignByReferenceRequest> chunk) {
+       List<AssignByReferenceResult> results = new ArrayList<>(chunk.size());
+       for (AssignByReferenceRequest reference : chunk) {
+           try {
+               results.add(new AssignByReferenceResult(reference.getReferenceId(), reference.getReferenceType(), true, assignByReference(reference)));
+           } catch (RuntimeException e) {
+               results.add(new AssignByReferenceResult(reference.getReferenceId(), reference.getReferenceType(), false, e.getMessage()));
+           }
+       }
+       return results;
+   }
+
+   private String assignByReferenceLocked(AssignByReferenceRequest request) {
        List<Task> applicableTasks = Task.getTasksByReferenceType(request.getReferenceType());
        List<TaskManagement> existingTasks = taskRepository.findByReferenceIdAndReferenceType(request.getReferenceId(), request.getReferenceType());
 
@@ -95,15 +309,25 @@ public class TaskManagementServiceImpl implements TaskManagementService {
            boolean reassigned = false;
            if (!tasksOfType.isEmpty()) {
                for (TaskManagement taskToUpdate : tasksOfType) {
-                   if (!reassigned) {
-                       taskToUpdate.setAssigneeId(request.getAssigneeId());
-                       inMemoryTaskRepository.addActivity(taskToUpdate, "Task reassigned", request.getAssigneeId());
-                       reassigned = true;
-                   } else {
-                       taskToUpdate.setStatus(TaskStatus.CANCELLED);
-                       inMemoryTaskRepository.addActivity(taskToUpdate, "Task cancelled", null);
-                   }
-                   taskRepository.save(taskToUpdate);
+                   boolean reassign = !reassigned;
+                   Long previousAssigneeId = taskToUpdate.getAssigneeId();
+                   taskRepository.update(taskToUpdate.getId(), task -> {
+                       if (reassign) {
+                           task.setAssigneeId(request.getAssigneeId());
+                           historyWriter.activity(task, "Task reassigned", request.getAssigneeId());
+                       } else {
+                           task.setStatus(TaskStatus.CANCELLED);
+                           historyWriter.activity(task, "Task cancelled", null);
+                       }
+                   }).ifPresent(task -> {
+                       if (reassign) {
+                           changeFeed.publish(TaskChangeType.REASSIGNED, task, previousAssigneeId, task.getPriority());
+                       } else {
+                           changeFeed.publish(TaskChangeType.CANCELLED, task);
+                       }
+                   });
+                   taskDtoCache.invalidate(taskToUpdate.getId());
+                   reassigned = true;
                }
            } else {
                TaskManagement newTask = new TaskManagement();
@@ -113,7 +337,8 @@ public class TaskManagementServiceImpl implements TaskManagementService {
                newTask.setAssigneeId(request.getAssigneeId());
                newTask.setStatus(TaskStatus.ASSIGNED);
                taskRepository.save(newTask);
-               inMemoryTaskRepository.addActivity(newTask, "New task assigned", request.getAssigneeId());
+               historyWriter.activity(newTask, "New task assigned", request.getAssigneeId());
+               changeFeed.publish(TaskChangeType.CREATED, newTask);
            }
        }
        return "Tasks assigned successfully for reference " + request.getReferenceId();
@@ -121,52 +346,190 @@ public class TaskManagementServiceImpl implements TaskManagementService {
 
    @Override
    public List<TaskManagementDto> fetchTasksByDate(TaskFetchByDateRequest request) {
-       List<TaskManagement> tasks = taskRepository.findByAssigneeIdIn(request.getAssigneeIds());
-
        // Feature 1: Smart Daily Task View
        // Return:
        // 1. All active tasks that started within the date range
        // 2. PLUS all active tasks that started before the range but are still open and not yet completed
-       List<TaskManagement> filteredTasks = tasks.stream()
-               .filter(task -> task.getStatus() != TaskStatus.CANCELLED) // Bug Fix #2: Exclude cancelled tasks
-               .filter(task -> {
-                   // Tasks that started within the date range
-                   boolean withinRange = task.getCreatedAt().atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli() >= request.getStartDate() &&
-                                       task.getCreatedAt().atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli() <= request.getEndDate();
-                   
-                   // Tasks that started before the range but are still open (not completed)
-                   boolean beforeRangeButOpen = task.getCreatedAt().atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli() < request.getStartDate() &&
-                                              (task.getStatus() == TaskStatus.ASSIGNED || task.getStatus() == TaskStatus.STARTED);
-                   
-                   return withinRange || beforeRangeButOpen;
-               })
-               .collect(Collectors.toList());
-
-       return taskMapper.modelListToDtoList(filteredTasks);
+       // Both halves are answered by range seeks on the repository's per-assignee creation timeline.
+       List<TaskManagement> tasks = taskRepository.findDailyTasks(request.getAssigneeIds(), request.getStartDate(), request.getEndDate());
+       return toDtos(tasks);
    }
 
    @Override
    public List<TaskManagementDto> fetchTasksByPriority(Priority priority) {
        List<TaskManagement> tasksByPriority = taskRepository.findByPriority(priority);
-       return taskMapper.modelListToDtoList(tasksByPriority);
+       return toDtos(tasksByPriority);
    }
 
    @Override
-   public void updateTaskPriority(PriorityUpdateRequest request) {
-       TaskManagement task = taskRepository.findById(request.getTaskId())
-               .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + request.getTaskId()));
+   public PagedResult<TaskManagementDto> fetchOverdueTasks(Long assigneeId, String cursor, Integer pageSize) {
+       int size = pageSizeOf(pageSize);
+       TaskDeadlineTracker.Overdue after = null;
+       if (cursor != null && !cursor.isEmpty()) {
+           long[] position = Pagination.decodeCursorPair(cursor);
+           after = new TaskDeadlineTracker.Overdue(position[0], position[1], null);
+       }
 
-       task.setPriority(request.getPriority());
-       inMemoryTaskRepository.addActivity(task, "Priority updated to " + request.getPriority(), request.getUserId());
-       taskRepository.save(task);
+       // Fetch one extra entry to learn whether another page exists
+       List<TaskDeadlineTracker.Overdue> entries = deadlineTracker.overdueTasks(assigneeId, after, size + 1);
+       boolean hasNext = entries.size() > size;
+       if (hasNext) {
+           entries = entries.subList(0, size);
+       }
+       List<Long> overdueIds = entries.stream().map(TaskDeadlineTracker.Overdue::taskId).toList();
+       Map<Long, TaskManagement> tasksById = taskRepository.findAllById(overdueIds);
+       List<TaskManagementDto> dtos = new ArrayList<>(tasksById.size());
+       for (Long id : overdueIds) {
+           TaskManagement task = tasksById.get(id);
+           if (task != null) {
+               dtos.add(toDto(task));
+           }
+       }
+       TaskDeadlineTracker.Overdue last = hasNext ? entries.get(entries.size() - 1) : null;
+       String nextCursor = last == null ? null : Pagination.encodeCursor(last.deadline(), last.taskId());
+       return new PagedResult<>(dtos, new Pagination(nextCursor, size, hasNext));
    }
 
    @Override
-   public void addCommentToTask(CommentRequest request) {
-       TaskManagement task = taskRepository.findById(request.getTaskId())
+   public List<TaskManagementDto> searchTasks(String query, Long assigneeId, TaskStatus status, Priority priority, Integer limit) {
+       if (!TaskSearchIndex.isSearchable(query)) {
+           throw new BadRequestException("q must contain at least one word of " + TaskSearchIndex.MIN_TERM_LENGTH + " or more letters or digits");
+       }
+       List<Long> matchingIds = searchIndex.search(query, assigneeId, status, priority, pageSizeOf(limit));
+       Map<Long, TaskManagement> tasksById = taskRepository.findAllById(matchingIds);
+       List<TaskManagementDto> dtos = new ArrayList<>(tasksById.size());
+       for (Long id : matchingIds) {
+           TaskManagement task = tasksById.get(id);
+           if (task != null) {
+               dtos.add(toDto(task));
+           }
+       }
+       return dtos;
+   }
+
+   @Override
+   public List<TaskManagementDto> queryTasks(TaskQueryRequest request) {
+       TaskQuery query = TaskQuery.of(request, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+       List<Long> matchingIds = queryIndex.execute(query);
+       Map<Long, TaskManagement> tasksById = taskRepository.findAllById(matchingIds);
+       List<TaskManagementDto> dtos = new ArrayList<>(tasksById.size());
+       for (Long id : matchingIds) {
+           TaskManagement task = tasksById.get(id);
+           // A task changed since the index answered is left out rather than returned out of filter
+           if (task != null && query.matches(task)) {
+               dtos.add(toDto(task));
+           }
+       }
+       return dtos;
+   }
+
+   @Override
+   public TaskCountSummary getTaskCounts(Long assigneeId) {
+       TaskStatistics statistics = taskRepository.statistics();
+       Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+       Map<String, Long> openByPriority = new LinkedHashMap<>();
+       Map<TaskStatus, Map<String, Long>> byStatusAndPriority = new EnumMap<>(TaskStatus.class);
+       long total = 0;
+       long open = 0;
+       for (TaskStatus status : TaskStatus.values()) {
+           Map<String, Long> byPriority = new LinkedHashMap<>();
+           long statusTotal = 0;
+           for (Priority priority : PRIORITY_SLOTS) {
+               long count = assigneeId == null ? statistics.count(status, priority) : statistics.count(assigneeId, status, priority);
+               String key = priority == null ? NO_PRIORITY : priority.name();
+               byPriority.put(key, count);
+               statusTotal += count;
+               if (status == TaskStatus.ASSIGNED || status == TaskStatus.STARTED) {
+                   openByPriority.merge(key, count, Long::sum);
+               }
+           }
+           byStatus.put(status, statusTotal);
+           byStatusAndPriority.put(status, byPriority);
+           total += statusTotal;
+           if (status == TaskStatus.ASSIGNED || status == TaskStatus.STARTED) {
+               open += statusTotal;
+           }
+       }
+       TaskCountSummary summary = new TaskCountSummary();
+       summary.setAssigneeId(assigneeId);
+       summary.setTotal(total);
+       summary.setOpen(open);
+       summary.setByStatus(byStatus);
+       summary.setOpenByPriority(openByPriority);
+       summary.setByStatusAndPriority(byStatusAndPriority);
+       return summary;
+   }
+
+   @Override
+   public List<DailyCount> getCompletedPerDay(LocalDate startDate, LocalDate endDate) {
+       LocalDate end = endDate == null ? LocalDate.now() : endDate;
+       LocalDate start = startDate == null ? end.minusDays(DEFAULT_STATS_DAYS - 1) : startDate;
+       long days = ChronoUnit.DAYS.between(start, end) + 1;
+       if (days < 1 || days > MAX_STATS_DAYS) {
+           throw new BadRequestException("start_date must be on or before end_date and at most " + MAX_STATS_DAYS + " days earlier");
+       }
+       TaskStatistics statistics = taskRepository.statistics();
+       List<DailyCount> counts = new ArrayList<>((int) days);
+       for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+           counts.add(new DailyCount(day, statistics.completedOn(day)));
+       }
+       return counts;
+   }
+
+   @Override
+   public long updateTaskPriority(PriorityUpdateRequest request, Long expectedVersion) {
+       Priority[] previousPriority = new Priority[1];
+       TaskManagement updated = taskRepository.update(request.getTaskId(), expectedVersion, task -> {
+           previousPriority[0] = task.getPriority();
+           task.setPriority(request.getPriority());
+           historyWriter.activity(task, "Priority updated to " + request.getPriority(), request.getUserId());
+       }).orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + request.getTaskId()));
+       taskDtoCache.invalidate(request.getTaskId());
+       changeFeed.publish(TaskChangeType.PRIORITY_CHANGED, updated, updated.getAssigneeId(), previousPriority[0]);
+       return updated.getVersion();
+   }
+
+   @Override
+   public long addCommentToTask(CommentRequest request, Long expectedVersion) {
+       TaskManagement updated = taskRepository.update(request.getTaskId(), expectedVersion,
+                       task -> historyWriter.comment(task, request.getComment(), request.getUserId()))
                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + request.getTaskId()));
+       // Indexed here rather than from the change feed, whose events don't carry the comment text
+       searchIndex.addComment(request.getTaskId(), request.getComment());
+       taskDtoCache.invalidate(request.getTaskId());
+       changeFeed.publish(TaskChangeType.COMMENTED, updated);
+       return updated.getVersion();
+   }
+
+   private List<TaskManagementDto> toDtos(List<TaskManagement> tasks) {
+       List<TaskManagementDto> dtos = new ArrayList<>(tasks.size());
+       for (TaskManagement task : tasks) {
+           dtos.add(toDto(task));
+       }
+       return dtos;
+   }
+
+   // Served from the DTO cache while the task's version and history lengths are unchanged
+   private TaskManagementDto toDto(TaskManagement task) {
+       int activityCount = taskRepository.countActivities(task.getId());
+       int commentCount = taskRepository.countComments(task.getId());
+       return taskDtoCache.get(task.getId(), stampOf(task, activityCount, commentCount), () -> buildDto(task, activityCount, commentCount)).dto();
+   }
+
+   private static TaskDtoCache.Stamp stampOf(TaskManagement task, int activityCount, int commentCount) {
+       return new TaskDtoCache.Stamp(task.getVersion() == null ? 0 : task.getVersion(), activityCount, commentCount);
+   }
+
+   // DTOs carry history counts and the latest few entries; full history is paged separately
+   private TaskManagementDto buildDto(TaskManagement task, int activityCount, int commentCount) {
+       TaskManagementDto dto = taskMapper.modelToDto(task);
+       dto.setActivityCount(activityCount);
+       dto.setRecentActivities(taskRepository.findActivities(task.getId(), activityCount - RECENT_HISTORY_SIZE, RECENT_HISTORY_SIZE));
+       dto.setCommentCount(commentCount);
+       dto.setRecentComments(taskRepository.findComments(task.getId(), commentCount - RECENT_HISTORY_SIZE, RECENT_HISTORY_SIZE));
+       return dto;
+   }
 
-       inMemoryTaskRepository.addComment(task, request.getComment(), request.getUserId());
-       taskRepository.save(task);
+   private record ReferenceKey(ReferenceType referenceType, Long referenceId) {
    }
 }
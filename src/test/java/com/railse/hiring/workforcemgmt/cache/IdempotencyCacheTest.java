@@ -0,0 +1,92 @@
+package com.railse.hiring.workforcemgmt.cache;
+
+import com.railse.hiring.workforcemgmt.common.exception.IdempotencyKeyConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that a key runs its action once however many callers race on it, that a failed run frees the key for a
+ * retry, and that a key cannot be reused for a different request.
+ */
+class IdempotencyCacheTest {
+
+   private static final int CALLERS = 16;
+
+   private final IdempotencyCache cache = new IdempotencyCache(1000, 1);
+   private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+   private final AtomicInteger runs = new AtomicInteger();
+
+   @AfterEach
+   void stopCallers() {
+       callers.shutdownNow();
+   }
+
+   @Test
+   void concurrentCallersWithOneKeyRunTheActionOnce() throws Exception {
+       CountDownLatch start = new CountDownLatch(1);
+       List<Future<String>> results = new ArrayList<>();
+       for (int i = 0; i < CALLERS; i++) {
+           results.add(callers.submit(() -> {
+               start.await();
+               return cache.execute("create", "key-1", Map.of("task", 1), () -> {
+                   runs.incrementAndGet();
+                   sleep(50);
+                   return "created";
+               });
+           }));
+       }
+       start.countDown();
+
+       for (Future<String> result : results) {
+           assertEquals("created", result.get());
+       }
+       assertEquals(1, runs.get());
+   }
+
+   @Test
+   void failedRunLetsARetryRunAgain() {
+       assertThrows(IllegalStateException.class, () -> cache.execute("create", "key-1", "body", () -> {
+           runs.incrementAndGet();
+           throw new IllegalStateException("store unavailable");
+       }));
+
+       assertEquals("created", cache.execute("create", "key-1", "body", this::run));
+       assertEquals("created", cache.execute("create", "key-1", "body", this::run));
+       assertEquals(2, runs.get());
+   }
+
+   @Test
+   void reusingAKeyWithADifferentBodyIsRejected() {
+       cache.execute("create", "key-1", Map.of("task", 1), this::run);
+
+       assertThrows(IdempotencyKeyConflictException.class, () -> cache.execute("create", "key-1", Map.of("task", 2), this::run));
+       // Keys are scoped per operation
+       cache.execute("update", "key-1", Map.of("task", 2), this::run);
+       assertEquals(2, runs.get());
+   }
+
+   private String run() {
+       runs.incrementAndGet();
+       return "created";
+   }
+
+   private static void sleep(long millis) {
+       try {
+           Thread.sleep(millis);
+       } catch (InterruptedException e) {
+           Thread.currentThread().interrupt();
+       }
+   }
+}
@@ -0,0 +1,155 @@
+package com.railse.hiring.workforcemgmt.query;
+
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.feed.TaskChangeFeed;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskChangeType;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.query.QueryCondition.Operator;
+import com.railse.hiring.workforcemgmt.repository.InMemoryTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.ShardedTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks query results against a scan of the store, for ids that are neither dense nor in arrival order: the
+ * sharded store's interleaved ids, and ids far past the int range saved in shuffled order.
+ */
+class TaskQueryIndexTest {
+
+   private static final TaskField[] SORTS = {TaskField.ID, TaskField.PRIORITY, TaskField.STATUS, TaskField.TASK_DEADLINE_TIME, TaskField.ASSIGNEE_ID};
+
+   private final Random random = new Random(42);
+   private final TaskChangeFeed changeFeed = new TaskChangeFeed(ForkJoinPool.commonPool(), 1024, 300);
+   private TaskQueryIndex index;
+
+   @AfterEach
+   void closeIndex() {
+       index.close();
+   }
+
+   @Test
+   void shardedIdsMatchAScanOfTheStore() throws Exception {
+       TaskRepository repository = new ShardedTaskRepository(4, false);
+       List<TaskManagement> tasks = new ArrayList<>();
+       for (int i = 0; i < 300; i++) {
+           tasks.add(repository.save(randomTask(null)));
+       }
+       index = new TaskQueryIndex(repository, changeFeed, 1024);
+       // Partitions hand out ids independently, so later tasks often get lower ids than earlier ones
+       for (int i = 0; i < 300; i++) {
+           TaskManagement task = repository.save(randomTask(null));
+           tasks.add(task);
+           changeFeed.publish(TaskChangeType.CREATED, task);
+       }
+       for (int i = 0; i < 300; i++) {
+           TaskManagement task = tasks.get(random.nextInt(tasks.size()));
+           repository.update(task.getId(), this::randomize).ifPresent(updated -> changeFeed.publish(TaskChangeType.UPDATED, updated));
+       }
+       index.flush();
+
+       assertQueriesMatch(repository);
+   }
+
+   @Test
+   void idsBeyondTheIntRangeMatchAScanOfTheStore() throws Exception {
+       TaskRepository repository = new InMemoryTaskRepository(false) {
+       };
+       index = new TaskQueryIndex(repository, changeFeed, 1024);
+       List<Long> ids = new ArrayList<>();
+       for (long i = 1; i <= 400; i++) {
+           ids.add(Integer.MAX_VALUE + i * 1_000_000_007L);
+       }
+       ids.add(Long.MAX_VALUE);
+       ids.add(1L);
+       Collections.shuffle(ids, random);
+       for (Long id : ids) {
+           changeFeed.publish(TaskChangeType.CREATED, repository.save(randomTask(id)));
+       }
+       index.flush();
+
+       assertQueriesMatch(repository);
+       assertEquals(List.of(), index.execute(query(new QueryCondition(TaskField.ID, Operator.GT, new long[]{Long.MAX_VALUE}))));
+       assertEquals(List.of(), index.execute(query(new QueryCondition(TaskField.ID, Operator.LT, new long[]{Long.MIN_VALUE}))));
+       assertEquals(List.of(Long.MAX_VALUE), index.execute(query(new QueryCondition(TaskField.ID, Operator.GTE, new long[]{Long.MAX_VALUE}))));
+       assertEquals(ids.size(), index.execute(new TaskQuery(
+               List.of(new QueryCondition(TaskField.ID, Operator.LTE, new long[]{Long.MAX_VALUE})), TaskField.ID, false, 1000)).size());
+   }
+
+   private void assertQueriesMatch(TaskRepository repository) {
+       List<TaskManagement> stored = repository.findAll();
+       List<Long> ids = stored.stream().map(TaskManagement::getId).toList();
+       for (int i = 0; i < 500; i++) {
+           List<QueryCondition> conditions = new ArrayList<>();
+           for (int c = random.nextInt(3); c > 0; c--) {
+               conditions.add(randomCondition(ids));
+           }
+           TaskQuery query = new TaskQuery(conditions, SORTS[random.nextInt(SORTS.length)], random.nextBoolean(), 1 + random.nextInt(40));
+           assertEquals(scan(stored, query), index.execute(query), query.toString());
+       }
+   }
+
+   private QueryCondition randomCondition(List<Long> ids) {
+       long pivot = ids.get(random.nextInt(ids.size()));
+       return switch (random.nextInt(7)) {
+           case 0 -> new QueryCondition(TaskField.STATUS, Operator.EQ, new long[]{random.nextInt(TaskStatus.values().length)});
+           case 1 -> new QueryCondition(TaskField.PRIORITY, Operator.NOT_IN, new long[]{TaskField.NULL, Priority.LOW.ordinal()});
+           case 2 -> new QueryCondition(TaskField.ASSIGNEE_ID, Operator.IN, new long[]{1, 2, 3});
+           case 3 -> new QueryCondition(TaskField.ID, Operator.values()[4 + random.nextInt(4)], new long[]{pivot});
+           case 4 -> new QueryCondition(TaskField.ID, random.nextBoolean() ? Operator.IN : Operator.NOT_IN, new long[]{pivot});
+           case 5 -> new QueryCondition(TaskField.TASK_DEADLINE_TIME, Operator.LT, new long[]{random.nextInt(1000)});
+           default -> new QueryCondition(TaskField.STATUS, Operator.NE, new long[]{TaskStatus.COMPLETED.ordinal()});
+       };
+   }
+
+   // Sort order, unset values last, then ascending id
+   private static List<Long> scan(List<TaskManagement> tasks, TaskQuery query) {
+       Comparator<TaskManagement> order = (a, b) -> {
+           long x = query.sortBy().valueOf(a);
+           long y = query.sortBy().valueOf(b);
+           if (x == TaskField.NULL || y == TaskField.NULL) {
+               return Boolean.compare(x == TaskField.NULL, y == TaskField.NULL);
+           }
+           return query.descending() ? Long.compare(y, x) : Long.compare(x, y);
+       };
+       return tasks.stream()
+               .filter(task -> query.conditions().stream().allMatch(condition -> condition.test(condition.field().valueOf(task))))
+               .sorted(order.thenComparing(TaskManagement::getId))
+               .limit(query.limit())
+               .map(TaskManagement::getId)
+               .toList();
+   }
+
+   private static TaskQuery query(QueryCondition condition) {
+       return new TaskQuery(List.of(condition), TaskField.ID, false, 10);
+   }
+
+   private TaskManagement randomTask(Long id) {
+       TaskManagement task = new TaskManagement();
+       task.setId(id);
+       task.setReferenceId((long) random.nextInt(50));
+       task.setReferenceType(ReferenceType.ORDER);
+       task.setTask(Task.CREATE_INVOICE);
+       randomize(task);
+       return task;
+   }
+
+   private void randomize(TaskManagement task) {
+       task.setStatus(TaskStatus.values()[random.nextInt(TaskStatus.values().length)]);
+       task.setPriority(random.nextInt(5) == 0 ? null : Priority.values()[random.nextInt(Priority.values().length)]);
+       task.setAssigneeId(random.nextInt(5) == 0 ? null : (long) random.nextInt(6));
+       task.setTaskDeadlineTime(random.nextInt(5) == 0 ? null : (long) random.nextInt(1000));
+   }
+}
@@ -0,0 +1,35 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompactTaskRepositoryTest extends TaskRepositoryContractTest {
+
+   @Override
+   protected TaskRepository createRepository() {
+       return new CompactTaskRepository();
+   }
+
+   // Scans take the read lock one window of ids at a time; pages and priority scans must not notice the seams
+   @Test
+   void scansSpanSeveralLockWindows() {
+       List<TaskManagement> tasks = new ArrayList<>();
+       for (int i = 0; i < 10_000; i++) {
+           tasks.add(newTask(9_001, i % 3 == 0 ? Priority.HIGH : Priority.LOW));
+       }
+       repository.saveAll(tasks);
+
+       assertEquals(LongStream.rangeClosed(4_090, 4_109).boxed().toList(), idsOf(repository.findPage(4_089, 20)));
+       assertEquals(repository.countTasks(), repository.findAll().size());
+       List<Long> high = idsOf(repository.findByPriority(Priority.HIGH));
+       assertEquals(repository.countTasksByPriority(Priority.HIGH), high.size());
+       assertEquals(high.stream().sorted().toList(), high);
+   }
+}
@@ -0,0 +1,133 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+import com.railse.hiring.workforcemgmt.common.exception.VersionConflictException;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Threads race conditional updates (status, assignee, priority, comment) on a few shared tasks through
+ * {@link TaskRepository#update(Long, Long, java.util.function.Consumer)}. Every successful update also bumps a
+ * counter kept in the task, so afterwards each task must show every write it acknowledged, a version one past
+ * that count, and indexes, timelines and statistics that agree with the stored fields.
+ */
+class ConcurrentTaskUpdateTest {
+
+   private static final int TASKS = 16;
+   private static final int THREADS = 8;
+   private static final int UPDATES_PER_THREAD = 5_000;
+   private static final long ASSIGNEES = 5;
+   private static final TaskStatus[] STATUSES = TaskStatus.values();
+   private static final Priority[] PRIORITIES = Priority.values();
+
+   @ParameterizedTest
+   @ValueSource(strings = {"memory", "sharded"})
+   void concurrentUpdatesAreNeitherLostNorMisindexed(String store) throws Exception {
+       TaskRepository repository = store.equals("memory") ? new InMemoryTaskRepository(false) : new ShardedTaskRepository(4, false);
+       List<Long> ids = new ArrayList<>(TASKS);
+       for (int i = 0; i < TASKS; i++) {
+           TaskManagement task = new TaskManagement();
+           task.setStatus(TaskStatus.ASSIGNED);
+           task.setAssigneeId(1L);
+           task.setPriority(Priority.LOW);
+           task.setTaskDeadlineTime(0L);
+           ids.add(repository.save(task).getId());
+       }
+
+       AtomicLongArray writes = new AtomicLongArray(TASKS);
+       AtomicLongArray comments = new AtomicLongArray(TASKS);
+       CountDownLatch start = new CountDownLatch(1);
+       ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+       List<Future<?>> workers = new ArrayList<>(THREADS);
+       for (int t = 0; t < THREADS; t++) {
+           workers.add(pool.submit(() -> {
+               start.await();
+               ThreadLocalRandom random = ThreadLocalRandom.current();
+               for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                   int slot = random.nextInt(TASKS);
+                   long id = ids.get(slot);
+                   long version = repository.findById(id).orElseThrow().getVersion();
+                   int operation = random.nextInt(4);
+                   try {
+                       repository.update(id, version, task -> {
+                           task.setTaskDeadlineTime(task.getTaskDeadlineTime() + 1);
+                           switch (operation) {
+                               case 0 -> task.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+                               case 1 -> task.setAssigneeId(1 + random.nextLong(ASSIGNEES));
+                               case 2 -> task.setPriority(PRIORITIES[random.nextInt(PRIORITIES.length)]);
+                               default -> repository.addComment(task, "comment", 1L);
+                           }
+                       });
+                       writes.incrementAndGet(slot);
+                       if (operation == 3) {
+                           comments.incrementAndGet(slot);
+                       }
+                   } catch (VersionConflictException e) {
+                       // Lost the race for this version; nothing was applied
+                   }
+               }
+               return null;
+           }));
+       }
+       start.countDown();
+       for (Future<?> worker : workers) {
+           worker.get(2, TimeUnit.MINUTES);
+       }
+       pool.shutdown();
+
+       List<TaskManagement> stored = new ArrayList<>(TASKS);
+       for (int slot = 0; slot < TASKS; slot++) {
+           TaskManagement task = repository.findById(ids.get(slot)).orElseThrow();
+           assertEquals(writes.get(slot), task.getTaskDeadlineTime(), "acknowledged updates of task " + task.getId());
+           assertEquals(writes.get(slot) + 1, task.getVersion(), "version of task " + task.getId());
+           assertEquals(comments.get(slot), repository.countComments(task.getId()), "comments of task " + task.getId());
+           stored.add(task);
+       }
+
+       for (long assignee = 1; assignee <= ASSIGNEES; assignee++) {
+           long assigneeId = assignee;
+           assertEquals(idsOf(stored, task -> task.getAssigneeId() == assigneeId),
+                   idsOf(repository.findByAssigneeIdIn(List.of(assigneeId)), task -> true), "assignee " + assigneeId);
+           assertEquals(idsOf(stored, task -> task.getAssigneeId() == assigneeId && task.getStatus() != TaskStatus.CANCELLED),
+                   idsOf(repository.findDailyTasks(List.of(assigneeId), 0, Long.MAX_VALUE), task -> true),
+                   "timeline of assignee " + assigneeId);
+           for (TaskStatus status : STATUSES) {
+               for (Priority priority : PRIORITIES) {
+                   assertEquals(stored.stream().filter(task -> task.getAssigneeId() == assigneeId
+                                   && task.getStatus() == status && task.getPriority() == priority).count(),
+                           repository.statistics().count(assigneeId, status, priority),
+                           "statistics of assignee " + assigneeId + ", " + status + ", " + priority);
+               }
+           }
+       }
+       for (Priority priority : PRIORITIES) {
+           assertEquals(idsOf(stored, task -> task.getPriority() == priority),
+                   idsOf(repository.findByPriority(priority), task -> true), "priority " + priority);
+       }
+       for (TaskStatus status : STATUSES) {
+           assertEquals(stored.stream().filter(task -> task.getStatus() == status).count(),
+                   repository.countTasksByStatus(status), "status " + status);
+       }
+   }
+
+   private static Set<Long> idsOf(List<TaskManagement> tasks, Predicate<TaskManagement> filter) {
+       return tasks.stream().filter(filter).map(TaskManagement::getId).collect(Collectors.toSet());
+   }
+}
@@ -0,0 +1,9 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+class InMemoryTaskRepositoryTest extends TaskRepositoryContractTest {
+
+   @Override
+   protected TaskRepository createRepository() {
+       return new InMemoryTaskRepository();
+   }
+}
@@ -0,0 +1,24 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OffHeapTaskRepositoryTest extends TaskRepositoryContractTest {
+
+   @Override
+   protected TaskRepository createRepository() {
+       return new OffHeapTaskRepository(1);
+   }
+
+   @Test
+   void slabChunkSizeMustFitOneDirectBuffer() {
+       assertEquals(1 << 30, OffHeapTaskRepository.slabChunkBytes(1024));
+       assertThrows(IllegalArgumentException.class, () -> OffHeapTaskRepository.slabChunkBytes(0));
+       assertThrows(IllegalArgumentException.class, () -> OffHeapTaskRepository.slabChunkBytes(-16));
+       // 2048 << 20 overflows an int
+       assertThrows(IllegalArgumentException.class, () -> OffHeapTaskRepository.slabChunkBytes(2048));
+       assertThrows(IllegalArgumentException.class, () -> OffHeapTaskRepository.slabChunkBytes(Integer.MAX_VALUE));
+   }
+}
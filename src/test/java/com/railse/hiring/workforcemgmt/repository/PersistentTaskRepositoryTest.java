@@ -0,0 +1,115 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PersistentTaskRepositoryTest extends TaskRepositoryContractTest {
+
+   @TempDir
+   Path dataDirectory;
+
+   @Override
+   protected TaskRepository createRepository() throws IOException {
+       return open();
+   }
+
+   @AfterEach
+   void closeStore() {
+       ((PersistentTaskRepository) repository).close();
+   }
+
+   @Test
+   void reopeningRecoversTasksAndHistory() throws IOException {
+       TaskManagement task = repository.save(newTask(9_001, Priority.LOW));
+       repository.update(task.getId(), stored -> stored.setStatus(TaskStatus.STARTED));
+       repository.addComment(task, "kept", 9_001L);
+       ((PersistentTaskRepository) repository).close();
+
+       repository = open();
+
+       TaskManagement recovered = repository.findById(task.getId()).orElseThrow();
+       assertEquals(TaskStatus.STARTED, recovered.getStatus());
+       assertEquals(2L, recovered.getVersion());
+       assertEquals("kept", repository.findComments(task.getId(), 0, 1).get(0).getComment());
+   }
+
+   @Test
+   void reopeningWithoutCloseReplaysTheLogAfterTheSnapshot() throws IOException {
+       TaskManagement task = repository.save(newTask(9_001, Priority.LOW));
+       repository.update(task.getId(), stored -> stored.setStatus(TaskStatus.STARTED));
+       repository.addComment(task, "logged", 9_001L);
+
+       // No close(), so no snapshot: everything since the startup snapshot has to come from the log
+       repository = open();
+
+       TaskManagement recovered = repository.findById(task.getId()).orElseThrow();
+       assertEquals(TaskStatus.STARTED, recovered.getStatus());
+       assertEquals(2L, recovered.getVersion());
+       assertEquals("logged", repository.findComments(task.getId(), 0, 1).get(0).getComment());
+   }
+
+   @Test
+   void corruptLastRecordOfASegmentEndsRecoveryBeforeIt() throws IOException {
+       Set<Long> before = new HashSet<>(idsOf(repository.findAll()));
+       TaskManagement first = repository.save(newTask(9_001, Priority.LOW));
+       TaskManagement second = repository.save(newTask(9_001, Priority.MEDIUM));
+       repository.save(newTask(9_001, Priority.HIGH));
+       Path segment = segments().get(segments().size() - 1);
+
+       // Recovering without close() starts a new segment after the first one
+       repository = open();
+       repository.save(newTask(9_002, Priority.LOW));
+       Path later = segments().get(1);
+
+       corruptLastByte(segment);
+       repository = open();
+
+       before.add(first.getId());
+       before.add(second.getId());
+       assertEquals(before, Set.copyOf(idsOf(repository.findAll())));
+       // The later segment's records would follow a gap, so it is set aside; the log continues in a fresh one
+       assertEquals(segment, segments().get(0));
+       assertFalse(segments().contains(later));
+       assertTrue(Files.exists(later.resolveSibling(later.getFileName() + ".discarded")));
+   }
+
+   private List<Path> segments() throws IOException {
+       try (Stream<Path> files = Files.list(dataDirectory)) {
+           return files.filter(path -> path.getFileName().toString().endsWith(".log")).sorted().toList();
+       }
+   }
+
+   // Flips a bit in the checksum that ends the segment's last record
+   private static void corruptLastByte(Path segment) throws IOException {
+       try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+           ByteBuffer last = ByteBuffer.allocate(1);
+           channel.read(last, channel.size() - 1);
+           last.put(0, (byte) (last.get(0) ^ 1));
+           last.rewind();
+           channel.write(last, channel.size() - 1);
+       }
+   }
+
+   private PersistentTaskRepository open() throws IOException {
+       return new PersistentTaskRepository(dataDirectory.toString(), 3600);
+   }
+}
@@ -0,0 +1,9 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+class ShardedTaskRepositoryTest extends TaskRepositoryContractTest {
+
+   @Override
+   protected TaskRepository createRepository() {
+       return new ShardedTaskRepository(4, true);
+   }
+}
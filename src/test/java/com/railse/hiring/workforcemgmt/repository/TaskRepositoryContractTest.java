@@ -0,0 +1,219 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+import com.railse.hiring.workforcemgmt.common.exception.VersionConflictException;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.Comment;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Behaviour every {@link TaskRepository} must share, run once per store by the subclasses. Stores may start with
+ * the seed tasks, so each test works on tasks it creates, with assignee and reference ids the seeds don't use.
+ */
+abstract class TaskRepositoryContractTest {
+
+   private static final long ASSIGNEE = 9_001;
+   private static final long OTHER_ASSIGNEE = 9_002;
+   private static final long REFERENCE = 9_100;
+
+   protected TaskRepository repository;
+
+   protected abstract TaskRepository createRepository() throws Exception;
+
+   @BeforeEach
+   void createStore() throws Exception {
+       repository = createRepository();
+   }
+
+   @Test
+   void saveAssignsIdCreationTimeAndVersion() {
+       TaskManagement task = repository.save(newTask(ASSIGNEE, Priority.HIGH));
+
+       assertNotNull(task.getId());
+       assertNotNull(task.getCreatedAt());
+       assertEquals(1L, task.getVersion());
+       TaskManagement found = repository.findById(task.getId()).orElseThrow();
+       assertEquals(task.getId(), found.getId());
+       assertEquals(ASSIGNEE, found.getAssigneeId());
+       assertEquals(REFERENCE, found.getReferenceId());
+       assertEquals(ReferenceType.ORDER, found.getReferenceType());
+       assertEquals(Task.CREATE_INVOICE, found.getTask());
+       assertEquals(TaskStatus.ASSIGNED, found.getStatus());
+       assertEquals(Priority.HIGH, found.getPriority());
+       assertEquals("contract task", found.getDescription());
+       assertEquals(1L, found.getVersion());
+
+       found.setDescription("saved again");
+       assertEquals(2L, repository.save(found).getVersion());
+       assertEquals("saved again", repository.findById(task.getId()).orElseThrow().getDescription());
+   }
+
+   @Test
+   void saveAllAssignsDistinctIdsAndFindAllByIdSkipsMissingOnes() {
+       List<TaskManagement> tasks = repository.saveAll(List.of(
+               newTask(ASSIGNEE, Priority.LOW), newTask(ASSIGNEE, Priority.MEDIUM), newTask(OTHER_ASSIGNEE, null)));
+
+       List<Long> ids = idsOf(tasks);
+       assertEquals(3, Set.copyOf(ids).size());
+       List<Long> lookup = new ArrayList<>(ids);
+       lookup.add(Long.MAX_VALUE);
+       Map<Long, TaskManagement> found = repository.findAllById(lookup);
+       assertEquals(Set.copyOf(ids), found.keySet());
+       assertTrue(repository.findById(Long.MAX_VALUE).isEmpty());
+   }
+
+   @Test
+   void findPageWalksTheWholeStoreInIdOrder() {
+       List<Long> created = idsOf(repository.saveAll(List.of(
+               newTask(ASSIGNEE, null), newTask(ASSIGNEE, null), newTask(ASSIGNEE, null), newTask(ASSIGNEE, null))));
+
+       List<Long> walked = new ArrayList<>();
+       long afterId = 0;
+       List<TaskManagement> page;
+       do {
+           page = repository.findPage(afterId, 3);
+           assertTrue(page.size() <= 3);
+           for (TaskManagement task : page) {
+               assertTrue(task.getId() > afterId, "ids ascend past the cursor");
+               afterId = task.getId();
+               walked.add(afterId);
+           }
+       } while (!page.isEmpty());
+
+       assertEquals(repository.countTasks(), walked.size());
+       assertTrue(walked.containsAll(created));
+       assertEquals(idsOf(repository.findAll()).stream().sorted().toList(), walked);
+   }
+
+   @Test
+   void updateAppliesTheMutationAndBumpsTheVersion() {
+       long id = repository.save(newTask(ASSIGNEE, Priority.LOW)).getId();
+
+       TaskManagement updated = repository.update(id, task -> task.setStatus(TaskStatus.STARTED)).orElseThrow();
+
+       assertEquals(TaskStatus.STARTED, updated.getStatus());
+       assertEquals(2L, updated.getVersion());
+       assertEquals(TaskStatus.STARTED, repository.findById(id).orElseThrow().getStatus());
+       assertEquals(2L, repository.findById(id).orElseThrow().getVersion());
+       assertTrue(repository.update(Long.MAX_VALUE, task -> task.setStatus(TaskStatus.STARTED)).isEmpty());
+   }
+
+   @Test
+   void conditionalUpdateRejectsAStaleVersionWithoutApplyingIt() {
+       long id = repository.save(newTask(ASSIGNEE, Priority.LOW)).getId();
+       repository.update(id, 1L, task -> task.setPriority(Priority.MEDIUM));
+
+       assertThrows(VersionConflictException.class, () -> repository.update(id, 1L, task -> task.setPriority(Priority.HIGH)));
+
+       TaskManagement stored = repository.findById(id).orElseThrow();
+       assertEquals(Priority.MEDIUM, stored.getPriority());
+       assertEquals(2L, stored.getVersion());
+       assertEquals(3L, repository.update(id, null, task -> task.setPriority(Priority.HIGH)).orElseThrow().getVersion());
+   }
+
+   @Test
+   void updateAllMutatesOnlyTheTasksThatExist() {
+       List<Long> ids = new ArrayList<>(idsOf(repository.saveAll(List.of(newTask(ASSIGNEE, null), newTask(ASSIGNEE, null)))));
+       ids.add(Long.MAX_VALUE);
+
+       Map<Long, TaskManagement> updated = repository.updateAll(ids, tasks -> {
+           assertFalse(tasks.containsKey(Long.MAX_VALUE));
+           tasks.values().forEach(task -> task.setAssigneeId(OTHER_ASSIGNEE));
+       });
+
+       assertEquals(2, updated.size());
+       for (Long id : ids.subList(0, 2)) {
+           TaskManagement stored = repository.findById(id).orElseThrow();
+           assertEquals(OTHER_ASSIGNEE, stored.getAssigneeId());
+           assertEquals(2L, stored.getVersion());
+       }
+   }
+
+   @Test
+   void indexQueriesFollowEveryChange() {
+       long started = repository.countTasksByStatus(TaskStatus.STARTED);
+       long highPriority = repository.countTasksByPriority(Priority.HIGH);
+       TaskManagement first = repository.save(newTask(ASSIGNEE, Priority.HIGH));
+       TaskManagement second = repository.save(newTask(ASSIGNEE, Priority.LOW));
+       assertEquals(Set.of(first.getId(), second.getId()), Set.copyOf(idsOf(repository.findByAssigneeIdIn(List.of(ASSIGNEE)))));
+       assertEquals(Set.of(first.getId(), second.getId()),
+               Set.copyOf(idsOf(repository.findByReferenceIdAndReferenceType(REFERENCE, ReferenceType.ORDER))));
+       assertTrue(repository.findByReferenceIdAndReferenceType(REFERENCE, ReferenceType.ENTITY).isEmpty());
+       assertEquals(highPriority + 1, repository.countTasksByPriority(Priority.HIGH));
+
+       repository.update(first.getId(), task -> {
+           task.setAssigneeId(OTHER_ASSIGNEE);
+           task.setStatus(TaskStatus.STARTED);
+           task.setPriority(Priority.MEDIUM);
+       });
+       repository.update(second.getId(), task -> task.setStatus(TaskStatus.CANCELLED));
+
+       assertEquals(List.of(second.getId()), idsOf(repository.findByAssigneeIdIn(List.of(ASSIGNEE))));
+       assertEquals(List.of(first.getId()), idsOf(repository.findByAssigneeIdIn(List.of(OTHER_ASSIGNEE))));
+       assertTrue(idsOf(repository.findByPriority(Priority.MEDIUM)).contains(first.getId()));
+       assertFalse(idsOf(repository.findByPriority(Priority.HIGH)).contains(first.getId()));
+       assertEquals(started + 1, repository.countTasksByStatus(TaskStatus.STARTED));
+       assertEquals(highPriority, repository.countTasksByPriority(Priority.HIGH));
+       assertEquals(1, repository.statistics().count(OTHER_ASSIGNEE, TaskStatus.STARTED, Priority.MEDIUM));
+       // Cancelled tasks drop out of the daily view
+       assertTrue(repository.findDailyTasks(List.of(ASSIGNEE), 0, Long.MAX_VALUE).isEmpty());
+       assertEquals(List.of(first.getId()), idsOf(repository.findDailyTasks(List.of(ASSIGNEE, OTHER_ASSIGNEE), 0, Long.MAX_VALUE)));
+   }
+
+   @Test
+   void activitiesAndCommentsAreKeptInInsertionOrder() {
+       TaskManagement task = repository.save(newTask(ASSIGNEE, null));
+       repository.addActivity(task, "first", ASSIGNEE);
+       repository.addActivities(List.of(new Activity(task.getId(), "second", ASSIGNEE), new Activity(task.getId(), "third", null)));
+       repository.addComment(task, "hello", ASSIGNEE);
+       repository.appendHistory(List.of(new Activity(task.getId(), "fourth", null)), List.of(new Comment(task.getId(), "again", null)));
+
+       assertEquals(4, repository.countActivities(task.getId()));
+       assertEquals(List.of("first", "second", "third", "fourth"),
+               repository.findActivities(task.getId(), 0, 10).stream().map(Activity::getDescription).toList());
+       assertEquals(List.of("second", "third"),
+               repository.findActivities(task.getId(), 1, 2).stream().map(Activity::getDescription).toList());
+       List<Activity> activities = repository.findActivities(task.getId(), 0, 10);
+       assertEquals(4, activities.stream().map(Activity::getId).collect(Collectors.toSet()).size());
+       assertTrue(activities.stream().allMatch(activity -> task.getId().equals(activity.getTaskId())));
+
+       assertEquals(2, repository.countComments(task.getId()));
+       assertEquals(List.of("hello", "again"),
+               repository.findComments(task.getId(), 0, 10).stream().map(Comment::getComment).toList());
+       assertEquals(0, repository.countComments(repository.save(newTask(ASSIGNEE, null)).getId()));
+   }
+
+   protected static TaskManagement newTask(long assigneeId, Priority priority) {
+       TaskManagement task = new TaskManagement();
+       task.setReferenceId(REFERENCE);
+       task.setReferenceType(ReferenceType.ORDER);
+       task.setTask(Task.CREATE_INVOICE);
+       task.setDescription("contract task");
+       task.setStatus(TaskStatus.ASSIGNED);
+       task.setAssigneeId(assigneeId);
+       task.setTaskDeadlineTime(System.currentTimeMillis() + 86_400_000L);
+       task.setPriority(priority);
+       return task;
+   }
+
+   protected static List<Long> idsOf(List<TaskManagement> tasks) {
+       return tasks.stream().map(TaskManagement::getId).toList();
+   }
+}
@@ -0,0 +1,124 @@
+package com.railse.hiring.workforcemgmt.repository.persistence;
+
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.Comment;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Reads snapshots through windows far smaller than the file, so task blocks regularly straddle a window boundary
+ * and have to be decoded again from the next window.
+ */
+class SnapshotFileTest {
+
+   @TempDir
+   Path dataDirectory;
+
+   @Test
+   void smallWindowsLoadTheSameEntriesAsOneMapping() throws IOException {
+       List<SnapshotFile.Entry> written = new ArrayList<>();
+       for (long id = 1; id <= 200; id++) {
+           written.add(entry(id, "task " + "x".repeat((int) (id % 40))));
+       }
+       SnapshotFile.write(dataDirectory, 42, action -> written.forEach(action));
+
+       for (int windowBytes : new int[]{512, 777, 4096, Integer.MAX_VALUE}) {
+           Collector loaded = new Collector();
+           assertEquals(42, SnapshotFile.read(dataDirectory, loaded, windowBytes));
+           assertEquals(written, loaded.entries(), "window of " + windowBytes + " bytes");
+       }
+   }
+
+   @Test
+   void truncatedSnapshotIsRejected() throws IOException {
+       SnapshotFile.write(dataDirectory, 7, action -> {
+           for (long id = 1; id <= 20; id++) {
+               action.accept(entry(id, "task"));
+           }
+       });
+       try (FileChannel channel = FileChannel.open(dataDirectory.resolve("snapshot.bin"), StandardOpenOption.WRITE)) {
+           channel.truncate(channel.size() - 10);
+       }
+
+       assertThrows(IOException.class, () -> SnapshotFile.read(dataDirectory, new Collector(), 512));
+   }
+
+   private static SnapshotFile.Entry entry(long id, String description) {
+       LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(id);
+       TaskManagement task = new TaskManagement();
+       task.setId(id);
+       task.setReferenceId(id % 7);
+       task.setReferenceType(ReferenceType.ORDER);
+       task.setTask(Task.CREATE_INVOICE);
+       task.setDescription(description);
+       task.setStatus(TaskStatus.ASSIGNED);
+       task.setAssigneeId(id % 3 == 0 ? null : id % 5);
+       task.setPriority(Priority.values()[(int) (id % Priority.values().length)]);
+       task.setCreatedAt(createdAt);
+       task.setVersion(id % 4 + 1);
+       Activity activity = new Activity();
+       activity.setId(id);
+       activity.setTaskId(id);
+       activity.setDescription("created");
+       activity.setUserId(id);
+       activity.setCreatedAt(createdAt);
+       List<Comment> comments = new ArrayList<>();
+       for (long c = 0; c < id % 3; c++) {
+           Comment comment = new Comment();
+           comment.setId(id * 10 + c);
+           comment.setTaskId(id);
+           comment.setComment("comment " + c);
+           comment.setCreatedAt(createdAt);
+           comments.add(comment);
+       }
+       return new SnapshotFile.Entry(task, List.of(activity), comments);
+   }
+
+   // Groups what the loader is handed back into entries; activities and comments follow their task
+   private static final class Collector implements SnapshotFile.Loader {
+       private final List<TaskManagement> tasks = new ArrayList<>();
+       private final List<List<Activity>> activities = new ArrayList<>();
+       private final List<List<Comment>> comments = new ArrayList<>();
+
+       @Override
+       public void task(TaskManagement task) {
+           tasks.add(task);
+           activities.add(new ArrayList<>());
+           comments.add(new ArrayList<>());
+       }
+
+       @Override
+       public void activity(Activity activity) {
+           activities.get(activities.size() - 1).add(activity);
+       }
+
+       @Override
+       public void comment(Comment comment) {
+           comments.get(comments.size() - 1).add(comment);
+       }
+
+       List<SnapshotFile.Entry> entries() {
+           List<SnapshotFile.Entry> entries = new ArrayList<>();
+           for (int i = 0; i < tasks.size(); i++) {
+               entries.add(new SnapshotFile.Entry(tasks.get(i), activities.get(i), comments.get(i)));
+           }
+           return entries;
+       }
+   }
+}
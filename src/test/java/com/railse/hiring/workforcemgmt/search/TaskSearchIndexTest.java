@@ -0,0 +1,110 @@
+package com.railse.hiring.workforcemgmt.search;
+
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.feed.TaskChangeFeed;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskChangeType;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.InMemoryTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that description edits move a task's terms while comment terms stay, how prefix queries merge terms, and
+ * the assignee, status and priority filters. Changes go through the change feed and {@code flush()} waits for them.
+ */
+class TaskSearchIndexTest {
+
+   private final TaskRepository repository = new InMemoryTaskRepository(false) {
+   };
+   private final TaskChangeFeed changeFeed = new TaskChangeFeed(ForkJoinPool.commonPool(), 1024, 300);
+   private final TaskSearchIndex index = new TaskSearchIndex(repository, changeFeed, 1024);
+
+   @AfterEach
+   void closeIndex() {
+       index.close();
+   }
+
+   @Test
+   void descriptionEditDropsTermsUnlessACommentStillHoldsThem() throws Exception {
+       long fence = create("Paint the fence", 1, TaskStatus.ASSIGNED, Priority.LOW);
+       long door = create("Paint the door", 1, TaskStatus.ASSIGNED, Priority.LOW);
+       repository.addComment(repository.findById(door).orElseThrow(), "Fence needs paint too", 1L);
+       index.addComment(door, "Fence needs paint too");
+       index.flush();
+       assertEquals(List.of(door, fence), search("fence"));
+
+       update(fence, task -> task.setDescription("Sand the gate"));
+       update(door, task -> task.setDescription("Sand the door"));
+       index.flush();
+
+       assertEquals(List.of(door), search("fence"));
+       assertEquals(List.of(door), search("paint"));
+       assertEquals(List.of(door, fence), search("sand"));
+       assertEquals(List.of(fence), search("gate"));
+   }
+
+   @Test
+   void prefixQueriesMergeTermsWithoutDuplicatesNewestFirst() throws Exception {
+       long invoice = create("Invoice and invoicing notes", 1, TaskStatus.ASSIGNED, Priority.LOW);
+       long invoiced = create("Invoiced already", 1, TaskStatus.ASSIGNED, Priority.LOW);
+       long inventory = create("Inventory count", 1, TaskStatus.ASSIGNED, Priority.LOW);
+       create("Unrelated work", 1, TaskStatus.ASSIGNED, Priority.LOW);
+       index.flush();
+
+       assertEquals(List.of(invoiced, invoice), search("invoic*"));
+       assertEquals(List.of(inventory, invoiced, invoice), search("inv*"));
+       assertEquals(List.of(inventory, invoiced), index.search("inv*", null, null, null, 2));
+       assertEquals(List.of(invoice), search("inv* notes"));
+   }
+
+   @Test
+   void filtersNarrowByAssigneeStatusAndPriority() throws Exception {
+       long first = create("Collect payment", 1, TaskStatus.ASSIGNED, Priority.HIGH);
+       long second = create("Collect documents", 2, TaskStatus.STARTED, Priority.HIGH);
+       long third = create("Collect keys", 1, TaskStatus.COMPLETED, Priority.LOW);
+       index.flush();
+
+       assertEquals(List.of(third, first), index.search("collect", 1L, null, null, 10));
+       assertEquals(List.of(second), index.search("collect", null, TaskStatus.STARTED, null, 10));
+       assertEquals(List.of(second, first), index.search("collect", null, null, Priority.HIGH, 10));
+       assertEquals(List.of(first), index.search("collect", 1L, TaskStatus.ASSIGNED, Priority.HIGH, 10));
+       assertEquals(List.of(), index.search("collect", 3L, null, null, 10));
+
+       // Filters follow the change feed
+       update(first, task -> task.setAssigneeId(2L));
+       index.flush();
+       assertEquals(List.of(third), index.search("collect", 1L, null, null, 10));
+       assertEquals(List.of(second, first), index.search("collect", 2L, null, null, 10));
+   }
+
+   private List<Long> search(String query) {
+       return index.search(query, null, null, null, 10);
+   }
+
+   private long create(String description, long assigneeId, TaskStatus status, Priority priority) {
+       TaskManagement task = new TaskManagement();
+       task.setReferenceId(1L);
+       task.setReferenceType(ReferenceType.ORDER);
+       task.setTask(Task.CREATE_INVOICE);
+       task.setDescription(description);
+       task.setAssigneeId(assigneeId);
+       task.setStatus(status);
+       task.setPriority(priority);
+       changeFeed.publish(TaskChangeType.CREATED, repository.save(task));
+       return task.getId();
+   }
+
+   private void update(long id, Consumer<TaskManagement> mutation) {
+       repository.update(id, mutation).ifPresent(task -> changeFeed.publish(TaskChangeType.UPDATED, task));
+   }
+}